@@ -0,0 +1,116 @@
+package hello.proxy.bench;
+
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 빈이 많은 컨텍스트의 기동 시간 (AutoProxyConfig.advisor3)
+ *
+ * 빈 클래스는 모두 서로 다른 클래스로 만든다. (CGLIB NoOp 하위 클래스) 같은 클래스를 반복하면 포인트컷 캐시가 바로 적중해서 차이가 드러나지 않는다.
+ *   - 10% : hello.proxy.app.v2.OrderRepositoryV2 하위 클래스, 포인트컷 대상
+ *   - 90% : hello.proxy.bench.SyntheticBean 하위 클래스, 대상 아님
+ *
+ * pointcut
+ *   - expression : AspectJExpressionPointcut 만 사용
+ *   - indexed : AutoProxyConfig.advisor3, 패키지 트라이 + 클래스별 캐시 (IndexedPointcut)
+ *
+ * 측정 단위는 컨텍스트 하나의 refresh + close 이다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AutoProxyStartupBenchmark {
+
+    private static final String EXPRESSION = "execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))";
+
+    @Param({"1000", "10000"})
+    public int beans;
+
+    @Param({"expression", "indexed"})
+    public String pointcut;
+
+    private final List<Class<?>> beanClasses = new ArrayList<>();
+    private LogTrace logTrace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logTrace = ProxyStrategies.logTrace("off");
+        for (int i = 0; i < beans; i++) {
+            beanClasses.add(generate(i % 10 == 0 ? OrderRepositoryV2.class : SyntheticBean.class));
+        }
+    }
+
+    @Benchmark
+    public void refresh() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        AopConfigUtils.registerAspectJAnnotationAutoProxyCreatorIfNecessary(context);
+        AopConfigUtils.forceAutoProxyCreatorToUseClassProxying(context);
+        context.registerBean("advisor3", Advisor.class, this::advisor);
+        for (int i = 0; i < beanClasses.size(); i++) {
+            register(context, "bean" + i, beanClasses.get(i));
+        }
+        context.refresh();
+        context.close();
+    }
+
+    private Advisor advisor() {
+        if ("indexed".equals(pointcut)) {
+            return new AutoProxyConfig().advisor3(logTrace);
+        }
+        AspectJExpressionPointcut expression = new AspectJExpressionPointcut();
+        expression.setExpression(EXPRESSION);
+        return new DefaultPointcutAdvisor(expression, new LogTraceAdvice(logTrace));
+    }
+
+    private static <T> void register(GenericApplicationContext context, String beanName, Class<T> type) {
+        context.registerBean(beanName, type, () -> {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static Class<?> generate(Class<?> superclass) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(superclass);
+        enhancer.setCallbackType(NoOp.class);
+        enhancer.setUseCache(false);
+        Class<?> type = enhancer.createClass();
+        Enhancer.registerStaticCallbacks(type, new Callback[]{NoOp.INSTANCE});
+        return type;
+    }
+
+    public static class SyntheticBean {
+
+        public String find(String id) {
+            return id;
+        }
+
+        public void update(String id, String value) {
+        }
+
+        public int count() {
+            return 0;
+        }
+    }
+}
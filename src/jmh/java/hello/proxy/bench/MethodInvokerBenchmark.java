@@ -0,0 +1,100 @@
+package hello.proxy.bench;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.method.InvocationStrategy;
+import hello.proxy.trace.method.MethodInvoker;
+import hello.proxy.trace.method.MethodInvokerCache;
+import hello.proxy.trace.method.MethodMetadataRegistry;
+import hello.proxy.trace.method.TargetMethodInvokers;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK 동적 프록시 핸들러의 target 호출 방식 비교 (MethodInvokerCache)
+ *   - direct : 일반 메서드 호출 (기준값)
+ *   - reflection / methodHandle : invoker 만 호출
+ *   - proxyReflection / proxyMethodHandle : LogTraceBasicHandler 프록시 전체, 트레이스는 끈다.
+ *   - lookupByClass / lookupByTarget : invoker 조회 비용, MethodInvokerCache(ClassValue + 맵) 와 TargetMethodInvokers(맵) 비교
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+
+    private final Object[] args = {"itemA"};
+
+    private OrderServiceV1 target;
+    private MethodInvoker reflectionInvoker;
+    private MethodInvoker methodHandleInvoker;
+    private OrderServiceV1 proxyReflection;
+    private OrderServiceV1 proxyMethodHandle;
+    private Method orderItem;
+    private MethodInvokerCache invokerCache;
+    private TargetMethodInvokers targetInvokers;
+
+    @Setup
+    public void setUp() throws Exception {
+        OrderRepositoryV1 repository = itemId -> {
+        };
+        target = new OrderServiceV1Impl(repository);
+        orderItem = OrderServiceV1.class.getMethod("orderItem", String.class);
+        reflectionInvoker = new MethodInvokerCache(InvocationStrategy.REFLECTION).invoker(target.getClass(), orderItem);
+        methodHandleInvoker = new MethodInvokerCache(InvocationStrategy.METHOD_HANDLE).invoker(target.getClass(), orderItem);
+        invokerCache = new MethodInvokerCache(InvocationStrategy.METHOD_HANDLE);
+        targetInvokers = new TargetMethodInvokers(target.getClass(), invokerCache).preload();
+
+        LogTrace logTrace = ProxyStrategies.logTrace("off");
+        proxyReflection = proxy(logTrace, InvocationStrategy.REFLECTION);
+        proxyMethodHandle = proxy(logTrace, InvocationStrategy.METHOD_HANDLE);
+    }
+
+    private OrderServiceV1 proxy(LogTrace logTrace, InvocationStrategy strategy) {
+        LogTraceBasicHandler handler = new LogTraceBasicHandler(target, logTrace, new MethodMetadataRegistry(), new MethodInvokerCache(strategy));
+        return (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(), new Class[]{OrderServiceV1.class}, handler);
+    }
+
+    @Benchmark
+    public void direct() {
+        target.orderItem("itemA");
+    }
+
+    @Benchmark
+    public Object reflection() throws Throwable {
+        return reflectionInvoker.invoke(target, args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return methodHandleInvoker.invoke(target, args);
+    }
+
+    @Benchmark
+    public void proxyReflection() {
+        proxyReflection.orderItem("itemA");
+    }
+
+    @Benchmark
+    public void proxyMethodHandle() {
+        proxyMethodHandle.orderItem("itemA");
+    }
+
+    @Benchmark
+    public MethodInvoker lookupByClass() {
+        return invokerCache.invoker(target.getClass(), orderItem);
+    }
+
+    @Benchmark
+    public MethodInvoker lookupByTarget() {
+        return targetInvokers.get(orderItem);
+    }
+}
@@ -0,0 +1,64 @@
+package hello.proxy.bench;
+
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.blueprint.ProxyBlueprints;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 클래스의 빈을 프록시로 만드는 비용, ProxyFactory 를 빈마다 새로 구성 vs ProxyBlueprint 재사용
+ *   - proxyFactory : ProxyFactoryConfigV1/V2 의 기존 방식, 빈마다 어드바이저를 새로 만들고 ProxyFactory 를 구성한다.
+ *   - blueprint : 어드바이저와 ProxyBlueprint 를 공유한다.
+ * 빈 하나당 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBlueprintBenchmark {
+
+    @Param({"jdk", "cglib"})
+    public String proxy;
+
+    @Param({"proxyFactory", "blueprint"})
+    public String mode;
+
+    private LogTrace logTrace;
+    private Advisor sharedAdvisor;
+    private ProxyBlueprints blueprints;
+
+    @Setup
+    public void setUp() {
+        logTrace = ProxyStrategies.logTrace("off");
+        sharedAdvisor = advisor(logTrace);
+        blueprints = new ProxyBlueprints();
+    }
+
+    @Benchmark
+    public Object create() {
+        Object target = "jdk".equals(proxy) ? new OrderServiceV1Impl(itemId -> {
+        }) : new OrderServiceV2(null);
+        if ("blueprint".equals(mode)) {
+            return blueprints.getProxy(target, sharedAdvisor);
+        }
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(advisor(logTrace));
+        return factory.getProxy();
+    }
+
+    private static Advisor advisor(LogTrace logTrace) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(ProxyStrategies.PATTERNS);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+    }
+}
@@ -0,0 +1,40 @@
+package hello.proxy.bench;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 프록시 전략별 호출 하나의 비용 (ProxyStrategies 참고)
+ * 호출당 할당량은 GC 프로파일러(build.gradle 의 jmh.profilers)의 gc.alloc.rate.norm 으로 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyCallBenchmark {
+
+    @Param({"direct", "interfaceProxy", "concreteProxy", "jdkBasic", "jdkFilter",
+            "proxyFactoryJdk", "proxyFactoryCglib", "singleAdvice", "postProcessor", "aspect"})
+    public String strategy;
+
+    @Param({"off", "on"})
+    public String tracing;
+
+    private Consumer<String> orderService;
+
+    @Setup
+    public void setUp() {
+        LogTrace logTrace = ProxyStrategies.logTrace(tracing);
+        orderService = ProxyStrategies.orderService(strategy, logTrace);
+    }
+
+    @Benchmark
+    public void orderItem() {
+        orderService.accept("itemA");
+    }
+}
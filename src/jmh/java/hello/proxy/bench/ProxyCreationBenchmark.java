@@ -0,0 +1,36 @@
+package hello.proxy.bench;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프록시 전략별 프록시 객체 하나를 만드는 비용
+ * 프록시 클래스 생성(CGLIB 바이트코드, JDK Proxy 클래스)은 첫 호출에만 일어나고 이후에는 캐시를 쓰므로, 여기서는 정상 상태의 생성 비용을 본다.
+ * 빈 등록 시점에 빈마다 한 번씩 드는 비용이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyCreationBenchmark {
+
+    @Param({"direct", "interfaceProxy", "concreteProxy", "jdkBasic", "jdkFilter",
+            "proxyFactoryJdk", "proxyFactoryCglib", "singleAdvice", "postProcessor", "aspect"})
+    public String strategy;
+
+    private LogTrace logTrace;
+
+    @Setup
+    public void setUp() {
+        logTrace = ProxyStrategies.logTrace("off");
+    }
+
+    @Benchmark
+    public Object create() {
+        return ProxyStrategies.create(strategy, logTrace);
+    }
+}
@@ -0,0 +1,176 @@
+package hello.proxy.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderServiceConcreteProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceServiceProxy;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceFilterHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.singleadvice.SingleAdviceAopProxyFactory;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Consumer;
+
+/**
+ * 벤치마크용 프록시 생성
+ * 레포지토리는 Thread.sleep(1000) 대신 아무것도 하지 않는 스텁을 쓰고, 서비스 한 단계만 프록시를 적용해서 프록시 자체의 비용만 남긴다.
+ *
+ * strategy
+ *   - direct : 프록시 없음 (기준값)
+ *   - interfaceProxy : config.v1_proxy.interface_proxy
+ *   - concreteProxy : config.v1_proxy.concrete_proxy
+ *   - jdkBasic : JDK 동적 프록시 + LogTraceBasicHandler
+ *   - jdkFilter : JDK 동적 프록시 + LogTraceFilterHandler
+ *   - proxyFactoryJdk : ProxyFactory, 인터페이스가 있으므로 JDK 동적 프록시 (ProxyFactoryConfigV1)
+ *   - proxyFactoryCglib : ProxyFactory, 구체 클래스 CGLIB (ProxyFactoryConfigV2)
+ *   - singleAdvice : ProxyFactory + SingleAdviceAopProxyFactory, 구체 클래스 (ProxyFactoryConfigV2 + proxy.engine=single-advice)
+ *   - postProcessor : PackageLogTracePostProcessor 가 만든 프록시
+ *   - aspect : @Aspect(LogTraceAspect) 를 AspectJProxyFactory 로 적용
+ *
+ * tracing
+ *   - on : ThreadLocalLogTrace, 로그 출력(appender) 비용은 빼기 위해 로거 레벨을 끈다.
+ *   - off : 아무것도 하지 않는 LogTrace, 순수 프록시 비용
+ */
+public final class ProxyStrategies {
+
+    public static final String[] PATTERNS = {"request*", "order*", "save*"};
+
+    private static final OrderRepositoryV1 NOOP_REPOSITORY_V1 = itemId -> {
+    };
+
+    private static final OrderRepositoryV2 NOOP_REPOSITORY_V2 = new OrderRepositoryV2() {
+        @Override
+        public void save(String itemId) {
+        }
+    };
+
+    private static final TraceStatus NOOP_STATUS = new TraceStatus(TraceId.notSampled(), 0, null);
+
+    private static final LogTrace NOOP_LOG_TRACE = new LogTrace() {
+        @Override
+        public TraceStatus begin(String message) {
+            return NOOP_STATUS;
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+        }
+    };
+
+    private ProxyStrategies() {
+    }
+
+    public static LogTrace logTrace(String tracing) {
+        silenceLogs();
+        return "off".equals(tracing) ? NOOP_LOG_TRACE : new ThreadLocalLogTrace();
+    }
+
+    /**
+     * 트레이스 로그와 프록시 생성 로그(PackageLogTracePostProcessor 등)를 끈다.
+     */
+    private static void silenceLogs() {
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(Level.OFF);
+    }
+
+    /**
+     * 서비스 호출(orderItem) 하나를 Consumer 로 감싼다. 한 번의 측정에는 전략 하나만 쓰므로 호출 지점은 단형(monomorphic)으로 유지된다.
+     */
+    public static Consumer<String> orderService(String strategy, LogTrace logTrace) {
+        if (isV2(strategy)) {
+            return createV2(strategy, logTrace)::orderItem;
+        }
+        return createV1(strategy, logTrace)::orderItem;
+    }
+
+    public static OrderServiceV1 createV1(String strategy, LogTrace logTrace) {
+        OrderServiceV1 target = new OrderServiceV1Impl(NOOP_REPOSITORY_V1);
+        switch (strategy) {
+            case "direct":
+                return target;
+            case "interfaceProxy":
+                return new OrderServiceInterfaceServiceProxy(target, logTrace);
+            case "jdkBasic":
+                return (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
+                        new Class[]{OrderServiceV1.class}, new LogTraceBasicHandler(target, logTrace));
+            case "jdkFilter":
+                return (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
+                        new Class[]{OrderServiceV1.class}, new LogTraceFilterHandler(target, logTrace, PATTERNS));
+            case "proxyFactoryJdk": {
+                ProxyFactory factory = new ProxyFactory(target);
+                factory.addAdvisor(advisor(logTrace));
+                return (OrderServiceV1) factory.getProxy();
+            }
+            case "postProcessor":
+                return (OrderServiceV1) new PackageLogTracePostProcessor("hello.proxy.app", advisor(logTrace))
+                        .postProcessAfterInitialization(target, "orderServiceV1");
+            case "aspect": {
+                AspectJProxyFactory factory = new AspectJProxyFactory(target);
+                factory.addAspect(new LogTraceAspect(logTrace));
+                return factory.getProxy();
+            }
+            default:
+                throw new IllegalArgumentException("알 수 없는 strategy=" + strategy);
+        }
+    }
+
+    public static OrderServiceV2 createV2(String strategy, LogTrace logTrace) {
+        OrderServiceV2 target = new OrderServiceV2(NOOP_REPOSITORY_V2);
+        switch (strategy) {
+            case "concreteProxy":
+                return new OrderServiceConcreteProxy(target, logTrace);
+            case "proxyFactoryCglib": {
+                ProxyFactory factory = new ProxyFactory(target);
+                factory.addAdvisor(advisor(logTrace));
+                return (OrderServiceV2) factory.getProxy();
+            }
+            case "singleAdvice": {
+                ProxyFactory factory = new ProxyFactory(target);
+                factory.addAdvisor(advisor(logTrace));
+                factory.setFrozen(true);
+                factory.setAopProxyFactory(new SingleAdviceAopProxyFactory());
+                return (OrderServiceV2) factory.getProxy();
+            }
+            default:
+                throw new IllegalArgumentException("알 수 없는 strategy=" + strategy);
+        }
+    }
+
+    public static Object create(String strategy, LogTrace logTrace) {
+        if (isV2(strategy)) {
+            return createV2(strategy, logTrace);
+        }
+        return createV1(strategy, logTrace);
+    }
+
+    private static boolean isV2(String strategy) {
+        return "concreteProxy".equals(strategy) || "proxyFactoryCglib".equals(strategy) || "singleAdvice".equals(strategy);
+    }
+
+    private static Advisor advisor(LogTrace logTrace) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(PATTERNS);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+    }
+}
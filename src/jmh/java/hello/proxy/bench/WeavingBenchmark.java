@@ -0,0 +1,48 @@
+package hello.proxy.bench;
+
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aspectj.lang.Aspects;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LogTraceAspect 프록시 방식과 컴파일 시점 위빙 비교
+ *
+ * 위빙은 빌드 단위로 결정되므로 같은 벤치마크를 두 번 실행해서 비교한다.
+ *   - ./gradlew jmh -Pjmh.includes=WeavingBenchmark            : AspectJProxyFactory 프록시 (results.json)
+ *   - ./gradlew jmh -Pjmh.includes=WeavingBenchmark -Pweaving=ctw : 위빙된 OrderServiceV1Impl 직접 호출 (results-ctw.json)
+ *
+ * 위빙 빌드에서는 app 클래스 자체에 어드바이스가 들어가 있으므로 ProxyCallBenchmark 의 direct 도 로그를 남긴다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeavingBenchmark {
+
+    @Param({"off", "on"})
+    public String tracing;
+
+    private OrderServiceV1 orderService;
+
+    @Setup
+    public void setUp() {
+        LogTrace logTrace = ProxyStrategies.logTrace(tracing);
+        if (Aspects.hasAspect(LogTraceAspect.class)) {
+            Aspects.aspectOf(LogTraceAspect.class).configure(logTrace, null);
+            orderService = ProxyStrategies.createV1("direct", logTrace);
+        } else {
+            orderService = ProxyStrategies.createV1("aspect", logTrace);
+        }
+    }
+
+    @Benchmark
+    public void orderItem() {
+        orderService.orderItem("itemA");
+    }
+}
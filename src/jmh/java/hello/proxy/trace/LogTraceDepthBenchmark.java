@@ -0,0 +1,45 @@
+package hello.proxy.trace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThreadLocalLogTrace 로 depth 단계의 중첩 호출(begin depth 번, end depth 번)을 하나의 트레이스로 처리하는 비용
+ * 로그 출력(appender) 비용은 빼기 위해 로거 레벨을 끈다. 로그 문자열(addSpace)과 TraceId, TraceStatus 생성은 그대로 남는다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogTraceDepthBenchmark {
+
+    @Param({"1", "2", "5", "10"})
+    public int depth;
+
+    private ThreadLocalLogTrace trace;
+    private TraceStatus[] statuses;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class)).setLevel(Level.OFF);
+        trace = new ThreadLocalLogTrace();
+        statuses = new TraceStatus[depth];
+    }
+
+    @Benchmark
+    public void beginEnd() {
+        for (int i = 0; i < depth; i++) {
+            statuses[i] = trace.begin("OrderServiceV1.orderItem()");
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            trace.end(statuses[i]);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hello.proxy.trace;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * 트레이스 내부 벤치마크를 스레드 수 1/4/16/64 로 반복 실행한다. GC 프로파일러로 연산당 할당량(gc.alloc.rate.norm)도 남긴다.
+ * 스레드 수마다 결과 파일을 따로 남긴다. (trace-threads-1.json ...)
+ *
+ * 실행 ./gradlew jmhTrace
+ */
+public class TraceBenchmarkRunner {
+
+    private static final int[] THREADS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        File resultDir = new File(args.length > 0 ? args[0] : "build/results/jmh");
+        resultDir.mkdirs();
+
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(TraceInternalsBenchmark.class.getSimpleName())
+                    .include(LogTraceDepthBenchmark.class.getSimpleName())
+                    .include(TraceTemplateBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDir, "trace-threads-" + threads + ".json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package hello.proxy.trace;
+
+import hello.proxy.trace.id.SequenceTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.id.UuidTraceIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 루트 트레이스 ID 생성 비용 비교 (8 스레드 동시 호출)
+ *   - legacyUuidString : 기존 TraceId.createId(), UUID.randomUUID().toString().substring(0, 8)
+ *   - uuidGenerator : UUID 를 쓰되 문자열은 만들지 않는 방식
+ *   - sequenceGenerator : 스레드별 시퀀스 + prefix
+ *   - sequenceGeneratorHex : 로그 출력까지 고려해서 hex 변환 포함
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TraceIdBenchmark {
+
+    private final TraceIdGenerator uuidGenerator = new UuidTraceIdGenerator();
+    private final TraceIdGenerator sequenceGenerator = new SequenceTraceIdGenerator();
+
+    @Benchmark
+    public String legacyUuidString() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Benchmark
+    public long uuidGenerator() {
+        return uuidGenerator.nextId();
+    }
+
+    @Benchmark
+    public long sequenceGenerator() {
+        return sequenceGenerator.nextId();
+    }
+
+    @Benchmark
+    public String sequenceGeneratorHex() {
+        return TraceId.toHexString(sequenceGenerator.nextId());
+    }
+}
@@ -0,0 +1,74 @@
+package hello.proxy.trace;
+
+import hello.proxy.trace.logtrace.TracePrefixes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트레이스 부품 하나하나의 비용
+ *   - newTraceId : 루트 TraceId 생성 (ID 생성기 포함)
+ *   - createNextId / createPreviousId : 깊이가 바뀔 때마다 만드는 TraceId
+ *   - addSpace : ThreadLocalLogTrace 의 들여쓰기 문자열, 호출마다 StringBuilder 로 만든다.
+ *   - tracePrefixes : 미리 만들어 둔 들여쓰기 문자열 (GarbageFreeLogTrace)
+ * 스레드 수를 바꿔가며 실행하려면 TraceBenchmarkRunner 를 사용한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceInternalsBenchmark {
+
+    private static final String START_PREFIX = "-->";
+
+    @Param({"1", "5", "10"})
+    public int level;
+
+    private TraceId traceId;
+
+    @Setup
+    public void setUp() {
+        traceId = new TraceId();
+        for (int i = 0; i < level; i++) {
+            traceId = traceId.createNextId();
+        }
+    }
+
+    @Benchmark
+    public TraceId newTraceId() {
+        return new TraceId();
+    }
+
+    @Benchmark
+    public TraceId createNextId() {
+        return traceId.createNextId();
+    }
+
+    @Benchmark
+    public TraceId createPreviousId() {
+        return traceId.createPreviousId();
+    }
+
+    @Benchmark
+    public String addSpace() {
+        return addSpace(START_PREFIX, level);
+    }
+
+    @Benchmark
+    public String tracePrefixes() {
+        return TracePrefixes.start(level);
+    }
+
+    /**
+     * ThreadLocalLogTrace.addSpace() 와 같은 코드
+     */
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
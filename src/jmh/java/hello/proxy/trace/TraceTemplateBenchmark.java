@@ -0,0 +1,65 @@
+package hello.proxy.trace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.trace.callback.TraceTemplate;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.template.AbstractTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 템플릿 메서드 패턴(AbstractTemplate)과 템플릿 콜백 패턴(TraceTemplate) 비교
+ *   - abstractTemplate : 실제 사용처처럼 호출마다 익명 클래스를 새로 만든다.
+ *   - abstractTemplateReused : 익명 클래스 인스턴스를 재사용한다.
+ *   - traceTemplate : 캡처 없는 람다 콜백
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceTemplateBenchmark {
+
+    private LogTrace trace;
+    private TraceTemplate traceTemplate;
+    private AbstractTemplate<String> reusedTemplate;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class)).setLevel(Level.OFF);
+        trace = new ThreadLocalLogTrace();
+        traceTemplate = new TraceTemplate(trace);
+        reusedTemplate = new AbstractTemplate<>(trace) {
+            @Override
+            protected String call() {
+                return "ok";
+            }
+        };
+    }
+
+    @Benchmark
+    public String abstractTemplate() {
+        AbstractTemplate<String> template = new AbstractTemplate<>(trace) {
+            @Override
+            protected String call() {
+                return "ok";
+            }
+        };
+        return template.execute("OrderController.request()");
+    }
+
+    @Benchmark
+    public String abstractTemplateReused() {
+        return reusedTemplate.execute("OrderController.request()");
+    }
+
+    @Benchmark
+    public String traceTemplate() {
+        return traceTemplate.execute("OrderController.request()", () -> "ok");
+    }
+}
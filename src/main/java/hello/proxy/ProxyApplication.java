@@ -1,21 +1,13 @@
 package hello.proxy;
 
-import hello.proxy.config.AppV1Config;
-import hello.proxy.config.AppV2Config;
-import hello.proxy.config.v1_proxy.ConcreteProxyConfig;
-import hello.proxy.config.v1_proxy.InterfaceProxyConfig;
-import hello.proxy.config.v2_dynamicproxy.DynamicProxyBasicConfig;
-import hello.proxy.config.v2_dynamicproxy.DynamicProxyFilterConfig;
-import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
-import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV2;
-import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
-import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
-import hello.proxy.config.v6_aop.AopConfig;
-import hello.proxy.trace.logtrace.LogTrace;
-import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.config.BulkheadConfig;
+import hello.proxy.config.LogTraceConfig;
+import hello.proxy.config.ProxyClassCacheConfig;
+import hello.proxy.config.ProxyStartupConfig;
+import hello.proxy.config.ProxyStrategySelector;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Import;
 
 /**
@@ -29,27 +21,22 @@ import org.springframework.context.annotation.Import;
  * 따라서 컴포넌트 스캔에 의해 hello.proxy.config 위치의 설정 파일들이 스프링 빈으로 자동 등록 되지 않도록 컴포넌스 스캔의 시작 위치를
  * !!!!!! scanBasePackages=hello.proxy.app !!!!!! 로 설정해야 한다. 그리고 필요한 Config 만 빈으로 등록하기 위해
  * !!!!! @Import(AppV1Config.class) !!!!! 를 사용한 것이다.
+ *
+ * LogTrace 빈은 LogTraceConfig 에서 trace.mode 설정에 따라 등록한다.
+ * 프록시 적용 방식(AppV1Config, InterfaceProxyConfig, ..., AopConfig)은 @Import 줄을 주석으로 바꾸지 않고 ProxyStrategySelector 가 proxy.strategy 값으로 고른다.
+ *   예) --proxy.strategy=auto-proxy 또는 --spring.profiles.active=auto-proxy
+ *
+ * BulkheadConfig : 레포지토리 save() 동시 실행 제한, 상태 조회는 /bulkhead
+ *
+ * BufferingApplicationStartup : 기동 단계별 시간을 메모리에 모아둔다. 기동이 끝나면 방식별 기동 비용 리포트를 남긴다. (ProxyStartupConfig, /startup)
  */
-//@Import({AppV1Config.class, AppV2Config.class}) // Config Import 스프링 빈으로 등록
-//@Import(InterfaceProxyConfig.class) // proxy config 스프링 빈으로 등록
-//@Import(ConcreteProxyConfig.class)
-//@Import(DynamicProxyBasicConfig.class)
-//@Import(DynamicProxyFilterConfig.class)
-//@Import(ProxyFactoryConfigV1.class)
-//@Import(ProxyFactoryConfigV2.class)
-//@Import(BeanPostProcessorConfig.class)
-//@Import(AutoProxyConfig.class)
-@Import(AopConfig.class)
+@Import({ProxyStrategySelector.class, LogTraceConfig.class, ProxyStartupConfig.class, ProxyClassCacheConfig.class, BulkheadConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.proxy.app") //주의
 public class ProxyApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ProxyApplication.class, args);
+		SpringApplication application = new SpringApplication(ProxyApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(10000));
+		application.run(args);
 	}
-
-	@Bean
-	public LogTrace logTrace() {
-		return new ThreadLocalLogTrace();
-	}
-
 }
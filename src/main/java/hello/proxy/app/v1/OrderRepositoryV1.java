@@ -1,5 +1,8 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.processor.Traced;
+
+@Traced
 public interface OrderRepositoryV1 {
     void save(String itemId);
 }
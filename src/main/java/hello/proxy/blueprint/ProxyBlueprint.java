@@ -0,0 +1,156 @@
+package hello.proxy.blueprint;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 같은 대상 클래스, 같은 어드바이저 목록으로 만드는 프록시들이 함께 쓰는 설계도
+ *
+ * ProxyFactory 를 빈마다 새로 만들면 다음을 빈마다 반복한다.
+ *   - 대상 클래스의 인터페이스 목록 계산
+ *   - 메서드별 인터셉터 체인 계산, 그리고 프록시마다 따로 들고 있는 methodCache
+ * ProxyBlueprint 는 이것들을 한 번만 만들어 두고 공유한다.
+ *   - advisors : 어드바이저 체인
+ *   - interceptors : 메서드별 인터셉터 목록, 생성 시점에 대상 클래스의 public 메서드는 미리 계산한다.
+ *     프록시의 어드바이저를 나중에 바꾸면 그 프록시만 설계도의 목록을 쓰지 않고 스프링이 다시 계산한다.
+ *   - 프록시 클래스 : 같은 어드바이저 인스턴스를 쓰므로 CGLIB/JDK 가 같은 프록시 클래스를 재사용한다.
+ *
+ * 빈마다 남는 것은 대상 객체를 담는 ProxyFactory(AdvisedSupport)와 프록시 인스턴스뿐이다.
+ *
+ * 만든 프록시는 기본적으로 frozen 이 아니다. 스프링 CGLIB 프록시는 frozen 이면 프록시마다 메서드별 고정 인터셉터(콜백)를 만들어서
+ * 빈마다 남는 힙이 오히려 늘어난다. frozen 은 그것을 전제로 하는 엔진(SingleAdviceAopProxy)을 쓸 때만 켠다.
+ */
+public class ProxyBlueprint {
+
+    private final Class<?> targetClass;
+    private final Advisor[] advisors;
+    private final Class<?>[] interfaces;
+    private final boolean proxyTargetClass;
+    private final boolean frozen;
+    private final AopProxyFactory aopProxyFactory;
+
+    private final AdvisedSupport template = new AdvisedSupport();
+    private final AdvisorChainFactory advisorChainFactory = new DefaultAdvisorChainFactory();
+    private final ConcurrentMap<Method, List<Object>> interceptors = new ConcurrentHashMap<>();
+
+    private volatile Class<?> proxyClass;
+
+    public ProxyBlueprint(Class<?> targetClass, Advisor[] advisors, boolean proxyTargetClass, boolean frozen, AopProxyFactory aopProxyFactory) {
+        this.targetClass = targetClass;
+        this.advisors = advisors.clone();
+        this.interfaces = ClassUtils.getAllInterfacesForClass(targetClass);
+        this.proxyTargetClass = proxyTargetClass;
+        this.frozen = frozen;
+        this.aopProxyFactory = aopProxyFactory;
+
+        template.setTargetClass(targetClass);
+        template.addAdvisors(this.advisors);
+        template.setFrozen(true);
+        precompute(targetClass);
+        for (Class<?> ifc : interfaces) {
+            precompute(ifc); // JDK 동적 프록시는 인터페이스의 Method 로 조회한다.
+        }
+    }
+
+    private void precompute(Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (!ReflectionUtils.isObjectMethod(method)) {
+                interceptors(method, targetClass);
+            }
+        }
+    }
+
+    public Object createProxy(Object target) {
+        if (target.getClass() != targetClass) {
+            throw new IllegalArgumentException("설계도의 대상 클래스와 다릅니다. blueprint=" + targetClass.getName() + ", target=" + target.getClass().getName());
+        }
+        BlueprintProxyFactory factory = new BlueprintProxyFactory(this);
+        factory.setTarget(target);
+        factory.setInterfaces(interfaces);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvisors(advisors);
+        factory.setAopProxyFactory(aopProxyFactory);
+        factory.setFrozen(frozen);
+        factory.share();
+
+        Object proxy = factory.getProxy();
+        if (proxyClass == null) {
+            proxyClass = proxy.getClass();
+        }
+        return proxy;
+    }
+
+    /**
+     * 메서드별 인터셉터 목록, 대상 클래스가 같으면 모든 프록시가 같은 목록을 쓴다.
+     */
+    List<Object> interceptors(Method method, Class<?> targetClass) {
+        if (targetClass != null && targetClass != this.targetClass) {
+            return advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(template, method, targetClass);
+        }
+        List<Object> cached = interceptors.get(method);
+        if (cached == null) {
+            cached = interceptors.computeIfAbsent(method, key -> Collections.unmodifiableList(
+                    advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(template, key, this.targetClass)));
+        }
+        return cached;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 이 설계도로 만든 프록시 클래스, 아직 만든 프록시가 없으면 null
+     */
+    public Class<?> getProxyClass() {
+        return proxyClass;
+    }
+
+    public int getInterceptorCacheSize() {
+        return interceptors.size();
+    }
+
+    /**
+     * 프록시마다 인터셉터 체인을 계산하고 캐시하는 대신 설계도의 목록을 돌려준다.
+     * 설정을 마친 뒤(share) 어드바이저가 바뀌면 설계도와 달라지므로 스프링의 계산으로 돌아간다.
+     */
+    private static class BlueprintProxyFactory extends ProxyFactory {
+
+        private final ProxyBlueprint blueprint;
+        private volatile boolean shared;
+
+        BlueprintProxyFactory(ProxyBlueprint blueprint) {
+            this.blueprint = blueprint;
+        }
+
+        void share() {
+            shared = true;
+        }
+
+        @Override
+        protected void adviceChanged() {
+            super.adviceChanged();
+            shared = false;
+        }
+
+        @Override
+        public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, Class<?> targetClass) {
+            if (shared) {
+                return blueprint.interceptors(method, targetClass);
+            }
+            return super.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+        }
+    }
+}
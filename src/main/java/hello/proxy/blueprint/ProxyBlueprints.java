@@ -0,0 +1,149 @@
+package hello.proxy.blueprint;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * (대상 클래스, proxyTargetClass, 어드바이저 목록)별 ProxyBlueprint 저장소
+ *
+ * 어드바이저는 인스턴스를 공유해야 설계도를 재사용할 수 있다. 빈마다 getAdvisor() 로 새 어드바이저를 만들면 빈마다 설계도가 생긴다.
+ *
+ * 대상이 이미 스프링 AOP 프록시(Advised)이면 프록시를 한 겹 더 씌우지 않고 어드바이저 체인 하나로 합친다. (평탄화)
+ *   client -> proxy2(advisor2) -> proxy1(advisor1) -> target  =>  client -> proxy(advisor2, advisor1) -> target
+ * 기존 프록시의 TargetSource 와 인터페이스(getProxiedInterfaces)를 그대로 써서 (새 어드바이저 + 기존 어드바이저) 프록시를 새로 만든다.
+ * 기존 프록시는 바꾸지 않는다. 새 어드바이저가 바깥 프록시였을 때처럼 먼저 실행되므로 어드바이저 실행 순서는 그대로다.
+ * 평탄화한 빈 목록은 getFlattenedBeans() 로 확인한다.
+ */
+@Slf4j
+public class ProxyBlueprints {
+
+    private final AopProxyFactory aopProxyFactory;
+    private final boolean proxyTargetClass;
+    private final boolean frozen;
+    private final ConcurrentMap<Key, ProxyBlueprint> blueprints = new ConcurrentHashMap<>();
+    private final List<String> flattenedBeans = new CopyOnWriteArrayList<>();
+
+    public ProxyBlueprints() {
+        this(new DefaultAopProxyFactory(), false);
+    }
+
+    public ProxyBlueprints(AopProxyFactory aopProxyFactory) {
+        this(aopProxyFactory, false);
+    }
+
+    public ProxyBlueprints(AopProxyFactory aopProxyFactory, boolean proxyTargetClass) {
+        this(aopProxyFactory, proxyTargetClass, false);
+    }
+
+    /**
+     * frozen : 만드는 프록시를 frozen 으로 만든다. (ProxyBlueprint 참고)
+     */
+    public ProxyBlueprints(AopProxyFactory aopProxyFactory, boolean proxyTargetClass, boolean frozen) {
+        this.aopProxyFactory = aopProxyFactory;
+        this.proxyTargetClass = proxyTargetClass;
+        this.frozen = frozen;
+    }
+
+    public Object getProxy(Object target, Advisor... advisors) {
+        return getProxy(target.getClass().getName(), target, advisors);
+    }
+
+    public Object getProxy(String beanName, Object target, Advisor... advisors) {
+        if (target instanceof Advised && AopUtils.isAopProxy(target)) {
+            return flatten(beanName, (Advised) target, advisors);
+        }
+        return blueprint(target.getClass(), proxyTargetClass, advisors).createProxy(target);
+    }
+
+    /**
+     * 기존 프록시의 설정(TargetSource, 인터페이스, proxyTargetClass, exposeProxy)으로 합친 체인의 프록시를 새로 만든다.
+     * 기존 프록시는 다른 컴포넌트의 것일 수 있으므로 바꾸지 않는다.
+     */
+    private Object flatten(String beanName, Advised advised, Advisor[] advisors) {
+        Advisor[] existing = advised.getAdvisors();
+        Advisor[] merged = new Advisor[advisors.length + existing.length];
+        System.arraycopy(advisors, 0, merged, 0, advisors.length);
+        System.arraycopy(existing, 0, merged, advisors.length, existing.length);
+
+        ProxyFactory factory = new ProxyFactory();
+        factory.setTargetSource(advised.getTargetSource());
+        factory.setInterfaces(advised.getProxiedInterfaces());
+        factory.setProxyTargetClass(proxyTargetClass || advised.isProxyTargetClass());
+        factory.setExposeProxy(advised.isExposeProxy());
+        factory.addAdvisors(merged);
+        factory.setAopProxyFactory(aopProxyFactory);
+        factory.setFrozen(frozen);
+        Object proxy = factory.getProxy();
+        recordFlattened(beanName, advised.getTargetClass(), existing.length, advisors.length);
+        return proxy;
+    }
+
+    private void recordFlattened(String beanName, Class<?> targetClass, int existing, int added) {
+        flattenedBeans.add(beanName);
+        log.info("flatten proxy: beanName={}, target={}, advisors={} -> {}", beanName, targetClass, existing, existing + added);
+    }
+
+    public ProxyBlueprint blueprint(Class<?> targetClass, Advisor... advisors) {
+        return blueprint(targetClass, proxyTargetClass, advisors);
+    }
+
+    public ProxyBlueprint blueprint(Class<?> targetClass, boolean proxyTargetClass, Advisor... advisors) {
+        Key key = new Key(targetClass, proxyTargetClass, List.of(advisors));
+        ProxyBlueprint blueprint = blueprints.get(key);
+        if (blueprint == null) {
+            blueprint = blueprints.computeIfAbsent(key, k -> new ProxyBlueprint(targetClass, advisors, proxyTargetClass, frozen, aopProxyFactory));
+        }
+        return blueprint;
+    }
+
+    /**
+     * 이미 프록시였던 대상을 감싸지 않고 어드바이저 체인을 합친 빈 이름 목록
+     */
+    public List<String> getFlattenedBeans() {
+        return List.copyOf(flattenedBeans);
+    }
+
+    public int size() {
+        return blueprints.size();
+    }
+
+    private static class Key {
+        private final Class<?> targetClass;
+        private final boolean proxyTargetClass;
+        private final List<Advisor> advisors;
+
+        Key(Class<?> targetClass, boolean proxyTargetClass, List<Advisor> advisors) {
+            this.targetClass = targetClass;
+            this.proxyTargetClass = proxyTargetClass;
+            this.advisors = advisors;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return targetClass == key.targetClass && proxyTargetClass == key.proxyTargetClass && advisors.equals(key.advisors);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(targetClass, proxyTargetClass, advisors);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package hello.proxy.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 동시 실행 수 제한 (bulkhead)
+ *
+ * 허가(permit)는 AtomicInteger 하나를 CAS 로 올리고 내린다. 락도 대기열도 없다.
+ * 허가가 없으면
+ *   - maxWait = 0 : 바로 BulkheadFullException
+ *   - maxWait > 0 : maxWait 동안 잠깐씩 쉬면서(50us 부터 1ms 까지 늘려가며) 다시 시도하고, 그래도 없으면 BulkheadFullException
+ * 기다리는 중에 인터럽트되면 거절로 세지 않고 BulkheadInterruptedException 을 던진다. 스레드의 인터럽트 상태는 지우지 않는다.
+ * 대기열이 없으므로 먼저 기다린 스레드가 먼저 들어간다는 보장은 없다.
+ */
+public class Bulkhead {
+
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LongAdder acquiredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, long maxWait, TimeUnit unit) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent 는 1 이상이어야 합니다. maxConcurrent=" + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = unit.toNanos(Math.max(0, maxWait));
+    }
+
+    /**
+     * 허가를 얻는다. 얻지 못하면 BulkheadFullException, 얻었으면 반드시 release() 를 호출해야 한다.
+     *
+     * 기다리는 중에 인터럽트되면 BulkheadInterruptedException, 거절 수에는 세지 않는다.
+     */
+    public void acquire() {
+        if (tryAcquire() || (maxWaitNanos > 0 && awaitPermit())) {
+            acquiredCount.increment();
+            return;
+        }
+        rejectedCount.increment();
+        throw new BulkheadFullException(name, maxConcurrent, maxWaitNanos);
+    }
+
+    /**
+     * acquire() 로 얻은 허가를 돌려준다. 얻지 않은 허가를 돌려주면 IllegalStateException
+     */
+    public void release() {
+        int current;
+        do {
+            current = inUse.get();
+            if (current == 0) {
+                throw new IllegalStateException("돌려줄 허가가 없습니다. name=" + name);
+            }
+        } while (!inUse.compareAndSet(current, current - 1));
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        while ((current = inUse.get()) < maxConcurrent) {
+            if (inUse.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean awaitPermit() {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long parkNanos = MIN_PARK_NANOS;
+        while (true) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new BulkheadInterruptedException(name); // 인터럽트 상태는 호출한 쪽(서블릿 스레드 등)이 볼 수 있게 남긴다.
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(parkNanos, remaining));
+            if (tryAcquire()) {
+                return true;
+            }
+            parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 지금 실행 중인 호출 수
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * 허가를 얻은 호출 수 (누적)
+     */
+    public long getAcquiredCount() {
+        return acquiredCount.sum();
+    }
+
+    /**
+     * 가득 차서 거절한 호출 수 (누적)
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,56 @@
+package hello.proxy.bulkhead;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.DeclarePrecedence;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 레포지토리 save() 의 동시 실행 수를 제한한다. save() 는 1초씩 걸리므로 몰리면 톰캣 스레드를 모두 잡아서 /no-log 같은 가벼운 요청까지 막는다.
+ *
+ * 가장 바깥에서(HIGHEST_PRECEDENCE) 실행해서 가득 차면 LogTraceAspect 를 거치지 않고 바로 거절한다.
+ * 호출한 서비스의 트레이스에는 BulkheadFullException 으로 남는다.
+ *
+ * 컴파일 시점 위빙(-Pweaving=ctw)에서는 LogTraceAspect 처럼 AspectJ 가 인스턴스를 만들므로 기본 생성자와 configure() 가 있다.
+ * configure() 전에 호출되면 제한 없이 그대로 진행한다.
+ * ajc 는 @Order 를 보지 않으므로 같은 순서를 @DeclarePrecedence 로 한 번 더 선언한다. (스프링 AOP 는 @DeclarePrecedence 를 무시한다)
+ */
+@Aspect
+@DeclarePrecedence("hello.proxy.bulkhead.BulkheadAspect, hello.proxy.config.v6_aop.aspect.LogTraceAspect")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+
+    private volatile BulkheadRegistry bulkheads;
+
+    /**
+     * 컴파일 시점 위빙에서 AspectJ 가 사용하는 생성자
+     */
+    public BulkheadAspect() {
+    }
+
+    public BulkheadAspect(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    public void configure(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Around("execution(public * hello.proxy.app..*Repository*.save(..))")
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        BulkheadRegistry bulkheads = this.bulkheads;
+        if (bulkheads == null) {
+            return joinPoint.proceed();
+        }
+        Bulkhead bulkhead = bulkheads.bulkhead(((MethodSignature) joinPoint.getSignature()).getMethod());
+        bulkhead.acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package hello.proxy.bulkhead;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 메서드별 Bulkhead 상태 조회 (maxConcurrent, inUse, acquired, rejected)
+ * hello.proxy.app 밖에 두고 BulkheadConfig 에서 빈으로 등록한다.
+ */
+@RestController
+public class BulkheadController {
+
+    private final BulkheadRegistry bulkheads;
+
+    public BulkheadController(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @GetMapping("/bulkhead")
+    public Map<String, BulkheadSnapshot> bulkheads() {
+        return bulkheads.snapshot();
+    }
+}
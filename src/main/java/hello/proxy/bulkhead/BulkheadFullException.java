@@ -0,0 +1,30 @@
+package hello.proxy.bulkhead;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead 가 가득 차서 호출을 거절했다. 웹 요청이면 503 으로 응답한다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkheadName;
+
+    public BulkheadFullException(String bulkheadName, int maxConcurrent, long maxWaitNanos) {
+        super("bulkhead 가 가득 찼습니다. name=" + bulkheadName + ", maxConcurrent=" + maxConcurrent
+                + ", maxWait=" + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+        this.bulkheadName = bulkheadName;
+    }
+
+    protected BulkheadFullException(String bulkheadName, String message, Throwable cause) {
+        super(message, cause);
+        this.bulkheadName = bulkheadName;
+    }
+
+    public String getBulkheadName() {
+        return bulkheadName;
+    }
+}
@@ -0,0 +1,40 @@
+package hello.proxy.bulkhead;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+/**
+ * ProxyFactory 용 Bulkhead 어드바이스, @Aspect 로 적용할 때는 BulkheadAspect
+ * 메서드마다 Bulkhead 가 따로 있다. JDK 동적 프록시는 인터페이스의 Method 로 호출되므로 같은 인터페이스 메서드는 한도를 공유한다.
+ */
+public class BulkheadInterceptor implements MethodInterceptor {
+
+    private final BulkheadRegistry bulkheads;
+
+    public BulkheadInterceptor(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * mappedNames 에 맞는 메서드에 Bulkhead 를 적용하는 어드바이저
+     */
+    public static Advisor advisor(BulkheadRegistry bulkheads, String... mappedNames) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(mappedNames);
+        return new DefaultPointcutAdvisor(pointcut, new BulkheadInterceptor(bulkheads));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Bulkhead bulkhead = bulkheads.bulkhead(invocation.getMethod());
+        bulkhead.acquire();
+        try {
+            return invocation.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package hello.proxy.bulkhead;
+
+/**
+ * Bulkhead 허가를 기다리는 중에 인터럽트되어 허가를 얻지 못했다.
+ * 거절 수(rejected)에는 세지 않고, 스레드의 인터럽트 상태는 그대로 남아 있다.
+ * save() 같은 메서드는 InterruptedException 을 선언하지 않으므로 언체크 예외로 알린다.
+ */
+public class BulkheadInterruptedException extends BulkheadFullException {
+
+    public BulkheadInterruptedException(String bulkheadName) {
+        super(bulkheadName, "bulkhead 허가를 기다리는 중에 인터럽트되었습니다. name=" + bulkheadName, new InterruptedException());
+    }
+}
@@ -0,0 +1,57 @@
+package hello.proxy.bulkhead;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Method 별 Bulkhead 저장소, 모든 메서드에 같은 한도(maxConcurrent, maxWait)를 쓴다.
+ * 조회는 ConcurrentHashMap.get 뿐이다. 처음 호출된 메서드만 Bulkhead 를 만든다.
+ */
+public class BulkheadRegistry {
+
+    private final ConcurrentHashMap<Method, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final int maxConcurrent;
+    private final long maxWait;
+    private final TimeUnit unit;
+
+    public BulkheadRegistry(int maxConcurrent, long maxWait, TimeUnit unit) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.unit = unit;
+    }
+
+    public Bulkhead bulkhead(Method method) {
+        Bulkhead bulkhead = bulkheads.get(method);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        return bulkheads.computeIfAbsent(method, key -> new Bulkhead(name(key), maxConcurrent, maxWait, unit));
+    }
+
+    /**
+     * 이름순 스냅샷, 예) OrderRepositoryV1.save(String)
+     */
+    public Map<String, BulkheadSnapshot> snapshot() {
+        Map<String, BulkheadSnapshot> snapshot = new TreeMap<>();
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            snapshot.put(bulkhead.getName(), new BulkheadSnapshot(bulkhead));
+        }
+        return snapshot;
+    }
+
+    static String name(Method method) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(parameterTypes[i].getSimpleName());
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,35 @@
+package hello.proxy.bulkhead;
+
+/**
+ * Bulkhead 의 특정 시점 값
+ */
+public class BulkheadSnapshot {
+
+    private final int maxConcurrent;
+    private final int inUse;
+    private final long acquired;
+    private final long rejected;
+
+    BulkheadSnapshot(Bulkhead bulkhead) {
+        this.maxConcurrent = bulkhead.getMaxConcurrent();
+        this.inUse = bulkhead.getInUse();
+        this.acquired = bulkhead.getAcquiredCount();
+        this.rejected = bulkhead.getRejectedCount();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInUse() {
+        return inUse;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,46 @@
+package hello.proxy.cglib;
+
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * JDK 동적 프록시/CGLIB 선택은 DefaultAopProxyFactory 와 같은 기준으로 하고, CGLIB 일 때만 ProxyClassCache 를 쓰는 CachingCglibAopProxy 를 만든다.
+ * JDK 동적 프록시와 exposeProxy 설정은 DefaultAopProxyFactory 에 맡긴다.
+ * ProxyFactory.setAopProxyFactory() 로 넘긴다.
+ */
+public class CachingAopProxyFactory implements AopProxyFactory {
+
+    private final AopProxyFactory delegate = new DefaultAopProxyFactory();
+    private final ProxyClassCache proxyClassCache;
+
+    public CachingAopProxyFactory(ProxyClassCache proxyClassCache) {
+        this.proxyClassCache = proxyClassCache;
+    }
+
+    @Override
+    public AopProxy createAopProxy(AdvisedSupport config) throws AopConfigException {
+        if (!usesCglib(config) || config.isExposeProxy()) {
+            return delegate.createAopProxy(config);
+        }
+        return new CachingCglibAopProxy(config, proxyClassCache);
+    }
+
+    private static boolean usesCglib(AdvisedSupport config) {
+        if (!config.isOptimize() && !config.isProxyTargetClass() && hasUserSuppliedProxyInterfaces(config)) {
+            return false;
+        }
+        Class<?> targetClass = config.getTargetClass();
+        return targetClass != null && !targetClass.isInterface() && !Proxy.isProxyClass(targetClass);
+    }
+
+    private static boolean hasUserSuppliedProxyInterfaces(AdvisedSupport config) {
+        Class<?>[] interfaces = config.getProxiedInterfaces();
+        return interfaces.length > 1 || (interfaces.length == 1 && !SpringProxy.class.isAssignableFrom(interfaces[0]));
+    }
+}
@@ -0,0 +1,303 @@
+package hello.proxy.cglib;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.RawTargetAccess;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.core.DefaultGeneratorStrategy;
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프록시 클래스 바이트코드를 디스크 캐시(ProxyClassCache)에서 읽는 CGLIB AopProxy
+ *
+ * 스프링의 CglibAopProxy 는 패키지 전용 클래스라서 밖에서 Enhancer 를 바꿀 수 없다.
+ * 그래서 공개 API(Enhancer, ReflectiveMethodInvocation, AdvisedSupport)만으로 같은 구조의 프록시를 만들고 Enhancer 로 CachingEnhancer 를 쓴다.
+ *   - 어드바이스가 있는 메서드 : AdvisedCallback, 호출마다 인터셉터 목록을 구해서 ReflectiveMethodInvocation 으로 따라간다.
+ *   - 어드바이스가 없는 메서드 : 설정이 frozen 이고 target 이 고정이면 Dispatcher 로 target 을 바로 호출한다.
+ *     frozen 이 아니면 어드바이저가 바뀔 수 있으므로 스프링과 같이 모두 AdvisedCallback 으로 보낸다.
+ *   - Advised 메서드 : 프록시 설정(AdvisedSupport)으로 보낸다.
+ *   - equals/hashCode : 스프링 프록시와 같은 의미 (AopProxyUtils.equalsInProxy)
+ *
+ * exposeProxy 는 AopContext 를 설정하는 메서드가 공개되어 있지 않아서 지원하지 않는다. (CachingAopProxyFactory 가 스프링 프록시로 넘긴다.)
+ */
+class CachingCglibAopProxy implements AopProxy {
+
+    private static final int AOP_PROXY = 0;
+    private static final int TARGET = 1;
+    private static final int ADVISED = 2;
+    private static final int EQUALS = 3;
+    private static final int NO_OVERRIDE = 4;
+
+    private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+    private final AdvisedSupport config;
+    private final ProxyClassCache proxyClassCache;
+
+    CachingCglibAopProxy(AdvisedSupport config, ProxyClassCache proxyClassCache) {
+        this.config = config;
+        this.proxyClassCache = proxyClassCache;
+    }
+
+    @Override
+    public Object getProxy() {
+        return getProxy(null);
+    }
+
+    @Override
+    public Object getProxy(ClassLoader classLoader) {
+        Class<?> rootClass = config.getTargetClass();
+        Class<?> proxySuperClass = rootClass.getName().contains(ClassUtils.CGLIB_CLASS_SEPARATOR) ? rootClass.getSuperclass() : rootClass;
+        boolean dispatchUnadvised = config.isFrozen() && config.getTargetSource().isStatic();
+        Object staticTarget = dispatchUnadvised ? staticTarget() : null;
+        Class<?>[] interfaces = AopProxyUtils.completeProxiedInterfaces(config);
+
+        Enhancer enhancer = proxyClassCache.createEnhancer();
+        if (classLoader != null) {
+            enhancer.setClassLoader(classLoader);
+        }
+        enhancer.setSuperclass(proxySuperClass);
+        enhancer.setInterfaces(interfaces);
+        enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+        enhancer.setStrategy(DefaultGeneratorStrategy.INSTANCE); // CachingEnhancer 가 캐시를 먼저 보는 전략으로 감싼다.
+        enhancer.setCallbackFilter(new ProxyCallbackFilter(config, proxySuperClass, interfaces, dispatchUnadvised));
+        enhancer.setCallbackTypes(new Class<?>[]{MethodInterceptor.class, Dispatcher.class, Dispatcher.class, MethodInterceptor.class, NoOp.class});
+        Class<?> proxyClass = enhancer.createClass();
+
+        Object proxy = newInstance(proxyClass, enhancer.getUseCache());
+        ((Factory) proxy).setCallbacks(new Callback[]{
+                new AdvisedCallback(config),
+                (Dispatcher) () -> staticTarget,
+                (Dispatcher) () -> config,
+                new EqualsHashCodeCallback(config),
+                NoOp.INSTANCE
+        });
+        return proxy;
+    }
+
+    private Object staticTarget() {
+        try {
+            return config.getTargetSource().getTarget();
+        } catch (Exception e) {
+            throw new AopConfigException("target 을 가져올 수 없습니다. targetClass=" + config.getTargetClass().getName(), e);
+        }
+    }
+
+    private static Object newInstance(Class<?> proxyClass, boolean useCache) {
+        if (objenesis.isWorthTrying()) {
+            try {
+                return objenesis.newInstance(proxyClass, useCache);
+            } catch (Throwable ex) {
+                // 기본 생성자로 다시 시도
+            }
+        }
+        try {
+            return ReflectionUtils.accessibleConstructor(proxyClass).newInstance();
+        } catch (Throwable ex) {
+            throw new AopConfigException("프록시 인스턴스를 만들 수 없습니다. Objenesis 를 쓸 수 없으면 기본 생성자가 필요합니다. proxyClass=" + proxyClass.getName(), ex);
+        }
+    }
+
+    /**
+     * 메서드별 콜백 선택, 프록시 클래스를 만들 때 CGLIB 가 메서드마다 한 번 호출한다.
+     * equals/hashCode 는 CGLIB 가 메모리에서 프록시 클래스를 재사용할지 판단할 때 쓰므로 메서드별 선택 결과로 비교한다.
+     */
+    private static class ProxyCallbackFilter implements CallbackFilter {
+
+        private final AdvisedSupport config;
+        private final Class<?> targetClass;
+        private final boolean dispatchUnadvised;
+        private final Map<Method, Integer> routes = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        ProxyCallbackFilter(AdvisedSupport config, Class<?> superclass, Class<?>[] interfaces, boolean dispatchUnadvised) {
+            this.config = config;
+            this.targetClass = config.getTargetClass();
+            this.dispatchUnadvised = dispatchUnadvised;
+            List<Method> methods = new ArrayList<>();
+            Enhancer.getMethods(superclass, interfaces, methods);
+            for (Method method : methods) {
+                routes.put(method, route(method));
+            }
+        }
+
+        @Override
+        public int accept(Method method) {
+            Integer route = routes.get(method);
+            return route != null ? route : route(method);
+        }
+
+        private int route(Method method) {
+            if (AopUtils.isFinalizeMethod(method)) {
+                return NO_OVERRIDE;
+            }
+            if (!config.isOpaque() && method.getDeclaringClass().isInterface() && method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+                return ADVISED;
+            }
+            if (AopUtils.isEqualsMethod(method) || AopUtils.isHashCodeMethod(method)) {
+                return EQUALS;
+            }
+            if (dispatchUnadvised && config.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass).isEmpty()) {
+                return TARGET;
+            }
+            return AOP_PROXY;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ProxyCallbackFilter)) {
+                return false;
+            }
+            return routes.equals(((ProxyCallbackFilter) o).routes);
+        }
+
+        @Override
+        public int hashCode() {
+            return routes.hashCode();
+        }
+    }
+
+    /**
+     * 어드바이스가 있는 메서드의 호출, 스프링 CglibAopProxy 의 DynamicAdvisedInterceptor 와 같다.
+     */
+    private static class AdvisedCallback implements MethodInterceptor {
+
+        private final AdvisedSupport config;
+
+        AdvisedCallback(AdvisedSupport config) {
+            this.config = config;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            TargetSource targetSource = config.getTargetSource();
+            Object target = null;
+            try {
+                target = targetSource.getTarget();
+                Class<?> targetClass = target != null ? target.getClass() : null;
+                List<Object> chain = config.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+                Object result;
+                if (chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
+                    result = methodProxy.invoke(target, AopProxyUtils.adaptArgumentsIfNecessary(method, args)); // 가변 인자 (스프링과 같다)
+                } else {
+                    result = new CachingMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy).proceed();
+                }
+                return processReturnType(proxy, target, method, result);
+            } finally {
+                if (target != null && !targetSource.isStatic()) {
+                    targetSource.releaseTarget(target);
+                }
+            }
+        }
+
+        private static Object processReturnType(Object proxy, Object target, Method method, Object result) {
+            if (result != null && result == target && !RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+                return proxy; // target 이 자기 자신(this)을 반환하면 프록시로 바꾼다.
+            }
+            Class<?> returnType = method.getReturnType();
+            if (result == null && returnType != void.class && returnType.isPrimitive()) {
+                throw new AopInvocationException("어드바이스가 null 을 반환했지만 기본 타입을 반환하는 메서드입니다. method=" + method);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * target 호출은 public 메서드면 리플렉션 대신 MethodProxy(FastClass)로 한다.
+     * 메서드가 선언하지 않은 checked 예외는 스프링 CGLIB 프록시와 같이 UndeclaredThrowableException 으로 감싼다.
+     */
+    private static class CachingMethodInvocation extends ReflectiveMethodInvocation {
+
+        private final MethodProxy methodProxy;
+
+        CachingMethodInvocation(Object proxy, Object target, Method method, Object[] arguments,
+                                Class<?> targetClass, List<Object> chain, MethodProxy methodProxy) {
+            super(proxy, target, method, arguments, targetClass, chain);
+            boolean fastInvoke = Modifier.isPublic(method.getModifiers())
+                    && method.getDeclaringClass() != Object.class
+                    && !AopUtils.isEqualsMethod(method)
+                    && !AopUtils.isHashCodeMethod(method)
+                    && !AopUtils.isToStringMethod(method);
+            this.methodProxy = fastInvoke ? methodProxy : null;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            try {
+                return super.proceed();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                if (ReflectionUtils.declaresException(getMethod(), ex.getClass())) {
+                    throw ex;
+                }
+                throw new UndeclaredThrowableException(ex);
+            }
+        }
+
+        @Override
+        protected Object invokeJoinpoint() throws Throwable {
+            if (methodProxy != null) {
+                return methodProxy.invoke(target, arguments);
+            }
+            return super.invokeJoinpoint();
+        }
+    }
+
+    /**
+     * 스프링 프록시와 같이 같은 설정(인터페이스, 어드바이저, target)의 프록시끼리 같다.
+     */
+    private static class EqualsHashCodeCallback implements MethodInterceptor {
+
+        private final AdvisedSupport config;
+
+        EqualsHashCodeCallback(AdvisedSupport config) {
+            this.config = config;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) {
+            if (AopUtils.isHashCodeMethod(method)) {
+                return CachingCglibAopProxy.class.hashCode() * 13 + config.getTargetSource().hashCode();
+            }
+            Object other = args[0];
+            if (proxy == other) {
+                return true;
+            }
+            if (other instanceof Factory) {
+                Callback callback = ((Factory) other).getCallback(EQUALS);
+                if (callback instanceof EqualsHashCodeCallback) {
+                    return AopProxyUtils.equalsInProxy(config, ((EqualsHashCodeCallback) callback).config);
+                }
+            }
+            return false;
+        }
+    }
+}
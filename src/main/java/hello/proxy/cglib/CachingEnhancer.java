@@ -0,0 +1,176 @@
+package hello.proxy.cglib;
+
+import org.springframework.cglib.core.GeneratorStrategy;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringVersion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * 프록시 클래스의 모양을 기록해두는 Enhancer
+ *
+ * CachingCglibAopProxy 는 createEnhancer() 이후에 setSuperclass, setInterfaces, setCallbackFilter, setCallbackTypes, setStrategy 를 호출한다.
+ * 이 값들을 가로채서 fingerprint() 를 만들고, setStrategy 로 받은 전략은 ProxyClassCache 를 먼저 보는 전략으로 감싼다.
+ * 캐시에서 읽은 바이트코드를 정의하다가 LinkageError 가 나면 캐시 파일을 지우고 한 번 더 생성한다.
+ */
+class CachingEnhancer extends Enhancer {
+
+    private final ProxyClassCache proxyClassCache;
+
+    private Class<?> superclass;
+    private Class<?>[] interfaces;
+    private CallbackFilter callbackFilter;
+    private Class<?>[] callbackTypes;
+
+    private Path cachedFile; // 이번 createClass() 에서 캐시에서 읽은 파일
+    private long cachedGenerationNanos;
+
+    CachingEnhancer(ProxyClassCache proxyClassCache) {
+        this.proxyClassCache = proxyClassCache;
+    }
+
+    @Override
+    public void setSuperclass(Class superclass) {
+        super.setSuperclass(superclass);
+        if (superclass != null && superclass.isInterface()) {
+            this.interfaces = new Class<?>[]{superclass};
+            this.superclass = null;
+        } else {
+            this.superclass = superclass;
+        }
+    }
+
+    @Override
+    public void setInterfaces(Class[] interfaces) {
+        super.setInterfaces(interfaces);
+        this.interfaces = interfaces;
+    }
+
+    @Override
+    public void setCallbackFilter(CallbackFilter filter) {
+        super.setCallbackFilter(filter);
+        this.callbackFilter = filter;
+    }
+
+    @Override
+    public void setCallbackTypes(Class[] callbackTypes) {
+        super.setCallbackTypes(callbackTypes);
+        this.callbackTypes = callbackTypes;
+    }
+
+    @Override
+    public void setStrategy(GeneratorStrategy strategy) {
+        GeneratorStrategy delegate = strategy;
+        super.setStrategy(generator -> proxyClassCache.generate(this, delegate));
+    }
+
+    @Override
+    public Class createClass() {
+        cachedFile = null;
+        try {
+            return super.createClass();
+        } catch (RuntimeException | LinkageError ex) {
+            LinkageError cause = linkageError(ex); // CodeGenerationException, IllegalStateException 으로 감싸져서 오기도 한다.
+            if (cachedFile == null || cause == null) {
+                throw ex;
+            }
+            proxyClassCache.evict(cachedFile, cachedGenerationNanos, cause);
+            cachedFile = null;
+            setUseCache(false); // CGLIB 메모리 캐시는 실패한 결과를 그대로 기억한다.
+            return super.createClass();
+        }
+    }
+
+    private static LinkageError linkageError(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LinkageError) {
+                return (LinkageError) cause;
+            }
+        }
+        return null;
+    }
+
+    void loadedFromCache(Path file, long generationNanos) {
+        this.cachedFile = file;
+        this.cachedGenerationNanos = generationNanos;
+    }
+
+    /**
+     * 생성될 바이트코드를 결정하는 값의 해시, 하나라도 바뀌면 다른 캐시 항목이 된다.
+     *   - 스프링 버전 (CGLIB 생성 코드)
+     *   - 부모 클래스와 인터페이스의 클래스 파일 내용 (대상 클래스가 다시 컴파일되면 stale)
+     *   - 콜백 타입, 메서드마다 CallbackFilter 가 고른 콜백 인덱스 (포인트컷 매칭 결과)
+     * 클래스 파일을 읽을 수 없으면 null, 캐시하지 않는다.
+     */
+    String fingerprint() throws IOException {
+        MessageDigest digest = sha256();
+        update(digest, String.valueOf(SpringVersion.getVersion()));
+        Class<?> root = superclass == null ? Object.class : superclass;
+        for (Class<?> type = root; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (!updateClassFile(digest, type)) {
+                return null;
+            }
+        }
+        if (interfaces != null) {
+            for (Class<?> type : interfaces) {
+                if (!updateClassFile(digest, type)) {
+                    return null;
+                }
+            }
+        }
+        if (callbackTypes != null) {
+            for (Class<?> type : callbackTypes) {
+                update(digest, type.getName());
+            }
+        }
+
+        List<Method> methods = new ArrayList<>();
+        Enhancer.getMethods(root, interfaces, methods);
+        TreeMap<String, Integer> callbackIndexes = new TreeMap<>(); // 리플렉션의 메서드 순서는 보장되지 않으므로 정렬
+        for (Method method : methods) {
+            callbackIndexes.put(method.toString(), callbackFilter == null ? 0 : callbackFilter.accept(method));
+        }
+        callbackIndexes.forEach((method, index) -> update(digest, method + "=" + index));
+
+        StringBuilder sb = new StringBuilder(root.getSimpleName()).append('-');
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 16; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return sb.toString();
+    }
+
+    private static boolean updateClassFile(MessageDigest digest, Class<?> type) throws IOException {
+        update(digest, type.getName());
+        try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            if (in == null) {
+                return false;
+            }
+            digest.update(in.readAllBytes());
+            return true;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package hello.proxy.cglib;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.core.GeneratorStrategy;
+import org.springframework.cglib.proxy.Enhancer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CGLIB 프록시 클래스 바이트코드 디스크 캐시
+ *
+ * ProxyFactoryConfigV2, PackageLogTracePostProcessor, AutoProxyConfig 는 기동할 때마다 OrderControllerV2 같은 클래스의 CGLIB 하위 클래스를 새로 만든다.
+ * 한 번 만든 바이트코드를 디렉토리에 저장해두고, 다음 기동부터는 바이트코드 생성(ASM) 대신 파일을 읽어서 그대로 정의한다.
+ *
+ * 파일 이름은 CachingEnhancer.fingerprint() 이다. 대상 클래스가 바뀌거나 포인트컷 매칭 결과가 바뀌면 fingerprint 가 달라져서
+ * 예전 파일은 쓰이지 않고(stale) 새로 생성해서 저장한다. 즉 첫 기동이 학습(training) 실행이다.
+ *
+ * 파일에는 바이트코드의 SHA-256 을 같이 저장하고 읽을 때 확인한다. 덜 쓰였거나 깨진 파일은 캐시에 없는 것으로 보고 다시 생성한다.
+ * 해시가 맞아도 정의할 수 없는 바이트코드(다른 JDK 버전 등)는 CachingEnhancer 가 LinkageError 를 보고 evict() 한 뒤 다시 생성한다.
+ *
+ * 절약 시간은 학습 실행에서 측정한 생성 시간 합계에서 fingerprint 계산과 파일을 읽는 데 걸린 시간을 뺀 값이다. 클래스 정의(defineClass) 비용은 양쪽에 똑같이 남는다.
+ */
+@Slf4j
+public class ProxyClassCache {
+
+    private static final int MAGIC = 0x50434332; // PCC2, PCC1 은 해시가 없다.
+    private static final int DIGEST_LENGTH = 32; // SHA-256
+
+    private final Path directory;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder corrupted = new LongAdder();
+    private final LongAdder generationNanos = new LongAdder(); // 이번 기동에서 생성에 쓴 시간
+    private final LongAdder cachedGenerationNanos = new LongAdder(); // 캐시로 건너뛴 생성 시간 (학습 실행의 측정값)
+    private final LongAdder loadNanos = new LongAdder();
+
+    // 같은 클래스 로더에 같은 이름의 클래스를 두 번 정의할 수 없으므로 캐시에서 꺼낸 이름을 기억한다.
+    private final Map<ClassLoader, Set<String>> definedNames = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ProxyClassCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    Enhancer createEnhancer() {
+        return new CachingEnhancer(this);
+    }
+
+    byte[] generate(CachingEnhancer enhancer, GeneratorStrategy delegate) throws Exception {
+        long loadStart = System.nanoTime(); // fingerprint() 도 캐시를 쓰는 비용이다. (클래스 파일 읽기, 메서드별 포인트컷 평가)
+        String fingerprint = enhancer.fingerprint();
+        if (fingerprint == null) {
+            bypassed.increment();
+            return delegate.generate(enhancer);
+        }
+        Path file = directory.resolve(fingerprint + ".class");
+
+        Entry entry = read(file);
+        if (entry != null && claim(enhancer.getClassLoader(), entry.className)) {
+            hits.increment();
+            loadNanos.add(System.nanoTime() - loadStart);
+            cachedGenerationNanos.add(entry.generationNanos);
+            enhancer.loadedFromCache(file, entry.generationNanos);
+            return entry.bytes;
+        }
+
+        long start = System.nanoTime();
+        byte[] bytes = delegate.generate(enhancer);
+        long elapsed = System.nanoTime() - start;
+        misses.increment();
+        generationNanos.add(elapsed);
+        claim(enhancer.getClassLoader(), new ClassReader(bytes).getClassName());
+        write(file, bytes, elapsed);
+        return bytes;
+    }
+
+    /**
+     * 캐시에서 읽은 바이트코드를 정의하지 못했을 때 CachingEnhancer 가 호출한다. 파일을 지우고 히트를 되돌린다.
+     */
+    void evict(Path file, long generationNanos, Throwable cause) {
+        log.warn("캐시한 프록시 클래스를 정의하지 못했습니다. 다시 생성합니다. file={} ex={}", file, cause.toString());
+        hits.decrement();
+        cachedGenerationNanos.add(-generationNanos);
+        corrupted.increment();
+        delete(file);
+    }
+
+    private boolean claim(ClassLoader classLoader, String className) {
+        return definedNames.computeIfAbsent(classLoader, key -> Collections.synchronizedSet(new HashSet<>())).add(className);
+    }
+
+    private Entry read(Path file) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            long generationNanos = in.readLong();
+            byte[] digest = new byte[DIGEST_LENGTH];
+            in.readFully(digest);
+            int length = in.readInt();
+            if (length < 0 || length > Files.size(file)) {
+                log.warn("프록시 클래스 캐시의 길이가 맞지 않습니다. 다시 생성합니다. file={}", file);
+                corrupted.increment();
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            if (!Arrays.equals(digest, sha256(bytes))) {
+                log.warn("프록시 클래스 캐시의 해시가 맞지 않습니다. 다시 생성합니다. file={}", file);
+                corrupted.increment();
+                return null;
+            }
+            return new Entry(generationNanos, bytes, new ClassReader(bytes).getClassName());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) { // ASM 이 읽을 수 없는 클래스 파일 버전이면 IllegalArgumentException
+            log.warn("프록시 클래스 캐시를 읽지 못했습니다. 다시 생성합니다. file={} ex={}", file, e.toString());
+            return null;
+        }
+    }
+
+    private void write(Path file, byte[] bytes, long generationNanos) {
+        try {
+            Path temp = Files.createTempFile(directory, "proxy", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp);
+                 DataOutputStream data = new DataOutputStream(out)) {
+                data.writeInt(MAGIC);
+                data.writeLong(generationNanos);
+                data.write(sha256(bytes));
+                data.writeInt(bytes.length);
+                data.write(bytes);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("프록시 클래스 캐시를 저장하지 못했습니다. file={} ex={}", file, e.toString());
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("프록시 클래스 캐시를 지우지 못했습니다. file={} ex={}", file, e.toString());
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 캐시에서 읽은 클래스 수
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 캐시에 없거나 stale 이어서 새로 생성한 클래스 수
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 클래스 파일을 읽을 수 없어서 캐시하지 않은 클래스 수
+     */
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * 해시가 맞지 않거나 정의할 수 없어서 다시 생성한 캐시 파일 수
+     */
+    public long getCorrupted() {
+        return corrupted.sum();
+    }
+
+    /**
+     * 캐시 덕분에 건너뛴 생성 시간에서 캐시를 읽은 시간(fingerprint 계산 포함)을 뺀 값
+     */
+    public long getSavedNanos() {
+        return cachedGenerationNanos.sum() - loadNanos.sum();
+    }
+
+    public String summary() {
+        return String.format("hits=%d misses=%d bypassed=%d corrupted=%d generation=%dms load=%dms saved=%dms directory=%s",
+                getHits(), getMisses(), getBypassed(), getCorrupted(),
+                TimeUnit.NANOSECONDS.toMillis(generationNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(loadNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(getSavedNanos()),
+                directory);
+    }
+
+    private static class Entry {
+        private final long generationNanos;
+        private final byte[] bytes;
+        private final String className;
+
+        Entry(long generationNanos, byte[] bytes, String className) {
+            this.generationNanos = generationNanos;
+            this.bytes = bytes;
+            this.className = className;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.proxy.config;
+
+import hello.proxy.bulkhead.BulkheadController;
+import hello.proxy.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레포지토리 save() 동시 실행 제한
+ *   - bulkhead.max-concurrent : 메서드별 최대 동시 실행 수
+ *   - bulkhead.max-wait-ms : 가득 찼을 때 기다리는 최대 시간, 0 이면 바로 거절(503)
+ *
+ * 적용은 프록시 방식에 따른다.
+ *   - proxy-factory-v1, proxy-factory-v2 : BulkheadInterceptor 어드바이저를 레포지토리 프록시에 같이 넣는다.
+ *   - aop : AopConfig 가 BulkheadAspect 를 등록한다.
+ * 상태 조회는 /bulkhead
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(@Value("${bulkhead.max-concurrent:10}") int maxConcurrent,
+                                             @Value("${bulkhead.max-wait-ms:0}") long maxWaitMs) {
+        return new BulkheadRegistry(maxConcurrent, maxWaitMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Bean
+    public BulkheadController bulkheadController(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadController(bulkheadRegistry);
+    }
+}
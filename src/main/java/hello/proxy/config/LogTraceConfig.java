@@ -0,0 +1,195 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.async.OverflowPolicy;
+import hello.proxy.trace.id.SequenceTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.id.UuidTraceIdGenerator;
+import hello.proxy.trace.logtrace.AsyncLogTrace;
+import hello.proxy.trace.journal.JournalWriter;
+import hello.proxy.trace.logtrace.GarbageFreeLogTrace;
+import hello.proxy.trace.logtrace.JournalLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.SpanTreeLogTrace;
+import hello.proxy.trace.logtrace.SummaryLogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.metrics.LatencyHistogramRegistry;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.propagation.TraceContextPropagator;
+import hello.proxy.trace.propagation.TraceTaskDecorator;
+import hello.proxy.trace.sampling.ProbabilitySampler;
+import hello.proxy.trace.sampling.RateLimitingSampler;
+import hello.proxy.trace.sampling.TraceForceFilter;
+import hello.proxy.trace.sampling.TraceSampler;
+import hello.proxy.trace.span.LoggingTraceRecordSink;
+import hello.proxy.trace.span.RecentTraceIndex;
+import hello.proxy.trace.span.TailSamplingTraceRecordSink;
+import hello.proxy.trace.web.LatencyController;
+import hello.proxy.trace.web.MetricsController;
+import hello.proxy.trace.web.TraceQueryController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LogTrace 구현체 선택
+ * application.properties 의 trace.mode 값으로 어떤 LogTrace 를 스프링 빈으로 등록할지 고른다.
+ *   - thread-local (기본값) : ThreadLocalLogTrace, 요청 스레드에서 바로 로그를 남긴다.
+ *   - async : AsyncLogTrace, 링 버퍼에 이벤트만 기록하고 백그라운드 스레드에서 로그를 남긴다.
+ *   - garbage-free : GarbageFreeLogTrace, 호출마다 객체를 할당하지 않는다.
+ *   - span-tree : SpanTreeLogTrace, 요청 하나의 Span 들을 모아서 루트가 끝날 때 로그 한 줄로 남긴다.
+ *   - tail-sampling : span-tree 와 같지만 느리거나(trace.tail.threshold-ms 이상) 예외가 난 트레이스만 남긴다.
+ *     두 모드 모두 끝난 트레이스를 RecentTraceIndex 에 보관한다. 조회는 /trace/recent
+ *   - journal : JournalLogTrace, 로그 대신 메모리 맵 바이너리 저널에 기록한다. 텍스트는 JournalReader 로 복원한다.
+ *   - summary : SummaryLogTrace, 호출마다 로그를 남기지 않고 trace.summary.interval-sec 마다 메서드별 통계 표만 남긴다.
+ *
+ * MethodMetricsRegistry 는 모드와 상관없이 LogTraceAspect 가 채운다. Prometheus 형식 조회는 /trace/metrics
+ * thread-local 모드는 메서드별 지연 시간 히스토그램(LatencyHistogramRegistry)도 함께 기록한다. 조회는 /trace/latency
+ * thread-local 모드는 헤드 기반 샘플링을 지원한다.
+ *   - trace.sampling.probability : 샘플링 확률 (0 ~ 1)
+ *   - trace.sampling.max-per-second : 초당 최대 샘플링 수, 0 이면 제한 없음
+ *   - trace.sampling.force-header : 이 헤더가 true 인 요청은 항상 샘플링
+ *
+ * thread-local, async 모드는 TraceContextPropagator 로 스레드 풀에 넘긴 작업까지 트레이스를 이어간다.
+ * TraceTaskDecorator 는 스프링 부트의 기본 applicationTaskExecutor 에 자동으로 적용된다.
+ *
+ * 루트 트레이스 ID 생성 방식은 trace.id.generator 로 고른다. 모든 모드에 적용된다.
+ *   - sequence (기본값) : SequenceTraceIdGenerator, 64비트 [노드 prefix][스레드별 시퀀스]
+ *   - uuid : UuidTraceIdGenerator, 기존 UUID 앞 8자리 방식 (비교용)
+ */
+@Configuration
+public class LogTraceConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "thread-local", matchIfMissing = true)
+    public LogTrace logTrace(LatencyHistogramRegistry latencyHistogramRegistry,
+                             @Value("${trace.sampling.probability:1.0}") double probability,
+                             @Value("${trace.sampling.max-per-second:0}") int maxPerSecond) {
+        TraceSampler sampler = new ProbabilitySampler(probability);
+        if (maxPerSecond > 0) {
+            sampler = sampler.and(new RateLimitingSampler(maxPerSecond));
+        }
+        return new ThreadLocalLogTrace(latencyHistogramRegistry, sampler);
+    }
+
+    @Bean
+    public TraceForceFilter traceForceFilter(@Value("${trace.sampling.force-header:X-Trace-Force}") String headerName) {
+        return new TraceForceFilter(headerName);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "async")
+    public LogTrace asyncLogTrace(@Value("${trace.async.capacity:8192}") int capacity,
+                                  @Value("${trace.async.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                                  @Value("${trace.async.batch-size:256}") int batchSize) {
+        return new AsyncLogTrace(capacity, overflowPolicy, batchSize); // 컨테이너 종료 시 close() 호출
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "garbage-free")
+    public LogTrace garbageFreeLogTrace() {
+        return new GarbageFreeLogTrace();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "span-tree")
+    public LogTrace spanTreeLogTrace(RecentTraceIndex recentTraceIndex,
+                                     @Value("${trace.span.max-spans:256}") int maxSpans) {
+        return new SpanTreeLogTrace(recentTraceIndex.andThen(new LoggingTraceRecordSink()), maxSpans);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "tail-sampling")
+    public LogTrace tailSamplingLogTrace(RecentTraceIndex recentTraceIndex,
+                                         @Value("${trace.span.max-spans:256}") int maxSpans,
+                                         @Value("${trace.tail.threshold-ms:500}") long thresholdMs) {
+        TailSamplingTraceRecordSink sink = new TailSamplingTraceRecordSink(thresholdMs, TimeUnit.MILLISECONDS, new LoggingTraceRecordSink());
+        return new SpanTreeLogTrace(recentTraceIndex.andThen(sink), maxSpans); // 인덱스에는 샘플링 전 트레이스를 모두 남긴다.
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "journal")
+    public LogTrace journalLogTrace(@Value("${trace.journal.directory:trace-journal}") String directory,
+                                    @Value("${trace.journal.segment-size-mb:64}") int segmentSizeMb,
+                                    @Value("${trace.journal.max-segments:8}") int maxSegments,
+                                    @Value("${trace.journal.flush-interval-ms:1000}") long flushIntervalMs) throws IOException {
+        // 세그먼트는 MappedByteBuffer 하나라서 int 범위(2GB 미만)를 넘을 수 없다.
+        if (segmentSizeMb < 1 || segmentSizeMb > 2047) {
+            throw new IllegalArgumentException("trace.journal.segment-size-mb 는 1 ~ 2047 이어야 합니다. segment-size-mb=" + segmentSizeMb);
+        }
+        JournalWriter journal = new JournalWriter(Paths.get(directory), segmentSizeMb * 1024 * 1024, maxSegments, flushIntervalMs);
+        return new JournalLogTrace(journal); // 컨테이너 종료 시 close() 호출
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.mode", havingValue = "summary")
+    public LogTrace summaryLogTrace(@Value("${trace.summary.interval-sec:10}") long intervalSec) {
+        return new SummaryLogTrace(intervalSec, TimeUnit.SECONDS, 1024); // 컨테이너 종료 시 close() 호출
+    }
+
+    /**
+     * TraceId 는 생성기를 static 으로 들고 있으므로 빈을 만들 때 TraceId.setGenerator() 로 바꿔 둔다.
+     * 트레이스는 요청이 들어올 때 시작하므로 첫 요청을 받기 전에 설정이 끝난다.
+     */
+    @Bean
+    public TraceIdGenerator traceIdGenerator(@Value("${trace.id.generator:sequence}") String generator) {
+        TraceIdGenerator traceIdGenerator;
+        switch (generator) {
+            case "sequence":
+                traceIdGenerator = new SequenceTraceIdGenerator();
+                break;
+            case "uuid":
+                traceIdGenerator = new UuidTraceIdGenerator();
+                break;
+            default:
+                throw new IllegalArgumentException("trace.id.generator 는 sequence, uuid 중 하나여야 합니다. generator=" + generator);
+        }
+        TraceId.setGenerator(traceIdGenerator);
+        return traceIdGenerator;
+    }
+
+    @Bean
+    public TraceContextPropagator traceContextPropagator(LogTrace logTrace) {
+        return new TraceContextPropagator(logTrace);
+    }
+
+    @Bean
+    public TraceTaskDecorator traceTaskDecorator(TraceContextPropagator traceContextPropagator) {
+        return new TraceTaskDecorator(traceContextPropagator);
+    }
+
+    @Bean
+    public LatencyHistogramRegistry latencyHistogramRegistry() {
+        return new LatencyHistogramRegistry();
+    }
+
+    @Bean
+    public RecentTraceIndex recentTraceIndex(@Value("${trace.recent.capacity:2048}") int capacity) {
+        return new RecentTraceIndex(capacity);
+    }
+
+    @Bean
+    public TraceQueryController traceQueryController(RecentTraceIndex recentTraceIndex) {
+        return new TraceQueryController(recentTraceIndex);
+    }
+
+    @Bean
+    public LatencyController latencyController(LatencyHistogramRegistry latencyHistogramRegistry) {
+        return new LatencyController(latencyHistogramRegistry);
+    }
+
+    @Bean
+    public MethodMetricsRegistry methodMetricsRegistry() {
+        return new MethodMetricsRegistry();
+    }
+
+    @Bean
+    public MetricsController metricsController(MethodMetricsRegistry methodMetricsRegistry) {
+        return new MetricsController(methodMetricsRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package hello.proxy.config;
+
+import hello.proxy.cglib.ProxyClassCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * CGLIB 프록시 클래스 디스크 캐시 (proxy.class-cache.enabled=true)
+ *
+ * ProxyStartupConfig 의 AopProxyFactory 빈이 ProxyClassCache 를 쓴다.
+ * 그래서 ProxyFactoryConfigV2, BeanPostProcessorConfig, AutoProxyConfig, AopConfig 가 만드는 CGLIB 프록시에 모두 적용된다.
+ *
+ * 첫 기동에서 생성한 클래스를 proxy.class-cache.directory 에 저장하고, 다음 기동부터 읽어서 쓴다.
+ * 기동이 끝나면 캐시 적중 수와 절약한 생성 시간을 로그로 남긴다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "proxy.class-cache.enabled", havingValue = "true")
+public class ProxyClassCacheConfig {
+
+    @Bean
+    public ProxyClassCache proxyClassCache(@Value("${proxy.class-cache.directory:build/proxy-class-cache}") String directory) throws IOException {
+        return new ProxyClassCache(Paths.get(directory));
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> proxyClassCacheReport(ProxyClassCache proxyClassCache) {
+        return event -> log.info("CGLIB 프록시 클래스 캐시 {}", proxyClassCache.summary());
+    }
+}
@@ -0,0 +1,100 @@
+package hello.proxy.config;
+
+import hello.proxy.cglib.CachingAopProxyFactory;
+import hello.proxy.cglib.ProxyClassCache;
+import hello.proxy.singleadvice.SingleAdviceAopProxyFactory;
+import hello.proxy.startup.AopProxyFactoryAutoProxyCreator;
+import hello.proxy.startup.PostProcessTimingBeanPostProcessors;
+import hello.proxy.startup.StartupController;
+import hello.proxy.startup.StartupRecordingAopProxyFactory;
+import hello.proxy.startup.StartupReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.ApplicationStartup;
+
+/**
+ * 프록시 방식별 기동 비용 측정
+ *
+ * ProxyApplication.main() 은 BufferingApplicationStartup 으로 기동한다. 스프링이 기록하는 단계(컨텍스트 refresh, 빈 생성)에 더해서
+ *   - proxy.post-process : 빈 후처리 구간 (PostProcessTimingBeanPostProcessors)
+ *   - proxy.create : ProxyFactory 의 프록시 생성 (StartupRecordingAopProxyFactory)
+ * 를 기록하고, 기동이 끝나면 StartupReport 를 로그로 남긴다. 조회는 /startup
+ *
+ * AopProxyFactory 빈은 ProxyFactoryConfigV1, ProxyFactoryConfigV2, BeanPostProcessorConfig, 자동 프록시 생성기(AopProxyFactoryAutoProxyCreator)가 같이 쓴다.
+ * ProxyClassCacheConfig 가 켜져 있으면 CGLIB 프록시 클래스를 디스크 캐시에서 읽는다.
+ *
+ * proxy.engine 으로 프록시 엔진을 고른다.
+ *   - spring (기본값) : 스프링의 JDK 동적 프록시/CGLIB 프록시
+ *   - single-advice : 어드바이스가 하나뿐인 frozen 프록시는 SingleAdviceAopProxy 로 만든다. (ProxyFactoryConfigV2, AutoProxyConfig)
+ *     자동 프록시 생성기도 frozen 으로 바꾼다.
+ */
+@Slf4j
+@Configuration
+public class ProxyStartupConfig {
+
+    public static final String SINGLE_ADVICE_ENGINE = "single-advice";
+
+    @Bean
+    public AopProxyFactory aopProxyFactory(ObjectProvider<ProxyClassCache> proxyClassCache, ApplicationStartup applicationStartup,
+                                           @Value("${proxy.engine:spring}") String engine) {
+        ProxyClassCache cache = proxyClassCache.getIfAvailable();
+        AopProxyFactory delegate = cache == null ? new DefaultAopProxyFactory() : new CachingAopProxyFactory(cache);
+        if (SINGLE_ADVICE_ENGINE.equals(engine)) {
+            delegate = new SingleAdviceAopProxyFactory(delegate);
+        }
+        return new StartupRecordingAopProxyFactory(delegate, applicationStartup);
+    }
+
+    @Bean
+    public static BeanFactoryPostProcessor aopProxyFactoryAutoProxyCreatorPostProcessor() {
+        return beanFactory -> {
+            String beanName = AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME;
+            if (beanFactory.containsBeanDefinition(beanName)) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                definition.setBeanClassName(AopProxyFactoryAutoProxyCreator.class.getName());
+                String engine = beanFactory.getBean(Environment.class).getProperty("proxy.engine", "spring");
+                if (SINGLE_ADVICE_ENGINE.equals(engine)) {
+                    definition.getPropertyValues().add("frozen", true); // SingleAdviceAopProxy 는 frozen 프록시에만 쓴다.
+                }
+            }
+        };
+    }
+
+    @Bean
+    public static PostProcessTimingBeanPostProcessors.Start postProcessTimingStart(ApplicationStartup applicationStartup) {
+        return new PostProcessTimingBeanPostProcessors.Start(applicationStartup);
+    }
+
+    @Bean
+    public static PostProcessTimingBeanPostProcessors.End postProcessTimingEnd() {
+        return new PostProcessTimingBeanPostProcessors.End();
+    }
+
+    @Bean
+    public StartupController startupController(ApplicationStartup applicationStartup, Environment environment) {
+        return new StartupController(applicationStartup, environment);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> startupReportLogger(ApplicationStartup applicationStartup, Environment environment) {
+        return event -> {
+            if (applicationStartup instanceof BufferingApplicationStartup) {
+                StartupReport report = new StartupReport(ProxyStrategySelector.strategy(environment),
+                        ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline());
+                log.info("기동 시간 리포트\n{}", report.render(10));
+            }
+        };
+    }
+}
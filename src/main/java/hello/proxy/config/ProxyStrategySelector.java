@@ -0,0 +1,92 @@
+package hello.proxy.config;
+
+import hello.proxy.config.v1_proxy.ConcreteProxyConfig;
+import hello.proxy.config.v1_proxy.GeneratedProxyConfig;
+import hello.proxy.config.v1_proxy.InterfaceProxyConfig;
+import hello.proxy.config.v2_dynamicproxy.DynamicProxyBasicConfig;
+import hello.proxy.config.v2_dynamicproxy.DynamicProxyFilterConfig;
+import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
+import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV2;
+import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 프록시 적용 방식 선택
+ * ProxyApplication 의 @Import 줄을 주석으로 바꿔가며 고르던 설정을 proxy.strategy 값으로 고른다.
+ * proxy.strategy 가 없으면 활성 프로파일 중 아래 이름과 같은 것을 쓴다. 예) --spring.profiles.active=auto-proxy
+ *
+ *   - app : AppV1Config, AppV2Config (프록시 없음)
+ *   - interface-proxy : InterfaceProxyConfig
+ *   - concrete-proxy : ConcreteProxyConfig
+ *   - generated-proxy : GeneratedProxyConfig
+ *   - dynamic-proxy-basic : DynamicProxyBasicConfig
+ *   - dynamic-proxy-filter : DynamicProxyFilterConfig
+ *   - proxy-factory-v1 : ProxyFactoryConfigV1
+ *   - proxy-factory-v2 : ProxyFactoryConfigV2
+ *   - bean-post-processor : BeanPostProcessorConfig
+ *   - auto-proxy : AutoProxyConfig
+ *   - aop (기본값) : AopConfig
+ */
+@Slf4j
+public class ProxyStrategySelector implements ImportSelector, EnvironmentAware {
+
+    public static final String PROPERTY = "proxy.strategy";
+    public static final String DEFAULT_STRATEGY = "aop";
+
+    private static final Map<String, Class<?>[]> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("app", new Class<?>[]{AppV1Config.class, AppV2Config.class});
+        STRATEGIES.put("interface-proxy", new Class<?>[]{InterfaceProxyConfig.class});
+        STRATEGIES.put("concrete-proxy", new Class<?>[]{ConcreteProxyConfig.class});
+        STRATEGIES.put("generated-proxy", new Class<?>[]{GeneratedProxyConfig.class});
+        STRATEGIES.put("dynamic-proxy-basic", new Class<?>[]{DynamicProxyBasicConfig.class});
+        STRATEGIES.put("dynamic-proxy-filter", new Class<?>[]{DynamicProxyFilterConfig.class});
+        STRATEGIES.put("proxy-factory-v1", new Class<?>[]{ProxyFactoryConfigV1.class});
+        STRATEGIES.put("proxy-factory-v2", new Class<?>[]{ProxyFactoryConfigV2.class});
+        STRATEGIES.put("bean-post-processor", new Class<?>[]{BeanPostProcessorConfig.class});
+        STRATEGIES.put("auto-proxy", new Class<?>[]{AutoProxyConfig.class});
+        STRATEGIES.put("aop", new Class<?>[]{AopConfig.class});
+    }
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+        String strategy = strategy(environment);
+        Class<?>[] configs = STRATEGIES.get(strategy);
+        if (configs == null) {
+            throw new IllegalArgumentException(PROPERTY + " 값이 올바르지 않습니다. " + PROPERTY + "=" + strategy + ", 가능한 값=" + STRATEGIES.keySet());
+        }
+        log.info("프록시 적용 방식 {}={} {}", PROPERTY, strategy, Arrays.toString(configs));
+        return Arrays.stream(configs).map(Class::getName).toArray(String[]::new);
+    }
+
+    public static String strategy(Environment environment) {
+        String strategy = environment.getProperty(PROPERTY);
+        if (strategy != null && !strategy.isBlank()) {
+            return strategy.trim();
+        }
+        for (String profile : environment.getActiveProfiles()) {
+            if (STRATEGIES.containsKey(profile)) {
+                return profile;
+            }
+        }
+        return DEFAULT_STRATEGY;
+    }
+}
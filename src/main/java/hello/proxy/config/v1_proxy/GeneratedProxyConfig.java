@@ -0,0 +1,38 @@
+package hello.proxy.config.v1_proxy;
+
+import hello.proxy.app.v1.*;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * V1 생성된 프록시 의존 관계 설정
+ *
+ * InterfaceProxyConfig 와 같은 구조지만, 직접 만든 프록시 대신 컴파일 시점에 생성된 프록시를 등록한다.
+ * OrderControllerV1, OrderServiceV1, OrderRepositoryV1 에 @Traced 를 붙이면
+ * trace-processor 가 같은 패키지에 {인터페이스 이름}TracedProxy 를 만든다.
+ *
+ * 생성된 코드는 직접 만든 프록시와 같아서 호출 비용에 리플렉션이나 인터셉터 체인이 없다.
+ * 대신 인터페이스마다 프록시 클래스를 손으로 만들 필요가 없다.
+ *      orderControllerV1TracedProxy -> orderControllerV1Impl
+ */
+@Configuration
+public class GeneratedProxyConfig {
+    @Bean
+    public OrderControllerV1 orderController(LogTrace logTrace) {
+        OrderControllerV1Impl controllerImpl = new OrderControllerV1Impl(orderService(logTrace));
+        return new OrderControllerV1TracedProxy(controllerImpl, logTrace);
+    }
+
+    @Bean
+    public OrderServiceV1 orderService(LogTrace logTrace) {
+        OrderServiceV1Impl serviceImpl = new OrderServiceV1Impl(orderRepository(logTrace));
+        return new OrderServiceV1TracedProxy(serviceImpl, logTrace);
+    }
+
+    @Bean
+    public OrderRepositoryV1 orderRepository(LogTrace logTrace) {
+        OrderRepositoryV1Impl repositoryImpl = new OrderRepositoryV1Impl();
+        return new OrderRepositoryV1TracedProxy(repositoryImpl, logTrace);
+    }
+}
@@ -3,21 +3,35 @@ package hello.proxy.config.v2_dynamicproxy;
 import hello.proxy.app.v1.*;
 import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.method.InvocationStrategy;
+import hello.proxy.trace.method.MethodInvokerCache;
+import hello.proxy.trace.method.MethodMetadataRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.lang.reflect.Proxy;
 
+/**
+ * proxy.invoker : target 호출 방식, REFLECTION(기본값) 또는 METHOD_HANDLE (MethodInvokerCache 참고)
+ */
 @Configuration
 public class DynamicProxyBasicConfig {
 
+    private final MethodMetadataRegistry methodMetadata = new MethodMetadataRegistry();
+    private final MethodInvokerCache invokers;
+
+    public DynamicProxyBasicConfig(@Value("${proxy.invoker:REFLECTION}") InvocationStrategy invocationStrategy) {
+        this.invokers = new MethodInvokerCache(invocationStrategy);
+    }
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
 
         OrderControllerV1 proxy =
                 (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
-                        new Class[]{OrderControllerV1.class}, new LogTraceBasicHandler(orderController, logTrace));
+                        new Class[]{OrderControllerV1.class}, new LogTraceBasicHandler(orderController, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -26,7 +40,7 @@ public class DynamicProxyBasicConfig {
         OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
 
         OrderServiceV1 proxy = (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
-                new Class[]{OrderServiceV1.class}, new LogTraceBasicHandler(orderService, logTrace));
+                new Class[]{OrderServiceV1.class}, new LogTraceBasicHandler(orderService, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -37,7 +51,7 @@ public class DynamicProxyBasicConfig {
         OrderRepositoryV1 proxy =
                 (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
                         new Class[]{OrderRepositoryV1.class},
-                        new LogTraceBasicHandler(orderRepository, logTrace));
+                        new LogTraceBasicHandler(orderRepository, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -4,23 +4,38 @@ import hello.proxy.app.v1.*;
 import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
 import hello.proxy.config.v2_dynamicproxy.handler.LogTraceFilterHandler;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.method.InvocationStrategy;
+import hello.proxy.trace.method.MethodInvokerCache;
+import hello.proxy.trace.method.MethodMetadataRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.lang.reflect.Proxy;
 
+/**
+ * proxy.invoker : target 호출 방식, REFLECTION(기본값) 또는 METHOD_HANDLE (MethodInvokerCache 참고)
+ */
 @Configuration
 public class DynamicProxyFilterConfig {
 
     private static final String[] PATTERNS = {"request*", "order*", "save*"};
 
+    // 세 프록시가 같은 패턴을 쓰므로 메서드 메타데이터(메시지, 패턴 매칭 결과)를 공유한다.
+    private final MethodMetadataRegistry methodMetadata = new MethodMetadataRegistry(PATTERNS);
+    private final MethodInvokerCache invokers;
+
+    public DynamicProxyFilterConfig(@Value("${proxy.invoker:REFLECTION}") InvocationStrategy invocationStrategy) {
+        this.invokers = new MethodInvokerCache(invocationStrategy);
+    }
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
 
         OrderControllerV1 proxy =
                 (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
-                        new Class[]{OrderControllerV1.class}, new LogTraceFilterHandler(orderController, logTrace, PATTERNS));
+                        new Class[]{OrderControllerV1.class}, new LogTraceFilterHandler(orderController, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -29,7 +44,7 @@ public class DynamicProxyFilterConfig {
         OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
 
         OrderServiceV1 proxy = (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
-                new Class[]{OrderServiceV1.class}, new LogTraceFilterHandler(orderService, logTrace, PATTERNS));
+                new Class[]{OrderServiceV1.class}, new LogTraceFilterHandler(orderService, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -40,7 +55,7 @@ public class DynamicProxyFilterConfig {
         OrderRepositoryV1 proxy =
                 (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
                         new Class[]{OrderRepositoryV1.class},
-                        new LogTraceFilterHandler(orderRepository, logTrace, PATTERNS));
+                        new LogTraceFilterHandler(orderRepository, logTrace, methodMetadata, invokers));
         return proxy;
     }
 
@@ -2,6 +2,10 @@ package hello.proxy.config.v2_dynamicproxy.handler;
 
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.method.InvocationStrategy;
+import hello.proxy.trace.method.MethodInvokerCache;
+import hello.proxy.trace.method.MethodMetadataRegistry;
+import hello.proxy.trace.method.TargetMethodInvokers;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -10,10 +14,26 @@ public class LogTraceBasicHandler implements InvocationHandler {
 
     private final Object target;
     private final LogTrace logTrace;
+    private final MethodMetadataRegistry methodMetadata;
+    private final TargetMethodInvokers invokers;
 
     public LogTraceBasicHandler(Object target, LogTrace logTrace) {
+        this(target, logTrace, new MethodMetadataRegistry());
+    }
+
+    public LogTraceBasicHandler(Object target, LogTrace logTrace, MethodMetadataRegistry methodMetadata) {
+        this(target, logTrace, methodMetadata, new MethodInvokerCache(InvocationStrategy.REFLECTION));
+    }
+
+    /**
+     * invokers : target 호출 방식(리플렉션, MethodHandle), 프록시끼리 공유할 수 있다.
+     * 핸들러는 target 이 고정이므로 target 클래스의 invoker 를 Method 별로 따로 들고 있는다. (TargetMethodInvokers)
+     */
+    public LogTraceBasicHandler(Object target, LogTrace logTrace, MethodMetadataRegistry methodMetadata, MethodInvokerCache invokers) {
         this.target = target; // 프록시가 호출할 대상
         this.logTrace = logTrace;
+        this.methodMetadata = methodMetadata.preload(target.getClass()); // 메시지는 프록시를 만들 때 미리 계산
+        this.invokers = new TargetMethodInvokers(target.getClass(), invokers).preload(); // invoker 도 프록시를 만들 때 미리 만든다.
     }
 
     @Override
@@ -25,15 +45,15 @@ public class LogTraceBasicHandler implements InvocationHandler {
              * LogTrace 에 사용할 메시지이다.
              * 프록시를 직접 개발할 때는 "OrderController.request()" 와 같이 프록시마다 호출되는 클래스와 메서드 이름을 직접 남겼다.
              * 이제는 Method 를 통해서 호출되는 메서드 정보와 클래스 정보를 동적으로 확인할 수 있기 때문에 이 정보를 사용하면 된다.
+             * 호출마다 문자열을 만들지 않도록 MethodMetadataRegistry 에 Method 별로 한 번만 만들어 둔다.
              */
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
+            String message = methodMetadata.get(method).getMessage();
 //            status = logTrace.begin("OrderController.request()");
             status = logTrace.begin(message);
 
             // target 호출(실제 호출할 대상), 로직
 //            String result = target.request(itemId);
-            Object result = method.invoke(target, args);
+            Object result = invokers.get(method).invoke(target, args); // 예외는 InvocationTargetException 으로 감싸지 않는다.
 
             logTrace.end(status);
             return result;
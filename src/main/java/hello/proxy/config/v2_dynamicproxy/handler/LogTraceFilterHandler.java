@@ -2,7 +2,11 @@ package hello.proxy.config.v2_dynamicproxy.handler;
 
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
-import org.springframework.util.PatternMatchUtils;
+import hello.proxy.trace.method.MethodMetadata;
+import hello.proxy.trace.method.InvocationStrategy;
+import hello.proxy.trace.method.MethodInvokerCache;
+import hello.proxy.trace.method.MethodMetadataRegistry;
+import hello.proxy.trace.method.TargetMethodInvokers;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -11,22 +15,39 @@ public class LogTraceFilterHandler implements InvocationHandler {
 
     private final Object target;
     private final LogTrace logTrace;
-    private final String[] patterns;
+    private final MethodMetadataRegistry methodMetadata;
+    private final TargetMethodInvokers invokers;
 
     public LogTraceFilterHandler(Object target, LogTrace logTrace, String[] patterns) {
+        this(target, logTrace, new MethodMetadataRegistry(patterns));
+    }
+
+    /**
+     * 같은 패턴을 쓰는 프록시끼리 methodMetadata 를 공유할 수 있다.
+     */
+    public LogTraceFilterHandler(Object target, LogTrace logTrace, MethodMetadataRegistry methodMetadata) {
+        this(target, logTrace, methodMetadata, new MethodInvokerCache(InvocationStrategy.REFLECTION));
+    }
+
+    /**
+     * invokers : target 호출 방식(리플렉션, MethodHandle), 프록시끼리 공유할 수 있다.
+     * 핸들러는 target 이 고정이므로 target 클래스의 invoker 를 Method 별로 따로 들고 있는다. (TargetMethodInvokers)
+     */
+    public LogTraceFilterHandler(Object target, LogTrace logTrace, MethodMetadataRegistry methodMetadata, MethodInvokerCache invokers) {
         this.target = target;
         this.logTrace = logTrace;
-        this.patterns = patterns;
+        this.methodMetadata = methodMetadata.preload(target.getClass()); // 패턴 매칭은 프록시를 만들 때 미리 계산
+        this.invokers = new TargetMethodInvokers(target.getClass(), invokers).preload(); // invoker 도 프록시를 만들 때 미리 만든다.
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
-        // 메서드 이름 필터
-        String methodName = method.getName();
+        // 메서드 이름 필터, 패턴 매칭 결과는 MethodMetadataRegistry 에 Method 별로 한 번만 계산해 둔다.
         // ex) save, request, reque*, *est, *que*
-        if (!PatternMatchUtils.simpleMatch(patterns, methodName)) { // 패턴매칭이 안되면
-            return method.invoke(target, args); // 특정이름이 매칭이 안되면 아래의 로그 남기지 않고 바로 invoke 로 넘어간다.
+        MethodMetadata metadata = methodMetadata.get(method);
+        if (!metadata.isTraced()) { // 패턴매칭이 안되면
+            return invokers.get(method).invoke(target, args); // 특정이름이 매칭이 안되면 아래의 로그 남기지 않고 바로 invoke 로 넘어간다.
         }
 
         TraceStatus status = null;
@@ -37,14 +58,13 @@ public class LogTraceFilterHandler implements InvocationHandler {
              * 프록시를 직접 개발할 때는 "OrderController.request()" 와 같이 프록시마다 호출되는 클래스와 메서드 이름을 직접 남겼다.
              * 이제는 Method 를 통해서 호출되는 메서드 정보와 클래스 정보를 동적으로 확인할 수 있기 때문에 이 정보를 사용하면 된다.
              */
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
+            String message = metadata.getMessage();
 //            status = logTrace.begin("OrderController.request()");
             status = logTrace.begin(message);
 
             // target 호출(실제 호출할 대상), 로직
 //            String result = target.request(itemId);
-            Object result = method.invoke(target, args);
+            Object result = invokers.get(method).invoke(target, args); // 예외는 InvocationTargetException 으로 감싸지 않는다.
 
             logTrace.end(status);
             return result;
@@ -1,26 +1,45 @@
 package hello.proxy.config.v3_proxyfactory;
 
 import hello.proxy.app.v1.*;
+import hello.proxy.blueprint.ProxyBlueprints;
+import hello.proxy.bulkhead.BulkheadInterceptor;
+import hello.proxy.bulkhead.BulkheadRegistry;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
-import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 @Slf4j
 @Configuration
 public class ProxyFactoryConfigV1 {
 
+    private final ProxyBlueprints proxyBlueprints;
+    private final Advisor[] bulkheadAdvisors;
+    private Advisor advisor; // 빈 생성은 한 스레드에서 진행된다.
+
+    /**
+     * ProxyStartupConfig 의 AopProxyFactory 를 쓴다. 프록시 생성 시간이 StartupReport 의 proxy.create 로 기록된다.
+     * 인터페이스가 있으므로 JDK 동적 프록시가 만들어진다. (CGLIB 프록시 클래스 캐시는 해당 없다)
+     * BulkheadRegistry 가 있으면 레포지토리 save() 에 Bulkhead 도 적용한다. (BulkheadConfig)
+     */
+    public ProxyFactoryConfigV1(ObjectProvider<AopProxyFactory> aopProxyFactory, ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+        this.proxyBlueprints = new ProxyBlueprints(aopProxyFactory.getIfAvailable(DefaultAopProxyFactory::new));
+        this.bulkheadAdvisors = bulkheadAdvisors(bulkheadRegistry.getIfAvailable());
+    }
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
-        ProxyFactory factory = new ProxyFactory(orderController);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderControllerV1 proxy = (OrderControllerV1) factory.getProxy();
+        OrderControllerV1 proxy = (OrderControllerV1) proxyBlueprints.getProxy(orderController, getAdvisor(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
         return proxy;
     }
@@ -29,9 +48,7 @@ public class ProxyFactoryConfigV1 {
     @Bean
     public OrderServiceV1 orderServiceV1(LogTrace logTrace) {
         OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
-        ProxyFactory factory = new ProxyFactory(orderService);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderServiceV1 proxy = (OrderServiceV1) factory.getProxy();
+        OrderServiceV1 proxy = (OrderServiceV1) proxyBlueprints.getProxy(orderService, getAdvisor(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
         return proxy;
     }
@@ -39,19 +56,40 @@ public class ProxyFactoryConfigV1 {
     @Bean
     public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace) {
         OrderRepositoryV1Impl orderRepository = new OrderRepositoryV1Impl();
-        ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderRepositoryV1 proxy = (OrderRepositoryV1) factory.getProxy();
+        OrderRepositoryV1 proxy = (OrderRepositoryV1) proxyBlueprints.getProxy(orderRepository, repositoryAdvisors(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
     }
 
+    /**
+     * Bulkhead 를 앞에 둔다. 가득 차면 로그 없이 바로 거절한다.
+     */
+    private static Advisor[] bulkheadAdvisors(BulkheadRegistry bulkheadRegistry) {
+        if (bulkheadRegistry == null) {
+            return new Advisor[0];
+        }
+        return new Advisor[]{BulkheadInterceptor.advisor(bulkheadRegistry, "save")};
+    }
+
+    private Advisor[] repositoryAdvisors(LogTrace logTrace) {
+        Advisor[] advisors = Arrays.copyOf(bulkheadAdvisors, bulkheadAdvisors.length + 1);
+        advisors[bulkheadAdvisors.length] = getAdvisor(logTrace);
+        return advisors;
+    }
+
+    /**
+     * 어드바이저를 빈마다 새로 만들지 않고 하나를 공유해야 같은 ProxyBlueprint 를 재사용한다.
+     */
     private Advisor getAdvisor(LogTrace logTrace) {
+        if (advisor != null) {
+            return advisor;
+        }
         // pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
         // advice
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
-        return new DefaultPointcutAdvisor(pointcut, advice);
+        advisor = new DefaultPointcutAdvisor(pointcut, advice);
+        return advisor;
     }
 }
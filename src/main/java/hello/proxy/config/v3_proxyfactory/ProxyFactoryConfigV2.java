@@ -3,25 +3,50 @@ package hello.proxy.config.v3_proxyfactory;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.blueprint.ProxyBlueprints;
+import hello.proxy.bulkhead.BulkheadInterceptor;
+import hello.proxy.bulkhead.BulkheadRegistry;
+import hello.proxy.config.ProxyStartupConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
-import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 @Slf4j
 @Configuration
 public class ProxyFactoryConfigV2 {
+
+    private final ProxyBlueprints proxyBlueprints;
+    private final Advisor[] bulkheadAdvisors;
+    private Advisor advisor; // 빈 생성은 한 스레드에서 진행된다.
+
+    /**
+     * ProxyStartupConfig 의 AopProxyFactory 를 쓴다. 프록시 생성 시간을 기록하고, ProxyClassCacheConfig 가 켜져 있으면 CGLIB 프록시 클래스를 디스크 캐시에서 읽는다.
+     * proxy.engine=single-advice 이면 어드바이저가 하나뿐인 이 설정의 프록시는 SingleAdviceAopProxy 로 만들어진다.
+     * SingleAdviceAopProxy 는 frozen 프록시에만 쓰므로 그때만 프록시를 frozen 으로 만든다.
+     * BulkheadRegistry 가 있으면 레포지토리 save() 에 Bulkhead 도 적용한다. (BulkheadConfig)
+     */
+    public ProxyFactoryConfigV2(ObjectProvider<AopProxyFactory> aopProxyFactory, ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                @Value("${proxy.engine:spring}") String engine) {
+        boolean frozen = ProxyStartupConfig.SINGLE_ADVICE_ENGINE.equals(engine);
+        this.proxyBlueprints = new ProxyBlueprints(aopProxyFactory.getIfAvailable(DefaultAopProxyFactory::new), false, frozen);
+        this.bulkheadAdvisors = bulkheadAdvisors(bulkheadRegistry.getIfAvailable());
+    }
+
     @Bean
     public OrderControllerV2 orderControllerV2(LogTrace logTrace) {
         OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace));
-        ProxyFactory factory = new ProxyFactory(orderController);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderControllerV2 proxy = (OrderControllerV2) factory.getProxy();
+        OrderControllerV2 proxy = (OrderControllerV2) proxyBlueprints.getProxy(orderController, getAdvisor(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
         return proxy;
     }
@@ -29,9 +54,7 @@ public class ProxyFactoryConfigV2 {
     @Bean
     public OrderServiceV2 orderServiceV2(LogTrace logTrace) {
         OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace));
-        ProxyFactory factory = new ProxyFactory(orderService);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderServiceV2 proxy = (OrderServiceV2) factory.getProxy();
+        OrderServiceV2 proxy = (OrderServiceV2) proxyBlueprints.getProxy(orderService, getAdvisor(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
         return proxy;
     }
@@ -39,19 +62,40 @@ public class ProxyFactoryConfigV2 {
     @Bean
     public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace) {
         OrderRepositoryV2 orderRepository = new OrderRepositoryV2();
-        ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(getAdvisor(logTrace));
-        OrderRepositoryV2 proxy = (OrderRepositoryV2) factory.getProxy();
+        OrderRepositoryV2 proxy = (OrderRepositoryV2) proxyBlueprints.getProxy(orderRepository, repositoryAdvisors(logTrace));
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
     }
 
+    /**
+     * Bulkhead 를 앞에 둔다. 가득 차면 로그 없이 바로 거절한다.
+     */
+    private static Advisor[] bulkheadAdvisors(BulkheadRegistry bulkheadRegistry) {
+        if (bulkheadRegistry == null) {
+            return new Advisor[0];
+        }
+        return new Advisor[]{BulkheadInterceptor.advisor(bulkheadRegistry, "save")};
+    }
+
+    private Advisor[] repositoryAdvisors(LogTrace logTrace) {
+        Advisor[] advisors = Arrays.copyOf(bulkheadAdvisors, bulkheadAdvisors.length + 1);
+        advisors[bulkheadAdvisors.length] = getAdvisor(logTrace);
+        return advisors;
+    }
+
+    /**
+     * 어드바이저를 빈마다 새로 만들지 않고 하나를 공유해야 같은 ProxyBlueprint 를 재사용한다.
+     */
     private Advisor getAdvisor(LogTrace logTrace) {
+        if (advisor != null) {
+            return advisor;
+        }
         // pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
         // advice
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
-        return new DefaultPointcutAdvisor(pointcut, advice);
+        advisor = new DefaultPointcutAdvisor(pointcut, advice);
+        return advisor;
     }
 }
@@ -2,26 +2,32 @@ package hello.proxy.config.v3_proxyfactory.advice;
 
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.method.MethodMetadataRegistry;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
-import java.lang.reflect.Method;
-
 public class LogTraceAdvice implements MethodInterceptor {
 
     private final LogTrace logTrace;
+    private final MethodMetadataRegistry methodMetadata;
 
     public LogTraceAdvice(LogTrace logTrace) {
+        this(logTrace, new MethodMetadataRegistry());
+    }
+
+    /**
+     * 메시지는 methodMetadata 에 Method 별로 처음 호출될 때 한 번만 만든다. 필터는 포인트컷이 하므로 patterns 없는 레지스트리를 쓴다.
+     */
+    public LogTraceAdvice(LogTrace logTrace, MethodMetadataRegistry methodMetadata) {
         this.logTrace = logTrace;
+        this.methodMetadata = methodMetadata;
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         TraceStatus status = null;
         try {
-            Method method = invocation.getMethod();
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
+            String message = methodMetadata.get(invocation.getMethod()).getMessage();
             status = logTrace.begin(message);
 
             // 로직 호출
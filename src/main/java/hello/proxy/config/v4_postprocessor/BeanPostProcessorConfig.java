@@ -7,8 +7,11 @@ import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProc
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -19,8 +22,9 @@ import org.springframework.context.annotation.Import;
 public class BeanPostProcessorConfig {
 
     @Bean
-    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace) {
-        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace));
+    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace, ObjectProvider<AopProxyFactory> aopProxyFactory) {
+        // ProxyStartupConfig 의 AopProxyFactory, 프록시 생성 시간 기록과 CGLIB 프록시 클래스 캐시(ProxyClassCacheConfig)
+        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace), aopProxyFactory.getIfAvailable(DefaultAopProxyFactory::new));
     }
 
     private Advisor getAdvisor(LogTrace logTrace) {
@@ -1,20 +1,45 @@
 package hello.proxy.config.v4_postprocessor.postprocessor;
 
+import hello.proxy.blueprint.ProxyBlueprints;
+import hello.proxy.pointcut.PackagePrefixTrie;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
-import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
+import java.util.List;
+
+/**
+ * basePackage 아래 빈 중 advisor 의 포인트컷에 맞는 메서드가 하나라도 있는 빈만 프록시로 바꾼다.
+ * 대상 여부는 빈 클래스마다 한 번만 판단한다. (패키지 트라이 -> AopUtils.canApply)
+ * 같은 클래스의 빈들은 ProxyBlueprint 를 공유한다. 인터셉터 체인과 프록시 클래스를 빈마다 다시 계산하지 않는다.
+ * 빈이 이미 프록시이면 한 겹 더 씌우지 않고 기존 어드바이저와 합친 체인의 프록시를 새로 만든다. 대상 여부도 프록시가 아니라 원본 클래스로 판단한다.
+ */
 @Slf4j
 public class PackageLogTracePostProcessor implements BeanPostProcessor {
 
-    private final String basePackage;
+    private final PackagePrefixTrie basePackage;
     private final Advisor advisor;
+    private final ProxyBlueprints proxyBlueprints;
+
+    private final ClassValue<Boolean> eligible = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return basePackage.matches(type) && AopUtils.canApply(advisor, type);
+        }
+    };
 
     public PackageLogTracePostProcessor(String basePackage, Advisor advisor) {
-        this.basePackage = basePackage;
+        this(basePackage, advisor, new DefaultAopProxyFactory());
+    }
+
+    public PackageLogTracePostProcessor(String basePackage, Advisor advisor, AopProxyFactory aopProxyFactory) {
+        this.basePackage = new PackagePrefixTrie(basePackage);
         this.advisor = advisor;
+        this.proxyBlueprints = new ProxyBlueprints(aopProxyFactory);
     }
 
     @Override
@@ -22,18 +47,21 @@ public class PackageLogTracePostProcessor implements BeanPostProcessor {
         log.info("param beanName={} bean={}", beanName, bean.getClass());
 
         // 프록시 적용 대상여부 체크
-        // 프록시 적용대상이 아니면 원본을 그대로 진행
-        String packageName = bean.getClass().getPackageName();
-        if (!packageName.startsWith(basePackage)) {
+        // 프록시 적용대상이 아니면 원본을 그대로 진행, 패키지 안에 있어도 포인트컷에 맞는 메서드가 없으면 프록시를 만들지 않는다.
+        if (!eligible.get(AopUtils.getTargetClass(bean))) {
             return bean;
         }
 
         // 프록시 대상이면 프록시를 만들어서 반환
-        ProxyFactory proxyFactory = new ProxyFactory(bean);
-        proxyFactory.addAdvisor(advisor);
-
-        Object proxy = proxyFactory.getProxy();
+        Object proxy = proxyBlueprints.getProxy(beanName, bean, advisor);
         log.info("create proxy: target={}, proxy={}", bean.getClass(), proxy.getClass());
         return proxy;
     }
+
+    /**
+     * 프록시를 감싸지 않고 어드바이저 체인을 합친 빈 이름 목록
+     */
+    public List<String> getFlattenedBeans() {
+        return proxyBlueprints.getFlattenedBeans();
+    }
 }
@@ -4,6 +4,7 @@ import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import hello.proxy.pointcut.IndexedPointcut;
 import hello.proxy.trace.logtrace.LogTrace;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.aspectj.AspectJExpressionPointcut;
@@ -41,6 +42,8 @@ import org.springframework.context.annotation.Import;
  *
  *  자동 프록시 생성기인 AnnotationAwareAspectJAutoProxyCreator 덕분에 개발자는 매우 편리하게 프록시를 적용할 수 있다. 이제 Advisor 만 스프링 빈으로 등록하면 된다.
  *    Advisor = Pointcut + Advice
+ *
+ *  proxy.engine=single-advice 이면 advisor3 하나만 적용된 빈은 SingleAdviceAopProxy 로 만들어진다. (ProxyStartupConfig)
  */
 @Configuration
 @Import({AppV1Config.class, AppV2Config.class}) // 얘네가 controller, service, repository 빈 등록한다. 여기에 임포트 안하고 엔트리 포인트에 등록해도 됨
@@ -83,8 +86,11 @@ public class AutoProxyConfig {
         AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
         pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))"); // hello.proxy.app 밑 .. 하위의 모든 패키지, .. 파람 상관 없다 , noLog Method 제외
 
+        // 패키지 트라이로 hello.proxy.app 밖의 빈은 표현식 평가 없이 제외하고, 나머지는 클래스마다 한 번만 평가해서 캐시한다.
+        IndexedPointcut indexedPointcut = new IndexedPointcut(pointcut, "hello.proxy.app");
+
         // advice
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
-        return new DefaultPointcutAdvisor(pointcut, advice);
+        return new DefaultPointcutAdvisor(indexedPointcut, advice);
     }
 }
@@ -1,19 +1,51 @@
 package hello.proxy.config.v6_aop;
 
+import hello.proxy.bulkhead.BulkheadAspect;
+import hello.proxy.bulkhead.BulkheadRegistry;
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
 import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.Aspects;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
+/**
+ * LogTraceAspect 등록
+ *
+ * 기본 빌드에서는 스프링 AOP 가 @Aspect 빈을 보고 app 빈마다 프록시를 만든다.
+ * -Pweaving=ctw 로 빌드하면 LogTraceAspect 가 app 클래스에 이미 위빙되어 있다. (Aspects.hasAspect)
+ * 이때는 AspectJ 가 만든 애스펙트 인스턴스에 LogTrace 를 넣어서 빈으로 등록한다.
+ * 스프링은 ajc 로 컴파일된 애스펙트는 프록시 대상으로 쓰지 않으므로(AbstractAspectJAdvisorFactory.isAspect) 빈 그래프에 프록시가 생기지 않는다.
+ *
+ * BulkheadAspect 도 같은 방식으로 등록한다. 레포지토리 save() 의 동시 실행 수를 제한한다.
+ */
+@Slf4j
 @Configuration
 @Import({AppV1Config.class, AppV2Config.class})
 public class AopConfig {
 
     @Bean
-    public LogTraceAspect logTraceAspect(LogTrace logTrace) {
-        return new LogTraceAspect(logTrace);
+    public LogTraceAspect logTraceAspect(LogTrace logTrace, MethodMetricsRegistry methodMetricsRegistry) {
+        if (Aspects.hasAspect(LogTraceAspect.class)) {
+            log.info("LogTraceAspect 컴파일 시점 위빙 사용");
+            LogTraceAspect aspect = Aspects.aspectOf(LogTraceAspect.class);
+            aspect.configure(logTrace, methodMetricsRegistry);
+            return aspect;
+        }
+        return new LogTraceAspect(logTrace, methodMetricsRegistry);
+    }
+
+    @Bean
+    public BulkheadAspect bulkheadAspect(BulkheadRegistry bulkheadRegistry) {
+        if (Aspects.hasAspect(BulkheadAspect.class)) {
+            BulkheadAspect aspect = Aspects.aspectOf(BulkheadAspect.class);
+            aspect.configure(bulkheadRegistry);
+            return aspect;
+        }
+        return new BulkheadAspect(bulkheadRegistry);
     }
 }
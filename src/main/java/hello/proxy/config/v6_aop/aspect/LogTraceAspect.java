@@ -2,10 +2,12 @@ package hello.proxy.config.v6_aop.aspect;
 
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
 /**
  * @Aspect : 애노테이션 기반 프록시를 적용할 때 필요하다. @Around("execution(* hello.proxy.app..*(..))")
@@ -16,20 +18,51 @@ import org.aspectj.lang.annotation.Aspect;
  *      내부에 실제 호출 대상, 전달 인자, 그리고 어떤 객체와 어떤 메서드가 호출되었는지 정보가 포함되어 있다.
  *
  *  joinPoint.proceed() : 실제 호출 대상( target )을 호출한다.
+ *
+ *  MethodMetricsRegistry 를 넘기면 로그와 함께 메서드별 호출 수, 예외 수, 지연 시간도 기록한다. (/trace/metrics)
+ *
+ *  컴파일 시점 위빙 (./gradlew build -Pweaving=ctw)
+ *      ajc 가 app 클래스의 바이트코드에 어드바이스 호출을 직접 넣는다. 프록시가 없으므로 내부 호출(this.method())도 로그가 남는다.
+ *      이때 애스펙트 인스턴스는 스프링이 아니라 AspectJ 가 만든다. (Aspects.aspectOf) 그래서 기본 생성자가 있어야 하고,
+ *      LogTrace 는 AopConfig 가 configure() 로 넣어준다. configure() 전에 호출되면 로그 없이 그대로 진행한다.
+ *      위빙은 public 메서드만 대상으로 해서 프록시 방식과 같은 메서드에만 적용한다.
  */
 @Slf4j
 @Aspect
 public class LogTraceAspect {
 
-    private final LogTrace logTrace;
+    private volatile LogTrace logTrace;
+    private volatile MethodMetricsRegistry methodMetrics;
+
+    /**
+     * 컴파일 시점 위빙에서 AspectJ 가 사용하는 생성자
+     */
+    public LogTraceAspect() {
+    }
 
     public LogTraceAspect(LogTrace logTrace) {
+        this(logTrace, null);
+    }
+
+    public LogTraceAspect(LogTrace logTrace, MethodMetricsRegistry methodMetrics) {
         this.logTrace = logTrace;
+        this.methodMetrics = methodMetrics;
     }
 
-    @Around("execution(* hello.proxy.app..*(..))")
+    public void configure(LogTrace logTrace, MethodMetricsRegistry methodMetrics) {
+        this.methodMetrics = methodMetrics;
+        this.logTrace = logTrace;
+    }
+
+    @Around("execution(public * hello.proxy.app..*(..))")
     public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        LogTrace logTrace = this.logTrace;
+        MethodMetricsRegistry methodMetrics = this.methodMetrics;
+        if (logTrace == null) {
+            return joinPoint.proceed(); // 위빙된 클래스가 configure() 전에 호출된 경우
+        }
         TraceStatus status = null;
+        long startNanos = methodMetrics == null ? 0 : System.nanoTime();
         try {
             String message = joinPoint.getSignature().toShortString();
             status = logTrace.begin(message);
@@ -38,10 +71,20 @@ public class LogTraceAspect {
             Object result = joinPoint.proceed();
 
             logTrace.end(status);
+            recordMetrics(methodMetrics, joinPoint, startNanos, false);
             return result;
         } catch (Exception e) {
             logTrace.exception(status, e);
+            recordMetrics(methodMetrics, joinPoint, startNanos, true);
             throw e;
         }
     }
+
+    private static void recordMetrics(MethodMetricsRegistry methodMetrics, ProceedingJoinPoint joinPoint, long startNanos, boolean error) {
+        if (methodMetrics == null) {
+            return;
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature(); // execution 포인트컷이므로 항상 메서드
+        methodMetrics.record(signature.getMethod(), System.nanoTime() - startNanos, error);
+    }
 }
@@ -0,0 +1,143 @@
+package hello.proxy.pointcut;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 포인트컷 앞에 두는 사전 색인
+ *
+ * 자동 프록시 생성기는 빈마다 AopUtils.canApply() 로 클래스 필터를 보고, 빈 클래스의 모든 메서드에 메서드 매처를 평가한다.
+ * AspectJExpressionPointcut 은 이 평가가 비싸고 같은 클래스의 빈이 여러 개이거나 빈이 많으면 그만큼 반복된다.
+ * IndexedPointcut 은 다음 순서로 판단하고 결과를 클래스마다 캐시한다.
+ *   1. PackagePrefixTrie : 등록한 패키지 밖의 클래스는 표현식을 평가하지 않고 바로 제외
+ *   2. delegate 의 ClassFilter : 클래스마다 한 번
+ *   3. delegate 의 MethodMatcher : (클래스, 메서드)마다 한 번
+ *
+ * 패키지 접두사는 "이 패키지 밖의 클래스는 프록시 대상이 아니다" 라는 선언이다.
+ * 예) execution(* hello.proxy.app..*(..)) 이면 hello.proxy.app
+ * 런타임 매처(isRuntime)는 인자 값에 따라 달라지므로 캐시하지 않고 delegate 에 넘긴다.
+ *
+ * 클래스별 캐시는 인스턴스마다 ConcurrentReferenceHashMap 에 둔다. ClassValue 에 두면 캐시한 값이 IndexedPointcut 을 참조하는 한
+ * 조회한 모든 클래스가 IndexedPointcut 을 붙잡아서, 컨텍스트를 다시 띄울 때마다 만든 IndexedPointcut 이 수거되지 않는다. (JDK-8136353)
+ * ClassIndex 가 static 인 것도 같은 이유다.
+ *
+ * equals/hashCode 는 delegate 와 패키지 집합으로 판단한다. CGLIB 은 어드바이저의 포인트컷이 같아야 프록시 클래스를 재사용하므로,
+ * 컨텍스트를 새로 띄울 때마다 만든 IndexedPointcut 도 서로 같아야 프록시 클래스를 다시 생성하지 않는다.
+ */
+public class IndexedPointcut implements Pointcut, ClassFilter, MethodMatcher {
+
+    private final Pointcut delegate;
+    private final PackagePrefixTrie packages;
+    private final Set<String> packagePrefixes;
+
+    private final ConcurrentMap<Class<?>, ClassIndex> index = new ConcurrentReferenceHashMap<>();
+
+    public IndexedPointcut(Pointcut delegate, String... packagePrefixes) {
+        this.delegate = delegate;
+        this.packages = new PackagePrefixTrie(packagePrefixes);
+        this.packagePrefixes = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(packagePrefixes)));
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return this;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        return classIndex(clazz).eligible;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        if (targetClass == null) {
+            return delegate.getMethodMatcher().matches(method, null);
+        }
+        return classIndex(targetClass).matches(method, delegate.getMethodMatcher());
+    }
+
+    private ClassIndex classIndex(Class<?> type) {
+        ClassIndex classIndex = index.get(type);
+        if (classIndex == null) {
+            boolean eligible = packages.matches(type) && delegate.getClassFilter().matches(type);
+            ClassIndex existing = index.putIfAbsent(type, classIndex = new ClassIndex(type, eligible));
+            if (existing != null) {
+                classIndex = existing;
+            }
+        }
+        return classIndex;
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return delegate.getMethodMatcher().isRuntime();
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, Object... args) {
+        return delegate.getMethodMatcher().matches(method, targetClass, args);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IndexedPointcut)) {
+            return false;
+        }
+        IndexedPointcut that = (IndexedPointcut) other;
+        return delegate.equals(that.delegate) && packagePrefixes.equals(that.packagePrefixes);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode() * 31 + packagePrefixes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + delegate + " " + packagePrefixes;
+    }
+
+    private static class ClassIndex {
+        private final Class<?> type;
+        private final boolean eligible;
+        private final ConcurrentMap<Method, Boolean> methods = new ConcurrentHashMap<>();
+
+        ClassIndex(Class<?> type, boolean eligible) {
+            this.type = type;
+            this.eligible = eligible;
+        }
+
+        boolean matches(Method method, MethodMatcher matcher) {
+            if (!eligible) {
+                return false;
+            }
+            Boolean matched = methods.get(method);
+            if (matched == null) {
+                matched = matcher.matches(method, type);
+                Boolean existing = methods.putIfAbsent(method, matched);
+                if (existing != null) {
+                    matched = existing;
+                }
+            }
+            return matched;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package hello.proxy.pointcut;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 패키지 이름을 '.' 단위로 나눈 트라이
+ * 클래스가 등록한 패키지 중 하나 또는 그 하위 패키지에 있는지 패키지 깊이만큼만 비교해서 판단한다.
+ *
+ * String.startsWith 와 달리 패키지 경계를 지킨다.
+ *   add("hello.proxy.app") 일 때
+ *   hello.proxy.app.v1.OrderControllerV1 -> true
+ *   hello.proxy.application.Foo -> false
+ */
+public class PackagePrefixTrie {
+
+    private final Node root = new Node();
+
+    public PackagePrefixTrie(String... packagePrefixes) {
+        for (String packagePrefix : packagePrefixes) {
+            add(packagePrefix);
+        }
+    }
+
+    public void add(String packagePrefix) {
+        Node node = root;
+        for (String segment : packagePrefix.split("\\.")) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * className 의 패키지가 등록한 패키지이거나 그 하위 패키지이면 true
+     */
+    public boolean matches(String className) {
+        int packageEnd = className.lastIndexOf('.');
+        if (packageEnd < 0) {
+            return root.terminal;
+        }
+        Node node = root;
+        int start = 0;
+        while (start <= packageEnd) {
+            if (node.terminal) {
+                return true;
+            }
+            int end = className.indexOf('.', start);
+            node = node.children.get(className.substring(start, end));
+            if (node == null) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return node.terminal;
+    }
+
+    public boolean matches(Class<?> type) {
+        return matches(type.getName());
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,60 @@
+package hello.proxy.singleadvice;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+
+/**
+ * SingleAdviceAopProxy 가 스레드별로 재사용하는 MethodInvocation
+ * proceed() 는 인터셉터 목록 없이 바로 target 을 호출한다. (MethodProxy, 리플렉션 없음)
+ */
+class ReusableMethodInvocation implements MethodInvocation {
+
+    private Object target;
+    private Method method;
+    private Object[] arguments;
+    private MethodProxy methodProxy;
+
+    void reuse(Object target, Method method, Object[] arguments, MethodProxy methodProxy) {
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments;
+        this.methodProxy = methodProxy;
+    }
+
+    void clear() {
+        reuse(null, null, null, null);
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return methodProxy.invoke(target, arguments);
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    @Override
+    public AccessibleObject getStaticPart() {
+        return method;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusableMethodInvocation: " + method + "; target is of class [" + (target == null ? null : target.getClass().getName()) + "]";
+    }
+}
@@ -0,0 +1,281 @@
+package hello.proxy.singleadvice;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 어드바이스(MethodInterceptor) 하나만 적용하는 CGLIB 프록시
+ *
+ * 스프링의 CglibAopProxy 는 호출마다 ReflectiveMethodInvocation(CglibMethodInvocation)을 만들고 인터셉터 목록을 따라간다.
+ * SingleAdviceAopProxy 는 메서드마다 어떤 콜백을 쓸지 프록시 클래스를 만들 때 정해둔다.
+ *   - 포인트컷에 맞는 메서드 : AdviceCallback, 스레드별로 재사용하는 ReusableMethodInvocation 으로 어드바이스를 호출한다.
+ *     target 은 리플렉션이 아니라 MethodProxy(FastClass)로 직접 호출한다.
+ *   - 포인트컷에 맞지 않는 메서드 : Dispatcher, 프록시 클래스가 target 의 메서드를 바로 호출한다.
+ *   - Advised 메서드 : 프록시 설정(AdvisedSupport)으로 보낸다.
+ *   - equals/hashCode : 스프링 프록시와 같이 같은 설정(인터페이스, 어드바이저, target)의 프록시끼리 같다. (AopProxyUtils.equalsInProxy)
+ * 메서드가 선언하지 않은 checked 예외를 어드바이스가 던지면 스프링 CGLIB 프록시와 같이 UndeclaredThrowableException 으로 감싼다.
+ *
+ * 프록시 클래스는 (대상 클래스, 어드바이스를 적용할 메서드 집합)이 같으면 재사용한다. 포인트컷 인스턴스가 달라도 된다.
+ *
+ * 주의: 어드바이스에 넘긴 MethodInvocation 은 재사용되므로 invoke() 가 끝난 뒤에 보관하거나 다른 스레드에서 proceed() 하면 안된다.
+ */
+class SingleAdviceAopProxy implements AopProxy {
+
+    private static final int ADVICE = 0;
+    private static final int TARGET = 1;
+    private static final int ADVISED = 2;
+    private static final int EQUALS = 3;
+    private static final int NO_OVERRIDE = 4;
+
+    private static final SpringObjenesis objenesis = new SpringObjenesis();
+
+    private final AdvisedSupport config;
+
+    SingleAdviceAopProxy(AdvisedSupport config) {
+        this.config = config;
+    }
+
+    @Override
+    public Object getProxy() {
+        return getProxy(null);
+    }
+
+    @Override
+    public Object getProxy(ClassLoader classLoader) {
+        Class<?> targetClass = config.getTargetClass();
+        Object target;
+        try {
+            target = config.getTargetSource().getTarget();
+        } catch (Exception e) {
+            throw new AopConfigException("target 을 가져올 수 없습니다. targetClass=" + targetClass.getName(), e);
+        }
+        PointcutAdvisor advisor = (PointcutAdvisor) config.getAdvisors()[0];
+
+        Class<?>[] interfaces = AopProxyUtils.completeProxiedInterfaces(config);
+
+        Enhancer enhancer = new Enhancer();
+        if (classLoader != null) {
+            enhancer.setClassLoader(classLoader);
+        }
+        enhancer.setSuperclass(targetClass);
+        enhancer.setInterfaces(interfaces);
+        enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+        enhancer.setCallbackFilter(new AdvisedMethodFilter(targetClass, interfaces, advisor));
+        enhancer.setCallbackTypes(new Class<?>[]{MethodInterceptor.class, Dispatcher.class, Dispatcher.class, MethodInterceptor.class, NoOp.class});
+        Class<?> proxyClass = enhancer.createClass();
+
+        Object proxy = newInstance(proxyClass, enhancer.getUseCache());
+        ((Factory) proxy).setCallbacks(new Callback[]{
+                new AdviceCallback(target, (org.aopalliance.intercept.MethodInterceptor) advisor.getAdvice()),
+                (Dispatcher) () -> target,
+                (Dispatcher) () -> config,
+                new EqualsHashCodeCallback(config),
+                NoOp.INSTANCE
+        });
+        return proxy;
+    }
+
+    private static Object newInstance(Class<?> proxyClass, boolean useCache) {
+        if (objenesis.isWorthTrying()) {
+            try {
+                return objenesis.newInstance(proxyClass, useCache);
+            } catch (Throwable ex) {
+                // 기본 생성자로 다시 시도
+            }
+        }
+        try {
+            return ReflectionUtils.accessibleConstructor(proxyClass).newInstance();
+        } catch (Throwable ex) {
+            throw new AopConfigException("프록시 인스턴스를 만들 수 없습니다. Objenesis 를 쓸 수 없으면 기본 생성자가 필요합니다. proxyClass=" + proxyClass.getName(), ex);
+        }
+    }
+
+    /**
+     * 메서드별 콜백 선택, 어드바이스 적용 여부는 프록시 클래스를 만들 때 한 번만 판단한다.
+     * equals/hashCode 는 CGLIB 가 프록시 클래스를 재사용할지 판단할 때 쓴다.
+     * 그래서 advised 는 CGLIB 가 accept() 로 묻는 메서드 전체(Enhancer.getMethods, protected 포함)에 대해 만든다.
+     */
+    private static class AdvisedMethodFilter implements CallbackFilter {
+
+        private final Class<?> targetClass;
+        private final PointcutAdvisor advisor;
+        private final BitSet advised = new BitSet();
+
+        @SuppressWarnings("unchecked")
+        AdvisedMethodFilter(Class<?> targetClass, Class<?>[] interfaces, PointcutAdvisor advisor) {
+            this.targetClass = targetClass;
+            this.advisor = advisor;
+            List<Method> methods = new ArrayList<>();
+            Enhancer.getMethods(targetClass, interfaces, methods);
+            methods.sort(Comparator.comparing(Method::toString));
+            for (int i = 0; i < methods.size(); i++) {
+                if (isAdvised(methods.get(i))) {
+                    advised.set(i);
+                }
+            }
+        }
+
+        @Override
+        public int accept(Method method) {
+            if (AopUtils.isFinalizeMethod(method)) {
+                return NO_OVERRIDE;
+            }
+            if (method.getDeclaringClass().isInterface() && method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+                return ADVISED;
+            }
+            if (AopUtils.isEqualsMethod(method) || AopUtils.isHashCodeMethod(method)) {
+                return EQUALS;
+            }
+            return isAdvised(method) ? ADVICE : TARGET;
+        }
+
+        private boolean isAdvised(Method method) {
+            return !ReflectionUtils.isObjectMethod(method)
+                    && advisor.getPointcut().getClassFilter().matches(targetClass)
+                    && advisor.getPointcut().getMethodMatcher().matches(method, targetClass);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AdvisedMethodFilter)) {
+                return false;
+            }
+            AdvisedMethodFilter other = (AdvisedMethodFilter) o;
+            return targetClass == other.targetClass && advised.equals(other.advised);
+        }
+
+        @Override
+        public int hashCode() {
+            return targetClass.hashCode() * 31 + advised.hashCode();
+        }
+    }
+
+    /**
+     * 포인트컷에 맞는 메서드의 호출, 어드바이스 하나만 호출하므로 인터셉터 목록을 따라가지 않는다.
+     */
+    private static class AdviceCallback implements MethodInterceptor {
+
+        private static final ThreadLocal<InvocationFrames> frames = ThreadLocal.withInitial(InvocationFrames::new);
+
+        private final Object target;
+        private final org.aopalliance.intercept.MethodInterceptor advice;
+
+        AdviceCallback(Object target, org.aopalliance.intercept.MethodInterceptor advice) {
+            this.target = target;
+            this.advice = advice;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            InvocationFrames frames = AdviceCallback.frames.get();
+            ReusableMethodInvocation invocation = frames.push(target, method, args, methodProxy);
+            Object result;
+            try {
+                result = advice.invoke(invocation);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                if (ReflectionUtils.declaresException(method, ex.getClass())) {
+                    throw ex;
+                }
+                throw new UndeclaredThrowableException(ex);
+            } finally {
+                frames.pop();
+            }
+            return processReturnType(proxy, method, result);
+        }
+
+        private Object processReturnType(Object proxy, Method method, Object result) {
+            Class<?> returnType = method.getReturnType();
+            if (result != null && result == target && returnType != Object.class && returnType.isInstance(proxy)) {
+                return proxy; // target 이 자기 자신(this)을 반환하면 프록시로 바꾼다.
+            }
+            if (result == null && returnType != void.class && returnType.isPrimitive()) {
+                throw new AopInvocationException("어드바이스가 null 을 반환했지만 기본 타입을 반환하는 메서드입니다. method=" + method);
+            }
+            return result;
+        }
+    }
+
+    private static class EqualsHashCodeCallback implements MethodInterceptor {
+
+        private final AdvisedSupport config;
+
+        EqualsHashCodeCallback(AdvisedSupport config) {
+            this.config = config;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) {
+            if (AopUtils.isHashCodeMethod(method)) {
+                return SingleAdviceAopProxy.class.hashCode() * 13 + config.getTargetSource().hashCode();
+            }
+            Object other = args[0];
+            if (proxy == other) {
+                return true;
+            }
+            if (other instanceof Factory) {
+                Callback callback = ((Factory) other).getCallback(EQUALS);
+                if (callback instanceof EqualsHashCodeCallback) {
+                    return AopProxyUtils.equalsInProxy(config, ((EqualsHashCodeCallback) callback).config);
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 스레드별 ReusableMethodInvocation 스택, 프록시 안에서 다른 프록시를 호출하면 깊이마다 다른 객체를 쓴다.
+     */
+    private static class InvocationFrames {
+
+        private ReusableMethodInvocation[] frames = new ReusableMethodInvocation[16];
+        private int depth;
+
+        ReusableMethodInvocation push(Object target, Method method, Object[] args, MethodProxy methodProxy) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            ReusableMethodInvocation invocation = frames[depth];
+            if (invocation == null) {
+                invocation = new ReusableMethodInvocation();
+                frames[depth] = invocation;
+            }
+            depth++;
+            invocation.reuse(target, method, args, methodProxy);
+            return invocation;
+        }
+
+        void pop() {
+            frames[--depth].clear();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package hello.proxy.singleadvice;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * 어드바이스가 MethodInterceptor 하나뿐인 프록시는 SingleAdviceAopProxy 로 만들고, 나머지는 delegate 에 맡긴다.
+ *
+ * SingleAdviceAopProxy 를 쓰는 조건
+ *   - frozen : 만든 뒤에 어드바이저가 바뀌지 않는다. (ProxyBlueprint, freeze 된 자동 프록시 생성기)
+ *   - 어드바이저 1개, PointcutAdvisor, 어드바이스가 MethodInterceptor (LogTraceAdvice 등)
+ *     AspectJ 어드바이스(@Aspect)는 ProxyMethodInvocation 이 필요하므로 제외
+ *   - 포인트컷이 런타임(인자) 매칭을 하지 않는다.
+ *   - 대상이 static TargetSource, exposeProxy 를 쓰지 않는다.
+ *   - 대상 클래스를 상속할 수 있다. (final, 이미 프록시인 클래스 제외)
+ *   - proxyTargetClass 이거나 대상에 인터페이스가 없다. 스프링이었다면 CGLIB 프록시를 만들었을 경우만 바꾼다.
+ *     인터페이스가 있는데 CGLIB 으로 만들면 대상 클래스의 메서드까지 프록시에 노출되어 스프링과 동작이 달라진다.
+ */
+public class SingleAdviceAopProxyFactory implements AopProxyFactory {
+
+    private final AopProxyFactory delegate;
+
+    public SingleAdviceAopProxyFactory() {
+        this(new DefaultAopProxyFactory());
+    }
+
+    public SingleAdviceAopProxyFactory(AopProxyFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AopProxy createAopProxy(AdvisedSupport config) throws AopConfigException {
+        if (supports(config)) {
+            return new SingleAdviceAopProxy(config);
+        }
+        return delegate.createAopProxy(config);
+    }
+
+    public static boolean supports(AdvisedSupport config) {
+        if (!config.isFrozen() || config.isExposeProxy() || !config.getTargetSource().isStatic()) {
+            return false;
+        }
+        if (!config.isProxyTargetClass() && hasUserSuppliedProxyInterfaces(config)) {
+            return false; // 스프링은 JDK 동적 프록시를 만든다.
+        }
+        Advisor[] advisors = config.getAdvisors();
+        if (advisors.length != 1 || !(advisors[0] instanceof PointcutAdvisor) || advisors[0] instanceof IntroductionAdvisor) {
+            return false;
+        }
+        Advice advice = advisors[0].getAdvice();
+        if (!(advice instanceof MethodInterceptor) || advice instanceof AbstractAspectJAdvice) {
+            return false;
+        }
+        if (((PointcutAdvisor) advisors[0]).getPointcut().getMethodMatcher().isRuntime()) {
+            return false;
+        }
+        Class<?> targetClass = config.getTargetClass();
+        return targetClass != null && !targetClass.isInterface() && !Modifier.isFinal(targetClass.getModifiers())
+                && !targetClass.getName().contains(ClassUtils.CGLIB_CLASS_SEPARATOR) && !Proxy.isProxyClass(targetClass);
+    }
+
+    private static boolean hasUserSuppliedProxyInterfaces(AdvisedSupport config) {
+        Class<?>[] interfaces = config.getProxiedInterfaces();
+        return interfaces.length > 1 || (interfaces.length == 1 && !SpringProxy.class.isAssignableFrom(interfaces[0]));
+    }
+}
@@ -0,0 +1,34 @@
+package hello.proxy.startup;
+
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * 자동 프록시 생성기(AnnotationAwareAspectJAutoProxyCreator)가 만드는 ProxyFactory 에 AopProxyFactory 빈을 넣는다.
+ * 스프링 부트가 등록한 자동 프록시 생성기 빈의 클래스를 ProxyStartupConfig 가 이 클래스로 바꾼다.
+ * 그래서 AutoProxyConfig, AopConfig 의 프록시도 클래스 캐시(ProxyClassCache)와 생성 시간 기록(StartupRecordingAopProxyFactory)을 거친다.
+ */
+public class AopProxyFactoryAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator {
+
+    private volatile AopProxyFactory aopProxyFactory;
+
+    @Override
+    protected void customizeProxyFactory(ProxyFactory proxyFactory) {
+        AopProxyFactory aopProxyFactory = aopProxyFactory();
+        if (aopProxyFactory != null) {
+            proxyFactory.setAopProxyFactory(aopProxyFactory);
+        }
+    }
+
+    private AopProxyFactory aopProxyFactory() {
+        AopProxyFactory aopProxyFactory = this.aopProxyFactory;
+        BeanFactory beanFactory = getBeanFactory();
+        if (aopProxyFactory == null && beanFactory != null) {
+            aopProxyFactory = beanFactory.getBeanProvider(AopProxyFactory.class).getIfAvailable();
+            this.aopProxyFactory = aopProxyFactory;
+        }
+        return aopProxyFactory;
+    }
+}
@@ -0,0 +1,114 @@
+package hello.proxy.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 빈 후처리(postProcessAfterInitialization) 구간 시간을 ApplicationStartup 의 proxy.post-process 단계로 기록한다.
+ *   tag : beanName, proxied(후처리 결과가 원본과 다른 객체인지)
+ *
+ * 스프링은 빈 후처리기를 PriorityOrdered, Ordered, 순서 없음, MergedBeanDefinitionPostProcessor 순으로 호출한다.
+ *   - Start : PriorityOrdered 가장 앞, 구간 시작
+ *   - End : MergedBeanDefinitionPostProcessor 라서 맨 뒤로 옮겨진다, 구간 끝
+ * 그래서 그 사이에 있는 자동 프록시 생성기, PackageLogTracePostProcessor 의 프록시 생성이 모두 구간에 들어간다.
+ * 후처리 중에 다른 빈이 만들어질 수 있으므로(어드바이저 빈 등) 스레드마다 스택으로 관리한다.
+ * 빈 후처리기를 등록하는 도중에 만들어지는 빈은 End 를 거치지 않으므로 End 가 등록된 이후부터 기록한다.
+ */
+public final class PostProcessTimingBeanPostProcessors {
+
+    public static final String STEP_NAME = "proxy.post-process";
+
+    private static final ThreadLocal<Deque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private PostProcessTimingBeanPostProcessors() {
+    }
+
+    public static class Start implements BeanPostProcessor, PriorityOrdered, BeanFactoryAware {
+
+        private final ApplicationStartup applicationStartup;
+        private AbstractBeanFactory beanFactory;
+        private volatile boolean endRegistered;
+
+        public Start(ApplicationStartup applicationStartup) {
+            this.applicationStartup = applicationStartup;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            this.beanFactory = (AbstractBeanFactory) beanFactory;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!endRegistered) {
+                endRegistered = beanFactory.getBeanPostProcessors().stream().anyMatch(End.class::isInstance);
+                if (!endRegistered) {
+                    return bean;
+                }
+            }
+            StartupStep step = applicationStartup.start(STEP_NAME).tag("beanName", beanName);
+            FRAMES.get().push(new Frame(beanName, bean, step));
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * MergedBeanDefinitionPostProcessor 는 맨 뒤에 두려고 구현한다. (postProcessMergedBeanDefinition 은 아무것도 하지 않는다)
+     * 이 위치는 공개 계약이 아니라 PostProcessorRegistrationDelegate.registerBeanPostProcessors() 의 구현에 기댄다.
+     * 스프링은 MergedBeanDefinitionPostProcessor(internal) 를 한 번 더 등록해서 순서 없음 그룹 뒤로 옮긴다. (5.3 기준)
+     * Ordered.LOWEST_PRECEDENCE 로는 같은 위치를 얻을 수 없다. Ordered 그룹은 순서 없음 그룹(PackageLogTracePostProcessor 등)보다 먼저 호출된다.
+     * 스프링을 올릴 때는 PostProcessTimingBeanPostProcessorsTest 로 순서 없는 후처리기가 구간 안에 들어가는지 확인한다.
+     */
+    public static class End implements MergedBeanDefinitionPostProcessor {
+
+        @Override
+        public void postProcessMergedBeanDefinition(RootBeanDefinition beanDefinition, Class<?> beanType, String beanName) {
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            Deque<Frame> frames = FRAMES.get();
+            while (!frames.isEmpty()) {
+                Frame frame = frames.pop();
+                if (frame.beanName.equals(beanName)) {
+                    frame.step.tag("proxied", String.valueOf(frame.bean != bean)).end();
+                    break;
+                }
+                frame.step.tag("proxied", "unknown").end(); // 중간 후처리기가 null 을 반환해서 끝 표시를 못 받은 구간
+            }
+            if (frames.isEmpty()) {
+                FRAMES.remove();
+            }
+            return bean;
+        }
+    }
+
+    private static class Frame {
+        private final String beanName;
+        private final Object bean;
+        private final StartupStep step;
+
+        Frame(String beanName, Object bean, StartupStep step) {
+            this.beanName = beanName;
+            this.bean = bean;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.proxy.startup;
+
+import hello.proxy.config.ProxyStrategySelector;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 기동 시간 리포트 조회, 예) /startup?top=20
+ * ProxyApplication.main() 처럼 BufferingApplicationStartup 으로 기동했을 때만 기록이 있다.
+ */
+@RestController
+public class StartupController {
+
+    private final ApplicationStartup applicationStartup;
+    private final Environment environment;
+
+    public StartupController(ApplicationStartup applicationStartup, Environment environment) {
+        this.applicationStartup = applicationStartup;
+        this.environment = environment;
+    }
+
+    @GetMapping(value = "/startup", produces = "text/plain; charset=utf-8")
+    public String startup(@RequestParam(defaultValue = "10") int top) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            return "BufferingApplicationStartup 으로 기동하지 않아서 기록이 없습니다.\n";
+        }
+        BufferingApplicationStartup buffering = (BufferingApplicationStartup) applicationStartup;
+        return new StartupReport(ProxyStrategySelector.strategy(environment), buffering.getBufferedTimeline()).render(top);
+    }
+}
@@ -0,0 +1,52 @@
+package hello.proxy.startup;
+
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * 프록시 생성(클래스 생성 + 인스턴스 생성) 시간을 ApplicationStartup 의 proxy.create 단계로 기록한다.
+ *   tag : targetClass, type(jdk/cglib)
+ * 실제 생성은 delegate(DefaultAopProxyFactory 또는 CachingAopProxyFactory)에 맡긴다.
+ */
+public class StartupRecordingAopProxyFactory implements AopProxyFactory {
+
+    public static final String STEP_NAME = "proxy.create";
+
+    private final AopProxyFactory delegate;
+    private final ApplicationStartup applicationStartup;
+
+    public StartupRecordingAopProxyFactory(AopProxyFactory delegate, ApplicationStartup applicationStartup) {
+        this.delegate = delegate;
+        this.applicationStartup = applicationStartup;
+    }
+
+    @Override
+    public AopProxy createAopProxy(AdvisedSupport config) throws AopConfigException {
+        AopProxy aopProxy = delegate.createAopProxy(config);
+        Class<?> targetClass = config.getTargetClass();
+        return new AopProxy() {
+            @Override
+            public Object getProxy() {
+                return getProxy(null);
+            }
+
+            @Override
+            public Object getProxy(ClassLoader classLoader) {
+                StartupStep step = applicationStartup.start(STEP_NAME)
+                        .tag("targetClass", targetClass == null ? "?" : targetClass.getName());
+                try {
+                    Object proxy = classLoader == null ? aopProxy.getProxy() : aopProxy.getProxy(classLoader);
+                    step.tag("type", AopUtils.isCglibProxy(proxy) ? "cglib" : "jdk");
+                    return proxy;
+                } finally {
+                    step.end();
+                }
+            }
+        };
+    }
+}
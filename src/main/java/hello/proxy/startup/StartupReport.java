@@ -0,0 +1,164 @@
+package hello.proxy.startup;
+
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BufferingApplicationStartup 에 쌓인 기동 단계를 프록시 방식 비교용 표로 정리한다.
+ *
+ *   - spring.context.refresh : 컨텍스트 refresh 전체 시간
+ *   - spring.beans.instantiate : 빈 생성 시간, 안에서 만든 다른 빈 시간을 뺀 self 시간 기준으로 정렬
+ *   - proxy.post-process : 빈 후처리 구간 시간 (PostProcessTimingBeanPostProcessors)
+ *   - proxy.create : ProxyFactory 프록시 생성 시간 (StartupRecordingAopProxyFactory)
+ *
+ * ProxyFactory 를 쓰지 않는 방식(InterfaceProxyConfig, DynamicProxy*Config 등)은 프록시 생성이 빈 생성 시간에 들어간다.
+ */
+public class StartupReport {
+
+    private static final String REFRESH = "spring.context.refresh";
+    private static final String INSTANTIATE = "spring.beans.instantiate";
+
+    private final String strategy;
+    private final long refreshNanos;
+    private final List<Row> beans = new ArrayList<>();
+    private final List<Row> postProcesses = new ArrayList<>();
+    private final List<Row> proxies = new ArrayList<>();
+
+    public StartupReport(String strategy, StartupTimeline timeline) {
+        this.strategy = strategy;
+        List<TimelineEvent> events = timeline.getEvents();
+
+        Map<Long, Long> childInstantiateNanos = new HashMap<>();
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (INSTANTIATE.equals(step.getName()) && step.getParentId() != null) {
+                childInstantiateNanos.merge(step.getParentId(), event.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        long refresh = 0;
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            long nanos = event.getDuration().toNanos();
+            switch (step.getName()) {
+                case REFRESH:
+                    refresh += nanos;
+                    break;
+                case INSTANTIATE:
+                    long selfNanos = nanos - childInstantiateNanos.getOrDefault(step.getId(), 0L);
+                    beans.add(new Row(tag(step, "beanName"), null, selfNanos, nanos));
+                    break;
+                case PostProcessTimingBeanPostProcessors.STEP_NAME:
+                    postProcesses.add(new Row(tag(step, "beanName"), tag(step, "proxied"), nanos, nanos));
+                    break;
+                case StartupRecordingAopProxyFactory.STEP_NAME:
+                    proxies.add(new Row(tag(step, "targetClass"), tag(step, "type"), nanos, nanos));
+                    break;
+                default:
+                    break;
+            }
+        }
+        this.refreshNanos = refresh;
+        Comparator<Row> slowest = Comparator.comparingLong((Row row) -> row.selfNanos).reversed();
+        beans.sort(slowest);
+        postProcesses.sort(slowest);
+        proxies.sort(slowest);
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals(key)) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getRefreshNanos() {
+        return refreshNanos;
+    }
+
+    public int getBeanCount() {
+        return beans.size();
+    }
+
+    public long getPostProcessNanos() {
+        return sum(postProcesses);
+    }
+
+    public long getProxiedCount() {
+        return postProcesses.stream().filter(row -> "true".equals(row.detail)).count();
+    }
+
+    public int getProxyCount() {
+        return proxies.size();
+    }
+
+    public long getProxyCreationNanos() {
+        return sum(proxies);
+    }
+
+    /**
+     * 항목마다 느린 순서로 top 개씩 보여준다.
+     */
+    public String render(int top) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("strategy=").append(strategy).append('\n');
+        sb.append("context refresh ").append(ms(refreshNanos)).append('\n');
+
+        sb.append("bean creation beans=").append(beans.size())
+                .append(" self total=").append(ms(sum(beans))).append('\n');
+        for (Row row : beans.subList(0, Math.min(top, beans.size()))) {
+            sb.append("  ").append(row.name).append(" self=").append(ms(row.selfNanos)).append(" total=").append(ms(row.totalNanos)).append('\n');
+        }
+
+        sb.append("post-processing beans=").append(postProcesses.size()).append(" proxied=").append(getProxiedCount())
+                .append(" total=").append(ms(getPostProcessNanos())).append('\n');
+        for (Row row : postProcesses.subList(0, Math.min(top, postProcesses.size()))) {
+            sb.append("  ").append(row.name).append(" proxied=").append(row.detail).append(' ').append(ms(row.totalNanos)).append('\n');
+        }
+
+        sb.append("proxy creation proxies=").append(proxies.size())
+                .append(" cglib=").append(proxies.stream().filter(row -> "cglib".equals(row.detail)).count())
+                .append(" jdk=").append(proxies.stream().filter(row -> "jdk".equals(row.detail)).count())
+                .append(" total=").append(ms(getProxyCreationNanos())).append('\n');
+        for (Row row : proxies.subList(0, Math.min(top, proxies.size()))) {
+            sb.append("  ").append(row.name).append(' ').append(row.detail).append(' ').append(ms(row.totalNanos)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static long sum(List<Row> rows) {
+        return rows.stream().mapToLong(row -> row.selfNanos).sum();
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static class Row {
+        private final String name;
+        private final String detail;
+        private final long selfNanos;
+        private final long totalNanos;
+
+        Row(String name, String detail, long selfNanos, long totalNanos) {
+            this.name = name;
+            this.detail = detail;
+            this.selfNanos = selfNanos;
+            this.totalNanos = totalNanos;
+        }
+    }
+}
@@ -1,32 +1,101 @@
 package hello.proxy.trace;
 
-import java.util.UUID;
+import hello.proxy.trace.id.SequenceTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
 
+import java.util.Objects;
+
+/**
+ * ID 는 64비트 원시 값(long)으로 보관하고, 로그에 출력할 때(getId) 한 번만 hex 문자열로 바꾼다.
+ * ID 생성 방식은 setGenerator() 로 바꿀 수 있다. 기본값은 SequenceTraceIdGenerator 이다.
+ * 애플리케이션에서는 LogTraceConfig 가 trace.id.generator(sequence, uuid) 값으로 설정한다.
+ *
+ * 샘플링되지 않은 요청은 notSampled() 를 사용한다. 깊이별로 미리 만들어 둔 인스턴스를 공유하므로
+ * createNextId()/createPreviousId() 를 호출해도 객체를 새로 만들지 않는다.
+ */
 public class TraceId {
 
-    private String id;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String NOT_SAMPLED_ID = "-";
+    private static final TraceId[] NOT_SAMPLED = new TraceId[64];
+
+    static {
+        for (int level = 0; level < NOT_SAMPLED.length; level++) {
+            NOT_SAMPLED[level] = new TraceId(0, NOT_SAMPLED_ID, level, false);
+        }
+    }
+
+    private static volatile TraceIdGenerator generator = new SequenceTraceIdGenerator();
+
+    private long id;
+    private String hexId; // getId() 시점에 만든다.
     private int level;
+    private boolean sampled = true;
 
     public TraceId() {
         this.id = createId();
         this.level = 0;
     }
 
-    private TraceId(String id, int level) {
+    private TraceId(long id, String hexId, int level) {
+        this.id = id;
+        this.hexId = hexId;
+        this.level = level;
+    }
+
+    private TraceId(long id, String hexId, int level, boolean sampled) {
+        this(id, hexId, level);
+        this.sampled = sampled;
+    }
+
+    /**
+     * 샘플링되지 않은 루트 TraceId
+     */
+    public static TraceId notSampled() {
+        return NOT_SAMPLED[0];
+    }
+
+    private static TraceId notSampled(int level) {
+        return level < NOT_SAMPLED.length ? NOT_SAMPLED[level] : new TraceId(0, NOT_SAMPLED_ID, level, false);
+    }
+
+    /**
+     * 재사용하는 TraceId 의 값을 바꾼다. 루트는 nextIdValue() 로 받은 새 ID 를, 하위 깊이는 루트의 ID 를 넘긴다.
+     */
+    protected void reuse(long id, int level) {
         this.id = id;
+        this.hexId = null;
         this.level = level;
     }
 
-    private String createId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * 새 루트 트레이스 ID 값, new TraceId() 와 같은 생성기를 쓴다.
+     */
+    protected static long nextIdValue() {
+        return generator.nextId();
+    }
+
+    public static void setGenerator(TraceIdGenerator generator) {
+        TraceId.generator = Objects.requireNonNull(generator, "generator");
+    }
+
+    private long createId() {
+        return generator.nextId();
     }
 
     public TraceId createNextId() {
-        return new TraceId(id, level + 1);
+        if (!sampled) {
+            return notSampled(level + 1);
+        }
+        return new TraceId(id, hexId, level + 1);
     }
 
     public TraceId createPreviousId() {
-        return new TraceId(id, level - 1);
+        if (!sampled) {
+            return notSampled(level - 1);
+        }
+        return new TraceId(id, hexId, level - 1);
     }
 
     public boolean isFirstLevel() {
@@ -34,10 +103,36 @@ public class TraceId {
     }
 
     public String getId() {
+        String hexId = this.hexId;
+        if (hexId == null) {
+            hexId = toHexString(id);
+            this.hexId = hexId; // 경합이 나도 같은 값이므로 문제 없다.
+        }
+        return hexId;
+    }
+
+    public long getIdValue() {
         return id;
     }
 
     public int getLevel() {
         return level;
     }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * 상위 32비트가 비어 있으면(기존 UUID 방식) 8자리, 아니면 16자리 hex 로 만든다.
+     */
+    public static String toHexString(long id) {
+        int digits = (id >>> 32) == 0 ? 8 : 16;
+        char[] chars = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
 }
@@ -3,19 +3,43 @@ package hello.proxy.trace;
 public class TraceStatus {
 
     private TraceId traceId;
-    private Long startTimeMs;
+    private long startTimeMs;
+    private long startTimeNanos; // 경과 시간 측정용 System.nanoTime()
     private String message;
 
-    public TraceStatus(TraceId traceId, Long startTimeMs, String message) {
+    public TraceStatus(TraceId traceId, long startTimeMs, String message) {
         this.traceId = traceId;
         this.startTimeMs = startTimeMs;
         this.message = message;
     }
 
-    public Long getStartTimeMs() {
+    public TraceStatus(TraceId traceId, long startTimeMs, long startTimeNanos, String message) {
+        this.traceId = traceId;
+        this.startTimeMs = startTimeMs;
+        this.startTimeNanos = startTimeNanos;
+        this.message = message;
+    }
+
+    /**
+     * 풀에서 재사용하는 TraceStatus 를 위한 생성자, reuse() 로 값을 채운다.
+     */
+    protected TraceStatus() {
+    }
+
+    protected void reuse(TraceId traceId, long startTimeMs, String message) {
+        this.traceId = traceId;
+        this.startTimeMs = startTimeMs;
+        this.message = message;
+    }
+
+    public long getStartTimeMs() {
         return startTimeMs;
     }
 
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -0,0 +1,12 @@
+package hello.proxy.trace.async;
+
+/**
+ * 링 버퍼가 가득 찼을 때의 처리 정책
+ *
+ * DROP : 이벤트를 버리고 dropped 카운터만 올린다. 요청 스레드는 절대 기다리지 않는다.
+ * BLOCK : 백그라운드 스레드가 자리를 비울 때까지 요청 스레드가 잠깐씩 park 하면서 기다린다. 로그 유실은 없지만 지연이 생길 수 있다.
+ */
+public enum OverflowPolicy {
+    DROP,
+    BLOCK
+}
@@ -0,0 +1,56 @@
+package hello.proxy.trace.async;
+
+/**
+ * 링 버퍼의 슬롯
+ * 미리 할당해두고 재사용한다. 요청 스레드는 원시 값만 채워 넣고, 문자열 포맷팅은 백그라운드 스레드에서 한다.
+ */
+public class TraceEvent {
+
+    public enum Type {
+        BEGIN, END, EXCEPTION
+    }
+
+    private Type type;
+    private String traceId;
+    private int level;
+    private String message;
+    private long timeMs;
+    private Exception exception;
+
+    void set(Type type, String traceId, int level, String message, long timeMs, Exception exception) {
+        this.type = type;
+        this.traceId = traceId;
+        this.level = level;
+        this.message = message;
+        this.timeMs = timeMs;
+        this.exception = exception;
+    }
+
+    void clear() {
+        set(null, null, 0, null, 0, null); // 참조를 끊어서 GC 가 회수할 수 있게 한다.
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+}
@@ -0,0 +1,110 @@
+package hello.proxy.trace.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 크기가 고정된 MPSC(다중 생산자, 단일 소비자) 링 버퍼
+ *
+ * 슬롯(TraceEvent)은 생성 시점에 모두 미리 만들어 두고 재사용한다.
+ * 슬롯마다 sequence 를 두어서 생산자/소비자가 락 없이 슬롯의 상태를 판단한다.
+ *   - sequence == pos : 생산자가 pos 위치에 쓸 수 있다.
+ *   - sequence == pos + 1 : 생산자가 쓰기를 마쳤다. 소비자가 읽을 수 있다.
+ *   - sequence == pos + capacity : 소비자가 읽기를 마쳤다. 다음 바퀴의 생산자가 쓸 수 있다.
+ */
+public class TraceEventRingBuffer {
+
+    private final TraceEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong(); // 생산자가 CAS 로 점유
+    private volatile long head; // 소비자 스레드만 쓴다.
+    private final LongAdder handlerFailureCount = new LongAdder();
+
+    public TraceEventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 제곱수여야 합니다. capacity=" + capacity);
+        }
+        this.slots = new TraceEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new TraceEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 이벤트를 기록한다. 버퍼가 가득 차 있으면 아무것도 하지 않고 false 를 반환한다.
+     */
+    public boolean offer(TraceEvent.Type type, String traceId, int level, String message, long timeMs, Exception exception) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    TraceEvent event = slots[index];
+                    event.set(type, traceId, level, message, timeMs, exception);
+                    sequences.set(index, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // 한 바퀴 전 슬롯을 소비자가 아직 읽지 않았다. (full)
+            } else {
+                pos = tail.get(); // 다른 생산자가 먼저 가져갔다.
+            }
+        }
+    }
+
+    /**
+     * 소비자 스레드 전용, 최대 maxEvents 개를 꺼내서 handler 에 넘긴다.
+     * handler 에 넘긴 TraceEvent 는 재사용되므로 handler 밖으로 참조를 넘기면 안된다.
+     * handler 가 예외를 던져도 그 이벤트만 버리고(getHandlerFailureCount) 계속 꺼낸다. 소비자 스레드가 죽으면 버퍼가 다시 비워지지 않는다.
+     */
+    public int drain(Consumer<TraceEvent> handler, int maxEvents) {
+        long pos = head;
+        int count = 0;
+        while (count < maxEvents) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                break; // 비어 있거나 생산자가 아직 쓰는 중
+            }
+            TraceEvent event = slots[index];
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                handlerFailureCount.increment();
+            } finally {
+                event.clear();
+                sequences.set(index, pos + slots.length);
+                pos++;
+                head = pos;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * handler 가 예외를 던져서 버린 이벤트 수
+     */
+    public long getHandlerFailureCount() {
+        return handlerFailureCount.sum();
+    }
+
+    /**
+     * 아직 소비되지 않은 이벤트 수 (근사값)
+     */
+    public long size() {
+        return Math.max(0, tail.get() - head);
+    }
+}
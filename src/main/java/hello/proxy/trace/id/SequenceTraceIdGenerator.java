@@ -0,0 +1,53 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 64비트 ID = [노드/기동시점 prefix 24비트][시퀀스 40비트]
+ *
+ * 시퀀스는 스레드마다 BLOCK_SIZE 개씩 구간을 받아서 스레드 안에서만 증가시킨다.
+ * 공유 변수(AtomicLong)는 BLOCK_SIZE 번에 한 번만 건드리므로 스레드가 많아도 경합이 거의 없다.
+ * prefix 는 프로세스(pid)와 기동 시각으로 만들어서 노드나 재기동이 달라지면 ID 가 겹치지 않게 한다.
+ */
+public class SequenceTraceIdGenerator implements TraceIdGenerator {
+
+    private static final int SEQUENCE_BITS = 40;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int PREFIX_MASK = (1 << 24) - 1;
+    private static final int BLOCK_SIZE = 1024;
+
+    private final long prefix;
+    private final AtomicLong nextBlock = new AtomicLong();
+    private final ThreadLocal<long[]> threadBlock = ThreadLocal.withInitial(() -> new long[2]); // [next, limit]
+
+    public SequenceTraceIdGenerator() {
+        this(defaultPrefix());
+    }
+
+    public SequenceTraceIdGenerator(int nodePrefix) {
+        int prefix = nodePrefix & PREFIX_MASK;
+        this.prefix = (long) (prefix == 0 ? 1 : prefix) << SEQUENCE_BITS; // 상위 32비트가 0이 되지 않게 한다.
+    }
+
+    @Override
+    public long nextId() {
+        long[] block = threadBlock.get();
+        if (block[0] == block[1]) {
+            long start = nextBlock.getAndIncrement() * BLOCK_SIZE;
+            block[0] = start;
+            block[1] = start + BLOCK_SIZE;
+        }
+        return prefix | (block[0]++ & SEQUENCE_MASK);
+    }
+
+    private static int defaultPrefix() {
+        long seed = ProcessHandle.current().pid() * 0x9E3779B97F4A7C15L ^ System.currentTimeMillis() ^ System.nanoTime();
+        // murmur3 finalizer 로 비트를 섞는다.
+        seed ^= seed >>> 33;
+        seed *= 0xff51afd7ed558ccdL;
+        seed ^= seed >>> 33;
+        seed *= 0xc4ceb9fe1a85ec53L;
+        seed ^= seed >>> 33;
+        return (int) seed;
+    }
+}
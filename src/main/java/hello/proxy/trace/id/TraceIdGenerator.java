@@ -0,0 +1,10 @@
+package hello.proxy.trace.id;
+
+/**
+ * 루트 트레이스의 ID 를 만든다.
+ * ID 는 64비트 원시 값으로만 만들고, 문자열(hex) 변환은 로그를 출력할 때 TraceId 에서 한다.
+ */
+public interface TraceIdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,16 @@
+package hello.proxy.trace.id;
+
+import java.util.UUID;
+
+/**
+ * 기존 방식: UUID.randomUUID().toString().substring(0, 8)
+ * 문자열 앞 8자리는 mostSignificantBits 의 상위 32비트와 같으므로 문자열을 만들지 않고 그 값만 사용한다.
+ * 공유 SecureRandom 을 거치기 때문에 요청이 많으면 경합이 생기고, ID 공간도 32비트 뿐이다. 비교용으로 남겨둔다.
+ */
+public class UuidTraceIdGenerator implements TraceIdGenerator {
+
+    @Override
+    public long nextId() {
+        return UUID.randomUUID().getMostSignificantBits() >>> 32;
+    }
+}
@@ -0,0 +1,69 @@
+package hello.proxy.trace.journal;
+
+/**
+ * 바이너리 트레이스 저널 파일 형식
+ *
+ * 세그먼트 파일(trace-00000001.journal)은 32바이트 헤더 뒤에 32바이트 고정 길이 레코드가 이어진다.
+ * 세그먼트는 미리 segmentSize 만큼 할당해 두므로, 아직 쓰지 않은 영역은 0 으로 채워져 있다.
+ * 레코드 자리는 CAS 로 예약하고 순서 없이 채우므로, 예약만 하고 채우지 못한 자리(쓰다 죽은 스레드 등)가 중간에 남을 수 있다.
+ * 그래서 flush, 세그먼트 교체, close 때 그때까지 예약한 위치(writePosition)를 헤더에 기록한다.
+ * 읽는 쪽은 writePosition 까지는 type 이 0 인 자리를 건너뛰고, 그 뒤(마지막 flush 이후의 꼬리)에서는 type 이 0 인 곳에서 멈춘다.
+ *
+ * 헤더 : magic(int) version(int) recordSize(int) writePosition(int) baseEpochMs(long) baseNanos(long)
+ * 레코드 : type(byte) flags(byte) depth(short) methodId(int) traceId(long) startNanos(long) endNanos(long)
+ *
+ * 메서드 이름은 METHOD 레코드로 한 번만 기록하고 이후에는 methodId 로 참조한다.
+ * METHOD 레코드는 traceId 자리에 이름의 UTF-8 길이를 두고, 레코드 바로 뒤에 이름을 32바이트 단위로 패딩해서 붙인다.
+ * 세그먼트는 독립적으로 읽을 수 있도록 새 세그먼트를 열 때마다 지금까지의 METHOD 레코드를 다시 기록한다.
+ */
+public final class JournalFormat {
+
+    public static final int MAGIC = 0x54524A31; // "TRJ1"
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 32;
+
+    public static final byte TYPE_EMPTY = 0;
+    public static final byte TYPE_BEGIN = 1;
+    public static final byte TYPE_END = 2;
+    public static final byte TYPE_METHOD = 3;
+
+    public static final byte FLAG_ERROR = 1;
+
+    public static final int MAX_METHOD_NAME_BYTES = 8 * 1024;
+
+    static final String SEGMENT_PREFIX = "trace-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    // 헤더 안의 필드 위치
+    static final int WRITE_POSITION_OFFSET = 12;
+
+    // 레코드 안의 필드 위치
+    static final int TYPE_OFFSET = 0;
+    static final int FLAGS_OFFSET = 1;
+    static final int DEPTH_OFFSET = 2;
+    static final int METHOD_ID_OFFSET = 4;
+    static final int TRACE_ID_OFFSET = 8;
+    static final int START_NANOS_OFFSET = 16;
+    static final int END_NANOS_OFFSET = 24;
+
+    private JournalFormat() {
+    }
+
+    static String segmentFileName(long index) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    static boolean isSegmentFileName(String fileName) {
+        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static long segmentIndex(String fileName) {
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static int paddedLength(int length) {
+        return (length + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+    }
+}
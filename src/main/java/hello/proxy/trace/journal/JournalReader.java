@@ -0,0 +1,113 @@
+package hello.proxy.trace.journal;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.TracePrefixes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static hello.proxy.trace.journal.JournalFormat.*;
+
+/**
+ * 저널 디렉토리의 세그먼트를 순서대로 읽어서 ThreadLocalLogTrace 와 같은 형식의 텍스트로 복원한다.
+ *
+ * [0000002a] -->OrderControllerV1.request()
+ * [0000002a] |-->OrderServiceV1.orderItem()
+ * [0000002a] |<--OrderServiceV1.orderItem() time=1003ms
+ * [0000002a] <--OrderControllerV1.request() time=1004ms
+ *
+ * 사용법 : java -cp ... hello.proxy.trace.journal.JournalReader [저널 디렉토리]
+ */
+public class JournalReader {
+
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public void render(Consumer<String> out) throws IOException {
+        for (Path segment : segments()) {
+            renderSegment(segment, out);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> isSegmentFileName(file.getFileName().toString()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void renderSegment(Path segment, Consumer<String> out) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("저널 세그먼트가 아닙니다. file=" + segment);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("지원하지 않는 저널 버전입니다. version=" + buffer.getInt(4) + ", file=" + segment);
+        }
+
+        Map<Integer, String> methods = new HashMap<>();
+        int writePosition = buffer.getInt(WRITE_POSITION_OFFSET); // 마지막 flush 때까지 예약한 위치
+        int position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= buffer.limit()) {
+            byte type = buffer.get(position + TYPE_OFFSET);
+            if (type == TYPE_EMPTY) {
+                if (position < writePosition) {
+                    position += RECORD_SIZE; // 예약만 하고 채우지 못한 자리, 뒤의 레코드는 읽는다.
+                    continue;
+                }
+                break; // 아직 쓰지 않은 영역 (또는 쓰다 만 레코드)
+            }
+            int depth = buffer.getShort(position + DEPTH_OFFSET);
+            int methodId = buffer.getInt(position + METHOD_ID_OFFSET);
+            long traceId = buffer.getLong(position + TRACE_ID_OFFSET);
+
+            if (type == TYPE_METHOD) {
+                int length = (int) traceId;
+                byte[] name = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    name[i] = buffer.get(position + RECORD_SIZE + i);
+                }
+                methods.put(methodId, new String(name, StandardCharsets.UTF_8));
+                position += RECORD_SIZE + paddedLength(length);
+                continue;
+            }
+
+            String id = TraceId.toHexString(traceId);
+            String message = methods.getOrDefault(methodId, "#" + methodId);
+            if (type == TYPE_BEGIN) {
+                out.accept("[" + id + "] " + TracePrefixes.start(depth) + message);
+            } else if (type == TYPE_END) {
+                boolean error = (buffer.get(position + FLAGS_OFFSET) & FLAG_ERROR) != 0;
+                long timeNanos = buffer.getLong(position + END_NANOS_OFFSET) - buffer.getLong(position + START_NANOS_OFFSET);
+                String prefix = error ? TracePrefixes.exception(depth) : TracePrefixes.complete(depth);
+                out.accept("[" + id + "] " + prefix + message + " time=" + TimeUnit.NANOSECONDS.toMillis(timeNanos) + "ms");
+            }
+            position += RECORD_SIZE;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "trace-journal");
+        new JournalReader(directory).render(System.out::println);
+    }
+}
@@ -0,0 +1,314 @@
+package hello.proxy.trace.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static hello.proxy.trace.journal.JournalFormat.*;
+
+/**
+ * 메모리 맵 세그먼트 파일에 트레이스 이벤트를 바이너리로 기록한다. (형식은 JournalFormat 참고)
+ *
+ * 레코드 하나는 MappedByteBuffer 에 32바이트를 쓰는 것이 전부다. 로그 프레임워크, 문자열 포맷팅, write 시스템 콜을 거치지 않는다.
+ * 쓸 위치는 세그먼트의 position 을 CAS 로 올려서 예약한다. append() 는 락을 잡지 않고, 스레드마다 서로 다른 32바이트에 쓴다.
+ * 세그먼트가 가득 차면 한 스레드만(this 락) 다음 세그먼트를 미리 segmentSize 만큼 할당해서 열고, maxSegments 를 넘는 오래된 세그먼트는 삭제한다.
+ *
+ * 새 세그먼트에는 메서드 사전을 다시 기록한다. 사전은 세그먼트 절반까지만 쓸 수 있고, 넘치는 메서드 이름은 OTHER 하나로 모은다.
+ * 그래서 사전을 다시 쓰다가 세그먼트가 또 넘치는 일은 없다.
+ *
+ * 쓴 내용은 OS 페이지 캐시에 있으므로 프로세스가 죽어도 남는다.
+ * 백그라운드 스레드가 flushIntervalMs 마다 force() 로 디스크에 내리므로, OS 장애 시에도 잃는 것은 마지막 flush 이후의 꼬리뿐이다.
+ * 레코드는 type 바이트를 마지막에 쓰기 때문에 쓰다 만 레코드는 읽는 쪽에서 빈 레코드로 보인다.
+ * flush 와 세그먼트 교체 때 예약한 위치를 헤더(writePosition)에 기록해서, 읽는 쪽이 중간의 빈 자리를 건너뛰고 뒤의 레코드를 읽을 수 있게 한다.
+ */
+@Slf4j
+public class JournalWriter implements AutoCloseable {
+
+    public static final String OTHER = "(other)";
+
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int maxDictionaryBytes;
+
+    private final Map<String, Integer> methodIds = new ConcurrentHashMap<>();
+    private final List<String> methods = new ArrayList<>(); // index = methodId, this 로 보호
+    private final Deque<Path> segments = new ArrayDeque<>(); // this 로 보호
+
+    private final ScheduledExecutorService flusher;
+
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    // 아래 필드는 this 로 보호
+    private long segmentIndex;
+    private int dictionaryBytes;
+    private int otherId = -1;
+
+    public JournalWriter(Path directory, int segmentSize, int maxSegments, long flushIntervalMs) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("segmentSize 는 " + MIN_SEGMENT_SIZE + " 바이트 이상이어야 합니다. segmentSize=" + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments 는 1 이상이어야 합니다. maxSegments=" + maxSegments);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        // OTHER 레코드 자리는 한도와 별도로 남겨 둔다.
+        this.maxDictionaryBytes = (segmentSize - HEADER_SIZE) / 2 - methodRecordSize(OTHER.getBytes(StandardCharsets.UTF_8).length);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> isSegmentFileName(file.getFileName().toString()))
+                    .sorted()
+                    .forEach(segments::addLast);
+        }
+        synchronized (this) {
+            this.segmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.getLast().getFileName().toString());
+            this.current = openNextSegment();
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trace-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 메서드 이름(트레이스 메시지)의 id, 처음 보는 이름이면 id 를 새로 정하고 METHOD 레코드를 기록한다.
+     * 사전이 한도(세그먼트 절반)를 넘으면 OTHER 의 id 를 반환한다.
+     */
+    public int methodId(String message) {
+        Integer id = methodIds.get(message);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = methodIds.get(message);
+            if (id != null) {
+                return id;
+            }
+            byte[] name = methodName(message);
+            if (dictionaryBytes + methodRecordSize(name.length) > maxDictionaryBytes) {
+                if (otherId < 0) {
+                    log.warn("저널 메서드 사전이 가득 찼습니다. 이후 새 메서드는 {} 로 기록합니다. maxDictionaryBytes={}", OTHER, maxDictionaryBytes);
+                    otherId = register(methodName(OTHER));
+                }
+                return otherId;
+            }
+            int newId = register(name);
+            methodIds.put(message, newId);
+            return newId;
+        }
+    }
+
+    private int register(byte[] name) {
+        int newId = methods.size();
+        Segment segment = current;
+        while (!segment.writeMethod(newId, name)) {
+            segment = rollOver(segment); // 새 세그먼트에는 기존 사전이 먼저 기록된다.
+        }
+        methods.add(new String(name, StandardCharsets.UTF_8));
+        dictionaryBytes += methodRecordSize(name.length);
+        return newId;
+    }
+
+    public void append(byte type, byte flags, int depth, int methodId, long traceId, long startNanos, long endNanos) {
+        if (closed) {
+            return;
+        }
+        Segment segment = current;
+        int position;
+        while ((position = segment.reserve(RECORD_SIZE)) < 0) {
+            segment = rollOver(segment);
+        }
+        segment.writeRecord(position, type, flags, depth, methodId, traceId, startNanos, endNanos);
+    }
+
+    /**
+     * full 세그먼트를 다 쓴 스레드들 중 처음 들어온 스레드만 다음 세그먼트를 연다.
+     */
+    private synchronized Segment rollOver(Segment full) {
+        if (current != full) {
+            return current;
+        }
+        full.commitPosition();
+        full.buffer.force();
+        Segment next = openNextSegment();
+        // 새 세그먼트만으로 읽을 수 있도록 메서드 사전을 다시 기록한다. 사전은 세그먼트 절반을 넘지 않으므로 항상 들어간다.
+        for (int id = 0; id < methods.size(); id++) {
+            if (!next.writeMethod(id, methods.get(id).getBytes(StandardCharsets.UTF_8))) {
+                throw new IllegalStateException("메서드 사전이 세그먼트에 들어가지 않습니다. segmentSize=" + segmentSize);
+            }
+        }
+        current = next;
+        return next;
+    }
+
+    private Segment openNextSegment() {
+        segmentIndex++;
+        Path file = directory.resolve(segmentFileName(segmentIndex));
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(segmentSize); // 미리 할당, 매핑은 채널을 닫아도 유효하다.
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 세그먼트를 열 수 없습니다. file=" + file, e);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putLong(16, System.currentTimeMillis());
+        buffer.putLong(24, System.nanoTime());
+
+        segments.addLast(file);
+        while (segments.size() > maxSegments) {
+            Path oldest = segments.removeFirst();
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.warn("오래된 저널 세그먼트를 삭제하지 못했습니다. file={}", oldest, e);
+            }
+        }
+        return new Segment(buffer, segmentSize);
+    }
+
+    private static byte[] methodName(String message) {
+        byte[] name = message.getBytes(StandardCharsets.UTF_8);
+        return name.length > MAX_METHOD_NAME_BYTES ? Arrays.copyOf(name, MAX_METHOD_NAME_BYTES) : name;
+    }
+
+    private static int methodRecordSize(int nameLength) {
+        return RECORD_SIZE + paddedLength(nameLength);
+    }
+
+    /**
+     * 지금까지 기록한 내용을 디스크에 내린다. 마지막 flush 이후 기록이 없으면 아무것도 하지 않는다.
+     */
+    public void flush() {
+        Segment segment = current;
+        if (closed || !segment.markFlushed()) {
+            return;
+        }
+        segment.commitPosition();
+        segment.buffer.force(); // msync 동안 기록을 막지 않는다.
+    }
+
+    public long getSegmentIndex() {
+        synchronized (this) {
+            return segmentIndex;
+        }
+    }
+
+    /**
+     * 남은 내용을 디스크에 내리고 더 이상 기록하지 않는다. 이후의 append() 는 무시된다.
+     * 매핑은 JDK 에 해제 API 가 없어서 GC 가 정리한다.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current.commitPosition();
+            current.buffer.force();
+        }
+    }
+
+    /**
+     * 세그먼트 하나, position 은 CAS 로만 올린다.
+     */
+    private static class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private final AtomicInteger position = new AtomicInteger(HEADER_SIZE);
+        private int flushedPosition = HEADER_SIZE; // flusher 스레드만 쓴다.
+
+        Segment(MappedByteBuffer buffer, int size) {
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        /**
+         * length 바이트를 예약하고 시작 위치를 반환한다. 남은 자리가 없으면 -1
+         */
+        int reserve(int length) {
+            while (true) {
+                int start = position.get();
+                if (start + length > size) {
+                    return -1;
+                }
+                if (position.compareAndSet(start, start + length)) {
+                    return start;
+                }
+            }
+        }
+
+        boolean writeMethod(int methodId, byte[] name) {
+            int recordPosition = reserve(methodRecordSize(name.length));
+            if (recordPosition < 0) {
+                return false;
+            }
+            int payloadPosition = recordPosition + RECORD_SIZE;
+            for (int i = 0; i < name.length; i++) {
+                buffer.put(payloadPosition + i, name[i]);
+            }
+            writeRecord(recordPosition, TYPE_METHOD, (byte) 0, 0, methodId, name.length, 0, 0);
+            return true;
+        }
+
+        void writeRecord(int base, byte type, byte flags, int depth, int methodId, long traceId, long startNanos, long endNanos) {
+            // 절대 위치 put 만 쓰므로 버퍼의 position 을 공유하지 않는다.
+            buffer.put(base + FLAGS_OFFSET, flags);
+            buffer.putShort(base + DEPTH_OFFSET, (short) depth);
+            buffer.putInt(base + METHOD_ID_OFFSET, methodId);
+            buffer.putLong(base + TRACE_ID_OFFSET, traceId);
+            buffer.putLong(base + START_NANOS_OFFSET, startNanos);
+            buffer.putLong(base + END_NANOS_OFFSET, endNanos);
+            buffer.put(base + TYPE_OFFSET, type); // type 을 마지막에 써서 레코드를 완성한다.
+        }
+
+        /**
+         * 지금까지 예약한 위치를 헤더에 기록한다. 이 위치 안의 빈 자리는 읽는 쪽이 건너뛴다.
+         */
+        void commitPosition() {
+            buffer.putInt(WRITE_POSITION_OFFSET, position.get());
+        }
+
+        boolean markFlushed() {
+            int written = position.get();
+            if (written == flushedPosition) {
+                return false;
+            }
+            flushedPosition = written;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.async.OverflowPolicy;
+import hello.proxy.trace.async.TraceEvent;
+import hello.proxy.trace.async.TraceEventRingBuffer;
+import hello.proxy.trace.propagation.TraceContextCarrier;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 비동기 LogTrace
+ *
+ * ThreadLocalLogTrace 는 begin/complete 마다 요청 스레드에서 로그 문자열을 만들고 appender 까지 호출한다.
+ * AsyncLogTrace 는 요청 스레드에서 원시 이벤트만 링 버퍼(TraceEventRingBuffer)에 기록하고,
+ * 포맷팅과 로그 출력은 백그라운드 스레드가 배치로 꺼내서 처리한다. 출력 형식은 ThreadLocalLogTrace 와 같다.
+ *
+ * 버퍼가 가득 찼을 때는 OverflowPolicy 에 따라 이벤트를 버리거나(DROP) 자리가 날 때까지 기다린다(BLOCK).
+ */
+@Slf4j
+public class AsyncLogTrace implements LogTrace, TraceContextCarrier, AutoCloseable {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+
+    private final TraceEventRingBuffer ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile long writtenCount; // writer 스레드만 쓴다.
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogTrace() {
+        this(8192, OverflowPolicy.DROP, 256);
+    }
+
+    public AsyncLogTrace(int capacity, OverflowPolicy overflowPolicy, int batchSize) {
+        this.ringBuffer = new TraceEventRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::writeLoop, "async-log-trace");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        syncTraceId();
+        TraceId traceId = traceIdHolder.get();
+        long startTimeMs = System.currentTimeMillis();
+        publish(TraceEvent.Type.BEGIN, traceId, message, 0, null);
+
+        return new TraceStatus(traceId, startTimeMs, message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long stopTimeMs = System.currentTimeMillis();
+        long resultTimeMs = stopTimeMs - status.getStartTimeMs();
+        TraceId traceId = status.getTraceId();
+        if (e == null) {
+            publish(TraceEvent.Type.END, traceId, status.getMessage(), resultTimeMs, null);
+        } else {
+            publish(TraceEvent.Type.EXCEPTION, traceId, status.getMessage(), resultTimeMs, e);
+        }
+
+        releaseTraceId();
+    }
+
+    private void publish(TraceEvent.Type type, TraceId traceId, String message, long timeMs, Exception e) {
+        while (!ringBuffer.offer(type, traceId.getId(), traceId.getLevel(), message, timeMs, e)) {
+            if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                droppedCount.increment();
+                return;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS); // BLOCK : writer 가 자리를 비울 때까지 기다린다.
+        }
+        publishedCount.increment();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int drained = ringBuffer.drain(this::write, batchSize);
+            if (drained == 0) {
+                if (!running) {
+                    return; // 종료 요청 이후 남은 이벤트까지 모두 출력했다.
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(TraceEvent event) {
+        switch (event.getType()) {
+            case BEGIN:
+                log.info("[{}] {}{}", event.getTraceId(), addSpace(START_PREFIX, event.getLevel()), event.getMessage());
+                break;
+            case END:
+                log.info("[{}] {}{} time={}ms", event.getTraceId(), addSpace(COMPLETE_PREFIX, event.getLevel()), event.getMessage(), event.getTimeMs());
+                break;
+            case EXCEPTION:
+                log.info("[{}] {}{} time={}ms ex={}", event.getTraceId(), addSpace(EX_PREFIX, event.getLevel()), event.getMessage(), event.getTimeMs(), event.getException().toString());
+                break;
+        }
+        writtenCount++;
+    }
+
+    private void syncTraceId() {
+        TraceId traceId = traceIdHolder.get();
+        if (traceId == null) {
+            traceIdHolder.set(new TraceId());
+        } else {
+            traceIdHolder.set(traceId.createNextId());
+        }
+    }
+
+    private void releaseTraceId() {
+        TraceId traceId = traceIdHolder.get();
+        if (traceId.isFirstLevel()) {
+            traceIdHolder.remove();//destroy
+        } else {
+            traceIdHolder.set(traceId.createPreviousId());
+        }
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceId attach(TraceId traceId) {
+        TraceId previous = traceIdHolder.get();
+        traceIdHolder.set(traceId);
+        return previous;
+    }
+
+    @Override
+    public void detach(TraceId previous) {
+        if (previous == null) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(previous);
+        }
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 버퍼에 기록된 이벤트 수
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * 버퍼가 가득 차서 버린 이벤트 수
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 출력 중 예외가 발생해서 버린 이벤트 수 (예: appender 장애)
+     */
+    public long getFailedCount() {
+        return ringBuffer.getHandlerFailureCount();
+    }
+
+    /**
+     * 버퍼에 쌓여서 출력을 기다리는 이벤트 수
+     */
+    public long getQueuedCount() {
+        return ringBuffer.size();
+    }
+
+    /**
+     * 백그라운드 스레드가 출력한 이벤트 수
+     */
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    /**
+     * 새로운 이벤트는 더 이상 기다리지 않고, 이미 버퍼에 있는 이벤트는 모두 출력한 뒤 writer 스레드를 종료한다.
+     * 스프링 빈으로 등록하면 컨테이너 종료 시점에 자동으로 호출된다.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
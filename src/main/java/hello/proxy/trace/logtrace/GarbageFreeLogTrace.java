@@ -0,0 +1,137 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * 할당 없는(zero-garbage) LogTrace
+ *
+ * ThreadLocalLogTrace 는 호출마다 TraceId(createNextId/createPreviousId), TraceStatus, addSpace() 의 StringBuilder 를 새로 만든다.
+ * GarbageFreeLogTrace 는 스레드마다 TraceContext 를 하나 두고 다음을 재사용한다.
+ *   - TraceStatus : 깊이(level)별로 하나씩 풀에 두고 재사용한다.
+ *   - TraceId : 깊이(level)별로 하나씩 풀에 두고, 루트가 새로 시작되면 ID 값만 다시 채운다. (long, 객체를 만들지 않는다)
+ *   - 들여쓰기 : TracePrefixes 에 미리 만들어 둔 문자열을 쓴다.
+ *   - INFO 레벨이 꺼져 있으면 로그 포맷팅을 아예 하지 않는다.
+ *
+ * 요청마다 새 루트가 시작되어도 할당이 없다. 단 INFO 로그를 남기면 ID 의 hex 문자열을 루트마다 한 번 만든다.
+ *
+ * 주의: begin() 이 반환한 TraceStatus 와 그 TraceId 는 풀에 있는 객체이므로 end()/exception() 이후에 보관하거나 재사용하면 안된다.
+ */
+@Slf4j
+public class GarbageFreeLogTrace implements LogTrace {
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private final ThreadLocal<TraceContext> contextHolder = ThreadLocal.withInitial(TraceContext::new);
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceContext context = contextHolder.get();
+        int level = ++context.depth;
+        TraceId traceId = context.traceId(level);
+        long startTimeMs = System.currentTimeMillis();
+        if (log.isInfoEnabled()) {
+            log.info("[{}] {}{}", traceId.getId(), TracePrefixes.start(level), message);
+        }
+
+        PooledTraceStatus status = context.status(level);
+        status.reuse(traceId, startTimeMs, message);
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long stopTimeMs = System.currentTimeMillis();
+        long resultTimeMs = stopTimeMs - status.getStartTimeMs();
+        TraceId traceId = status.getTraceId();
+        if (log.isInfoEnabled()) {
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId.getId(), TracePrefixes.complete(traceId.getLevel()), status.getMessage(), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), TracePrefixes.exception(traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+            }
+        }
+
+        contextHolder.get().depth = traceId.getLevel() - 1; // 루트(level=0)가 끝나면 -1
+    }
+
+    /**
+     * 스레드별 트레이스 상태와 재사용 객체 풀
+     */
+    private static class TraceContext {
+
+        private int depth = -1; // 현재 깊이, -1 이면 진행중인 트레이스가 없다.
+        private int generation; // 루트 트레이스가 새로 시작될 때마다 증가
+
+        private PooledTraceId[] traceIds = new PooledTraceId[INITIAL_DEPTH];
+        private int[] traceIdGenerations = new int[INITIAL_DEPTH];
+        private PooledTraceStatus[] statuses = new PooledTraceStatus[INITIAL_DEPTH];
+
+        TraceId traceId(int level) {
+            ensureCapacity(level);
+            PooledTraceId traceId = traceIds[level];
+            if (traceId == null) {
+                traceId = new PooledTraceId();
+                traceIds[level] = traceId;
+            }
+            if (level == 0) {
+                generation++;
+                traceId.reuse(PooledTraceId.nextRootId(), 0);
+                traceIdGenerations[0] = generation;
+            } else if (traceIdGenerations[level] != generation) {
+                traceId.reuse(traceIds[0].getIdValue(), level);
+                traceIdGenerations[level] = generation;
+            }
+            return traceId;
+        }
+
+        PooledTraceStatus status(int level) {
+            PooledTraceStatus status = statuses[level];
+            if (status == null) {
+                status = new PooledTraceStatus();
+                statuses[level] = status;
+            }
+            return status;
+        }
+
+        private void ensureCapacity(int level) {
+            if (level < traceIds.length) {
+                return;
+            }
+            int newLength = Math.max(level + 1, traceIds.length * 2);
+            traceIds = Arrays.copyOf(traceIds, newLength);
+            traceIdGenerations = Arrays.copyOf(traceIdGenerations, newLength);
+            statuses = Arrays.copyOf(statuses, newLength);
+        }
+    }
+
+    private static class PooledTraceId extends TraceId {
+        @Override
+        protected void reuse(long id, int level) {
+            super.reuse(id, level);
+        }
+
+        static long nextRootId() {
+            return nextIdValue();
+        }
+    }
+
+    private static class PooledTraceStatus extends TraceStatus {
+        @Override
+        protected void reuse(TraceId traceId, long startTimeMs, String message) {
+            super.reuse(traceId, startTimeMs, message);
+        }
+    }
+}
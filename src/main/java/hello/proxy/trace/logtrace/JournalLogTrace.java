@@ -0,0 +1,99 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.journal.JournalFormat;
+import hello.proxy.trace.journal.JournalWriter;
+import hello.proxy.trace.propagation.TraceContextCarrier;
+
+/**
+ * 로그 대신 바이너리 저널(JournalWriter)에 기록하는 LogTrace
+ *
+ * begin/end 마다 32바이트 레코드 하나를 메모리 맵 세그먼트에 쓴다. 로그 문자열은 만들지 않는다.
+ * 트리 형태의 텍스트가 필요하면 JournalReader 로 복원한다.
+ * 예외는 메시지 없이 에러 플래그만 남는다.
+ */
+public class JournalLogTrace implements LogTrace, TraceContextCarrier, AutoCloseable {
+
+    private final ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+    private final JournalWriter journal;
+
+    public JournalLogTrace(JournalWriter journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceId traceId = syncTraceId();
+        int methodId = journal.methodId(message);
+        long startTimeNanos = System.nanoTime();
+        journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, traceId.getLevel(), methodId, traceId.getIdValue(), startTimeNanos, 0);
+
+        return new TraceStatus(traceId, System.currentTimeMillis(), startTimeNanos, message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long endTimeNanos = System.nanoTime();
+        TraceId traceId = status.getTraceId();
+        byte flags = e == null ? 0 : JournalFormat.FLAG_ERROR;
+        journal.append(JournalFormat.TYPE_END, flags, traceId.getLevel(), journal.methodId(status.getMessage()),
+                traceId.getIdValue(), status.getStartTimeNanos(), endTimeNanos);
+
+        releaseTraceId();
+    }
+
+    private TraceId syncTraceId() {
+        TraceId traceId = traceIdHolder.get();
+        TraceId nextId = traceId == null ? new TraceId() : traceId.createNextId();
+        traceIdHolder.set(nextId);
+        return nextId;
+    }
+
+    private void releaseTraceId() {
+        TraceId traceId = traceIdHolder.get();
+        if (traceId.isFirstLevel()) {
+            traceIdHolder.remove();//destroy
+        } else {
+            traceIdHolder.set(traceId.createPreviousId());
+        }
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceId attach(TraceId traceId) {
+        TraceId previous = traceIdHolder.get();
+        traceIdHolder.set(traceId);
+        return previous;
+    }
+
+    @Override
+    public void detach(TraceId previous) {
+        if (previous == null) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(previous);
+        }
+    }
+
+    /**
+     * 스프링 빈으로 등록하면 컨테이너 종료 시점에 자동으로 호출된다.
+     */
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
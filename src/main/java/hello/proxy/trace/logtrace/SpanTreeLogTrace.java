@@ -0,0 +1,126 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.span.Span;
+import hello.proxy.trace.span.TraceRecord;
+import hello.proxy.trace.span.TraceRecordSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Span 트리 LogTrace
+ *
+ * ThreadLocalLogTrace 는 Controller -> Service -> Repository 요청 하나에 로그를 6줄(begin 3, end 3) 남긴다.
+ * SpanTreeLogTrace 는 현재 TraceId 의 Span 들을 메모리에 모아두었다가
+ * 루트(isFirstLevel)가 끝나는 시점에 TraceRecord 하나로 만들어서 TraceRecordSink 에 한 번만 넘긴다.
+ *
+ * 트레이스 하나에 담을 수 있는 Span 수는 maxSpans 로 제한한다. 넘치는 Span 은 개수와 예외 여부만 남긴다.
+ * sink 가 던진 예외는 로그만 남기고 삼킨다. 트레이스 때문에 원래 호출의 결과나 예외가 바뀌면 안 된다.
+ */
+@Slf4j
+public class SpanTreeLogTrace implements LogTrace {
+
+    private final ThreadLocal<SpanCollector> collectorHolder = new ThreadLocal<>();
+    private final TraceRecordSink sink;
+    private final int maxSpans;
+
+    public SpanTreeLogTrace(TraceRecordSink sink) {
+        this(sink, 256);
+    }
+
+    public SpanTreeLogTrace(TraceRecordSink sink, int maxSpans) {
+        if (maxSpans < 1) {
+            throw new IllegalArgumentException("maxSpans 는 1 이상이어야 합니다. (루트 Span) maxSpans=" + maxSpans);
+        }
+        this.sink = sink;
+        this.maxSpans = maxSpans;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SpanCollector collector = syncTraceId();
+        TraceId traceId = collector.traceId;
+        long startTimeNanos = System.nanoTime();
+
+        Span span = null;
+        if (collector.spans.size() < maxSpans) {
+            span = new Span(message, traceId.getLevel(), startTimeNanos);
+            collector.spans.add(span);
+        } else {
+            collector.truncatedSpans++;
+        }
+        return new SpanTraceStatus(traceId, System.currentTimeMillis(), startTimeNanos, message, span);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        Span span = ((SpanTraceStatus) status).span;
+        if (span != null) {
+            span.finish(System.nanoTime(), e);
+        }
+
+        SpanCollector collector = collectorHolder.get();
+        if (collector == null) {
+            return; // begin 없이 끝났다.
+        }
+        if (e != null) {
+            collector.error = true; // Span 이 잘렸어도 예외는 남긴다. (tail-sampling 이 놓치지 않도록)
+        }
+        TraceId traceId = status.getTraceId();
+        if (traceId.isFirstLevel()) {
+            collectorHolder.remove();//destroy
+            try {
+                sink.accept(new TraceRecord(traceId.getId(), status.getStartTimeMs(), collector.spans, collector.truncatedSpans, collector.error));
+            } catch (RuntimeException sinkException) {
+                log.error("TraceRecord 를 내보내지 못했습니다. traceId={}", traceId.getId(), sinkException);
+            }
+        } else {
+            collector.traceId = traceId.createPreviousId();
+        }
+    }
+
+    private SpanCollector syncTraceId() {
+        SpanCollector collector = collectorHolder.get();
+        if (collector == null) {
+            collector = new SpanCollector(new TraceId());
+            collectorHolder.set(collector);
+        } else {
+            collector.traceId = collector.traceId.createNextId();
+        }
+        return collector;
+    }
+
+    private static class SpanCollector {
+
+        private TraceId traceId;
+        private final List<Span> spans = new ArrayList<>();
+        private int truncatedSpans;
+        private boolean error;
+
+        SpanCollector(TraceId traceId) {
+            this.traceId = traceId;
+        }
+    }
+
+    private static class SpanTraceStatus extends TraceStatus {
+
+        private final Span span;
+
+        SpanTraceStatus(TraceId traceId, long startTimeMs, long startTimeNanos, String message, Span span) {
+            super(traceId, startTimeMs, startTimeNanos, message);
+            this.span = span;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.metrics.LatencyHistogram;
+import hello.proxy.trace.metrics.LatencySnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 호출마다 로그를 남기지 않고 메서드(트레이스 메시지)별 통계만 모으는 LogTrace
+ *
+ * 호출 하나의 비용은 nanoTime 2번, TraceStatus 1개, LongAdder 증가 몇 번과 히스토그램 버킷 증가뿐이다.
+ * ThreadLocal 도 쓰지 않으므로 트레이스 ID 와 깊이는 남지 않는다.
+ * interval 마다 백그라운드 스레드가 구간 통계(calls, errors, mean, p99, min, max)를 표 하나로 로그에 남기고 값을 초기화한다.
+ *
+ * method                                        calls     errors   mean(us)    p99(us)    min(us)    max(us)
+ * OrderRepositoryV1.save(..)                      120          3    1000412    1002438    1000087    1003121
+ */
+@Slf4j
+public class SummaryLogTrace implements LogTrace, AutoCloseable {
+
+    public static final String OTHER = "(other)";
+
+    private static final TraceId TRACE_ID = TraceId.notSampled(); // 트레이스 ID 를 만들지 않는다.
+
+    private final ConcurrentHashMap<String, MethodStats> stats = new ConcurrentHashMap<>();
+    private final int maxMethods;
+    private final MethodStats other = new MethodStats();
+    private final ScheduledExecutorService reporter;
+
+    /**
+     * 주기적인 리포트 없이 통계만 모은다. summarize() 를 직접 호출해야 한다.
+     */
+    public SummaryLogTrace() {
+        this(0, TimeUnit.SECONDS, 1024);
+    }
+
+    public SummaryLogTrace(long interval, TimeUnit unit, int maxMethods) {
+        this.maxMethods = maxMethods;
+        if (interval <= 0) {
+            this.reporter = null;
+            return;
+        }
+        this.reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "summary-log-trace");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::logSummary, interval, interval, unit);
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        return new TraceStatus(TRACE_ID, 0, System.nanoTime(), message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        stats(status.getMessage()).record(System.nanoTime() - status.getStartTimeNanos(), false);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        stats(status.getMessage()).record(System.nanoTime() - status.getStartTimeNanos(), true);
+    }
+
+    private MethodStats stats(String message) {
+        MethodStats methodStats = stats.get(message);
+        if (methodStats != null) {
+            return methodStats;
+        }
+        if (stats.size() >= maxMethods) {
+            return other;
+        }
+        return stats.computeIfAbsent(message, key -> new MethodStats());
+    }
+
+    /**
+     * 마지막 summarize() 이후의 구간 통계를 표로 만들고 초기화한다. 호출이 없었던 메서드는 생략한다.
+     */
+    public String summarize() {
+        Map<String, MethodStats> sorted = new TreeMap<>(stats);
+        sorted.put(OTHER, other);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %10s %10s %10s %10s %10s %10s%n", "method", "calls", "errors", "mean(us)", "p99(us)", "min(us)", "max(us)"));
+        sorted.forEach((message, methodStats) -> {
+            long calls = methodStats.calls.sumThenReset();
+            long errors = methodStats.errors.sumThenReset();
+            long sumNanos = methodStats.sumNanos.sumThenReset();
+            long minNanos = methodStats.minNanos.getAndSet(Long.MAX_VALUE);
+            LatencySnapshot snapshot = methodStats.histogram.snapshotAndReset();
+            if (calls == 0) {
+                return;
+            }
+            sb.append(String.format("%-40s %10d %10d %10d %10d %10d %10d%n",
+                    message, calls, errors, sumNanos / calls / 1_000,
+                    snapshot.getP99Nanos() / 1_000, minNanos / 1_000, snapshot.getMaxNanos() / 1_000));
+        });
+        return sb.toString();
+    }
+
+    private void logSummary() {
+        try {
+            log.info("trace summary\n{}", summarize());
+        } catch (RuntimeException e) {
+            log.warn("trace summary 실패", e); // 예외가 나면 스케줄이 멈추므로 삼킨다.
+        }
+    }
+
+    /**
+     * 리포트 스레드를 멈추고 남은 구간 통계를 한 번 더 남긴다.
+     * 스프링 빈으로 등록하면 컨테이너 종료 시점에 자동으로 호출된다.
+     */
+    @Override
+    public void close() {
+        if (reporter != null) {
+            reporter.shutdown();
+            logSummary();
+        }
+    }
+
+    /**
+     * 메서드 하나의 구간 통계, 모든 값은 락 없이 갱신한다.
+     */
+    private static class MethodStats {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+        private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+        private final LatencyHistogram histogram = new LatencyHistogram(); // p99, max
+
+        void record(long nanos, boolean error) {
+            calls.increment();
+            if (error) {
+                errors.increment();
+            }
+            sumNanos.add(nanos);
+            histogram.record(nanos);
+            long currentMin = minNanos.get();
+            while (nanos < currentMin && !minNanos.compareAndSet(currentMin, nanos)) { // 최솟값이 갱신될 때만 CAS
+                currentMin = minNanos.get();
+            }
+        }
+    }
+}
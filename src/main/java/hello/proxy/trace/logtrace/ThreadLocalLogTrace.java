@@ -2,25 +2,62 @@ package hello.proxy.trace.logtrace;
 
 import hello.proxy.trace.TraceId;
 import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.metrics.LatencyHistogramRegistry;
+import hello.proxy.trace.propagation.TraceContextCarrier;
+import hello.proxy.trace.sampling.SamplingOverride;
+import hello.proxy.trace.sampling.TraceSampler;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 경과 시간은 System.nanoTime() 으로 잰다.
+ * LatencyHistogramRegistry 를 넘겨주면 complete 시점의 경과 시간을 메시지별 히스토그램에도 기록한다.
+ *
+ * 헤드 기반 샘플링
+ * 루트 TraceId 를 만드는 시점(syncTraceId)에 TraceSampler 로 샘플링 여부를 한 번만 정한다. (SamplingOverride 로 강제 가능)
+ * 샘플링되지 않은 요청은 TraceId.notSampled() 를 사용하고, 하위 begin/end 는 ThreadLocal 읽기/쓰기만 한다.
+ * 시간 측정, 로그 문자열, TraceStatus 생성을 하지 않고 공유 상수 NOT_SAMPLED 를 반환한다.
+ *
+ * TraceContextCarrier 를 구현하므로 TraceContextPropagator 로 다른 스레드에 트레이스를 이어갈 수 있다.
+ */
 @Slf4j
-public class ThreadLocalLogTrace implements LogTrace {
+public class ThreadLocalLogTrace implements LogTrace, TraceContextCarrier {
 
     private static final String START_PREFIX = "-->";
     private static final String COMPLETE_PREFIX = "<--";
     private static final String EX_PREFIX = "<X-";
 
+    private static final TraceStatus NOT_SAMPLED = new TraceStatus(TraceId.notSampled(), 0, 0, null);
+
     private ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+    private final LatencyHistogramRegistry latencyHistograms;
+    private final TraceSampler sampler;
+
+    public ThreadLocalLogTrace() {
+        this(null);
+    }
+
+    public ThreadLocalLogTrace(LatencyHistogramRegistry latencyHistograms) {
+        this(latencyHistograms, TraceSampler.ALWAYS);
+    }
+
+    public ThreadLocalLogTrace(LatencyHistogramRegistry latencyHistograms, TraceSampler sampler) {
+        this.latencyHistograms = latencyHistograms;
+        this.sampler = sampler;
+    }
 
     @Override
     public TraceStatus begin(String message) {
-        syncTraceId();
-        TraceId traceId = traceIdHolder.get();
-        Long startTimeMs = System.currentTimeMillis();
+        TraceId traceId = syncTraceId();
+        if (!traceId.isSampled()) {
+            return NOT_SAMPLED;
+        }
+        long startTimeMs = System.currentTimeMillis();
+        long startTimeNanos = System.nanoTime();
         log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
 
-        return new TraceStatus(traceId, startTimeMs, message);
+        return new TraceStatus(traceId, startTimeMs, startTimeNanos, message);
     }
 
     @Override
@@ -34,8 +71,15 @@ public class ThreadLocalLogTrace implements LogTrace {
     }
 
     private void complete(TraceStatus status, Exception e) {
-        Long stopTimeMs = System.currentTimeMillis();
-        long resultTimeMs = stopTimeMs - status.getStartTimeMs();
+        if (status == NOT_SAMPLED) {
+            releaseTraceId();
+            return;
+        }
+        long resultTimeNanos = System.nanoTime() - status.getStartTimeNanos();
+        long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(resultTimeNanos);
+        if (latencyHistograms != null) {
+            latencyHistograms.record(status.getMessage(), resultTimeNanos);
+        }
         TraceId traceId = status.getTraceId();
         if (e == null) {
             log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
@@ -46,13 +90,20 @@ public class ThreadLocalLogTrace implements LogTrace {
         releaseTraceId();
     }
 
-    private void syncTraceId() {
+    private TraceId syncTraceId() {
         TraceId traceId = traceIdHolder.get();
+        TraceId nextId;
         if (traceId == null) {
-            traceIdHolder.set(new TraceId());
+            nextId = isSampled() ? new TraceId() : TraceId.notSampled();
         } else {
-            traceIdHolder.set(traceId.createNextId());
+            nextId = traceId.createNextId();
         }
+        traceIdHolder.set(nextId);
+        return nextId;
+    }
+
+    private boolean isSampled() {
+        return SamplingOverride.isForced() || sampler.isSampled();
     }
 
     private void releaseTraceId() {
@@ -64,6 +115,27 @@ public class ThreadLocalLogTrace implements LogTrace {
         }
     }
 
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceId attach(TraceId traceId) {
+        TraceId previous = traceIdHolder.get();
+        traceIdHolder.set(traceId);
+        return previous;
+    }
+
+    @Override
+    public void detach(TraceId previous) {
+        if (previous == null) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(previous);
+        }
+    }
+
     private static String addSpace(String prefix, int level) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < level; i++) {
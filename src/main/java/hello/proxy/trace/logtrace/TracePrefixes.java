@@ -0,0 +1,53 @@
+package hello.proxy.trace.logtrace;
+
+/**
+ * 깊이(level)별 들여쓰기 문자열을 미리 만들어 둔다.
+ * addSpace() 처럼 호출할 때마다 StringBuilder 로 만들지 않고 배열에서 꺼내기만 한다.
+ *
+ * level=0 ""
+ * level=1 "|-->"
+ * level=2 "|   |-->"
+ */
+public final class TracePrefixes {
+
+    public static final String START_PREFIX = "-->";
+    public static final String COMPLETE_PREFIX = "<--";
+    public static final String EX_PREFIX = "<X-";
+
+    private static final int CACHED_LEVELS = 32;
+
+    private static final String[] START = build(START_PREFIX);
+    private static final String[] COMPLETE = build(COMPLETE_PREFIX);
+    private static final String[] EX = build(EX_PREFIX);
+
+    private TracePrefixes() {
+    }
+
+    public static String start(int level) {
+        return level < CACHED_LEVELS ? START[level] : addSpace(START_PREFIX, level);
+    }
+
+    public static String complete(int level) {
+        return level < CACHED_LEVELS ? COMPLETE[level] : addSpace(COMPLETE_PREFIX, level);
+    }
+
+    public static String exception(int level) {
+        return level < CACHED_LEVELS ? EX[level] : addSpace(EX_PREFIX, level);
+    }
+
+    private static String[] build(String prefix) {
+        String[] prefixes = new String[CACHED_LEVELS];
+        for (int level = 0; level < CACHED_LEVELS; level++) {
+            prefixes[level] = addSpace(prefix, level);
+        }
+        return prefixes;
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
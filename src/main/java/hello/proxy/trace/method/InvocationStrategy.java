@@ -0,0 +1,9 @@
+package hello.proxy.trace.method;
+
+/**
+ * MethodInvokerCache 가 만드는 MethodInvoker 의 종류
+ */
+public enum InvocationStrategy {
+    REFLECTION, // Method.invoke
+    METHOD_HANDLE // MethodHandle.invokeExact
+}
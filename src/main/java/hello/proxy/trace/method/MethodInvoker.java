@@ -0,0 +1,10 @@
+package hello.proxy.trace.method;
+
+/**
+ * target 의 메서드 하나를 호출한다.
+ * target 이 던진 예외는 InvocationTargetException 으로 감싸지 않고 그대로 던진다.
+ */
+public interface MethodInvoker {
+
+    Object invoke(Object target, Object[] args) throws Throwable;
+}
@@ -0,0 +1,102 @@
+package hello.proxy.trace.method;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * (target 클래스, Method) 별 MethodInvoker 캐시
+ *
+ * JDK 동적 프록시 핸들러는 method.invoke(target, args) 로 target 을 호출했다.
+ * 리플렉션 호출은 매번 접근 검사를 거치고, target 의 예외를 InvocationTargetException 으로 감싼다.
+ * (감싼 예외를 그대로 던지면 프록시 밖에서는 UndeclaredThrowableException 이 된다.)
+ *
+ * METHOD_HANDLE 은 target 클래스에서 실제로 구현한 메서드를 찾아 MethodHandle 을 한 번만 만들어 두고 invokeExact 로 호출한다.
+ * 인자 배열은 asSpreader 로 펼치고, 예외는 감싸지 않고 그대로 전파된다. 접근할 수 없는 메서드는 리플렉션으로 대신한다.
+ * REFLECTION 도 InvocationTargetException 은 풀어서 원래 예외를 던진다.
+ * MethodHandle 은 static final 상수가 아니라 람다가 캡처한 필드이므로 JIT 가 상수로 접어 target 메서드까지 인라인한다고 기대할 수 없다.
+ * 얻는 것은 호출마다의 접근 검사와 예외 감싸기가 빠지는 것이다. (MethodInvokerBenchmark 로 확인)
+ *
+ * 이 캐시 조회는 (ClassValue 조회 + 맵 조회) 이므로 target 이 고정인 핸들러는 TargetMethodInvokers 로 Method 별 invoker 를 따로 들고 있는다.
+ *
+ * target 클래스별 맵은 ClassValue 에 두어 클래스가 언로드되면 같이 사라진다.
+ */
+public class MethodInvokerCache {
+
+    private static final MethodType GENERIC_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final InvocationStrategy strategy;
+    private final ClassValue<ConcurrentHashMap<Method, MethodInvoker>> invokers = new ClassValue<>() {
+        @Override
+        protected ConcurrentHashMap<Method, MethodInvoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public MethodInvokerCache(InvocationStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public MethodInvoker invoker(Class<?> targetClass, Method method) {
+        ConcurrentHashMap<Method, MethodInvoker> byMethod = invokers.get(targetClass);
+        MethodInvoker invoker = byMethod.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+        return byMethod.computeIfAbsent(method, key -> create(targetClass, key));
+    }
+
+    public InvocationStrategy getStrategy() {
+        return strategy;
+    }
+
+    private MethodInvoker create(Class<?> targetClass, Method method) {
+        if (strategy == InvocationStrategy.METHOD_HANDLE) {
+            MethodHandle handle = methodHandle(targetClass, method);
+            if (handle != null) {
+                return (target, args) -> {
+                    Object[] arguments = args == null ? NO_ARGS : args; // 삼항 연산식을 바로 넘기면 invokeExact 의 호출 타입이 Object 로 잡힌다.
+                    return handle.invokeExact(target, arguments);
+                };
+            }
+        }
+        return (target, args) -> {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * (Object target, Object[] args)Object 형태로 맞춘 MethodHandle, 만들 수 없으면 null
+     */
+    private static MethodHandle methodHandle(Class<?> targetClass, Method method) {
+        for (Method candidate : new Method[]{implementation(targetClass, method), method}) {
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(candidate);
+                return handle.asSpreader(Object[].class, candidate.getParameterCount()).asType(GENERIC_TYPE);
+            } catch (IllegalAccessException e) {
+                // public 이 아닌 클래스의 구현 메서드면 인터페이스 메서드로 다시 시도한다.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 인터페이스 Method 대신 target 클래스의 구현 메서드를 쓰면 invokevirtual 로 바로 호출된다.
+     */
+    private static Method implementation(Class<?> targetClass, Method method) {
+        try {
+            Method implementation = targetClass.getMethod(method.getName(), method.getParameterTypes());
+            return implementation.getDeclaringClass().isAssignableFrom(targetClass) ? implementation : method;
+        } catch (NoSuchMethodException e) {
+            return method;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package hello.proxy.trace.method;
+
+/**
+ * 메서드 하나에 대해 미리 계산해 둔 트레이스 정보
+ *   - message : LogTrace 에 넘길 메시지, 예) OrderServiceV1.orderItem()
+ *   - traced : 패턴 필터를 통과했는지 여부, false 면 로그 없이 바로 target 을 호출한다.
+ *   - id : 레지스트리 안에서 0 부터 순서대로 붙이는 정수 id
+ */
+public class MethodMetadata {
+
+    private final int id;
+    private final String message;
+    private final boolean traced;
+
+    public MethodMetadata(int id, String message, boolean traced) {
+        this.id = id;
+        this.message = message;
+        this.traced = traced;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isTraced() {
+        return traced;
+    }
+}
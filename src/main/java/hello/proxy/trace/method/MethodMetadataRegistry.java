@@ -0,0 +1,65 @@
+package hello.proxy.trace.method;
+
+import org.springframework.util.PatternMatchUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Method 별 MethodMetadata 캐시
+ *
+ * 동적 프록시 핸들러와 어드바이스는 호출마다 메시지 문자열을 이어 붙이고 PatternMatchUtils.simpleMatch() 로 패턴을 검사했다.
+ * 레지스트리는 메서드마다 한 번만 계산하고, 이후 호출은 맵 조회 한 번으로 끝난다.
+ * 프록시를 만들 때 preload() 로 미리 채우거나, 처음 호출될 때 채운다.
+ *
+ * patterns 가 null 이면 모든 메서드를 트레이스 한다. 패턴이 다르면 레지스트리도 따로 만들어야 한다.
+ */
+public class MethodMetadataRegistry {
+
+    private final String[] patterns;
+    private final ConcurrentHashMap<Method, MethodMetadata> metadata = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public MethodMetadataRegistry() {
+        this(null);
+    }
+
+    public MethodMetadataRegistry(String[] patterns) {
+        this.patterns = patterns == null ? null : patterns.clone();
+    }
+
+    public MethodMetadata get(Method method) {
+        MethodMetadata methodMetadata = metadata.get(method);
+        if (methodMetadata != null) {
+            return methodMetadata;
+        }
+        return metadata.computeIfAbsent(method, this::create);
+    }
+
+    /**
+     * type 과 type 이 구현한 인터페이스의 public 메서드를 미리 등록한다.
+     */
+    public MethodMetadataRegistry preload(Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (method.getDeclaringClass() != Object.class && !Modifier.isStatic(method.getModifiers())) {
+                get(method);
+            }
+        }
+        for (Class<?> anInterface : type.getInterfaces()) {
+            preload(anInterface);
+        }
+        return this;
+    }
+
+    public int size() {
+        return metadata.size();
+    }
+
+    private MethodMetadata create(Method method) {
+        String message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+        boolean traced = patterns == null || PatternMatchUtils.simpleMatch(patterns, method.getName());
+        return new MethodMetadata(sequence.getAndIncrement(), message, traced);
+    }
+}
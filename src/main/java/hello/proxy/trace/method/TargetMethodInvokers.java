@@ -0,0 +1,57 @@
+package hello.proxy.trace.method;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * target 클래스 하나의 Method 별 MethodInvoker
+ *
+ * 동적 프록시 핸들러는 target 이 고정이므로 호출마다 MethodInvokerCache 에서 (target 클래스, Method) 로 찾을 필요가 없다.
+ * (ClassValue 조회 + 맵 조회) 대신 핸들러마다 둔 맵을 한 번 조회한다.
+ * 프록시를 만들 때 preload() 로 target 이 구현한 인터페이스의 메서드를 미리 채운다.
+ */
+public class TargetMethodInvokers {
+
+    private final Class<?> targetClass;
+    private final MethodInvokerCache invokers;
+    private final ConcurrentHashMap<Method, MethodInvoker> byMethod = new ConcurrentHashMap<>();
+
+    public TargetMethodInvokers(Class<?> targetClass, MethodInvokerCache invokers) {
+        this.targetClass = targetClass;
+        this.invokers = invokers;
+    }
+
+    public MethodInvoker get(Method method) {
+        MethodInvoker invoker = byMethod.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+        return byMethod.computeIfAbsent(method, key -> invokers.invoker(targetClass, key));
+    }
+
+    /**
+     * target 클래스가 구현한 인터페이스의 메서드를 미리 등록한다. JDK 동적 프록시는 인터페이스의 Method 로 호출된다.
+     */
+    public TargetMethodInvokers preload() {
+        preload(targetClass);
+        return this;
+    }
+
+    private void preload(Class<?> type) {
+        for (Class<?> anInterface : type.getInterfaces()) {
+            for (Method method : anInterface.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    get(method);
+                }
+            }
+        }
+        if (type.getSuperclass() != null) {
+            preload(type.getSuperclass());
+        }
+    }
+
+    public int size() {
+        return byMethod.size();
+    }
+}
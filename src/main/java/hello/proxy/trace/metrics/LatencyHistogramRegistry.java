@@ -0,0 +1,75 @@
+package hello.proxy.trace.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 트레이스 메시지(예: OrderServiceV1.orderItem())별 LatencyHistogram 저장소
+ *
+ * 메시지 종류가 maxMethods 를 넘으면 나머지는 OTHER 하나로 모아서 메모리가 무한히 늘어나지 않게 한다.
+ */
+@Slf4j
+public class LatencyHistogramRegistry {
+
+    public static final String OTHER = "(other)";
+
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final int maxMethods;
+    private final LatencyHistogram other = new LatencyHistogram();
+
+    public LatencyHistogramRegistry() {
+        this(1024);
+    }
+
+    public LatencyHistogramRegistry(int maxMethods) {
+        this.maxMethods = maxMethods;
+    }
+
+    public void record(String message, long nanos) {
+        histogram(message).record(nanos);
+    }
+
+    public LatencyHistogram histogram(String message) {
+        LatencyHistogram histogram = histograms.get(message);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= maxMethods) {
+            return other;
+        }
+        return histograms.computeIfAbsent(message, key -> new LatencyHistogram());
+    }
+
+    /**
+     * 메시지별 스냅샷, 메시지 이름순
+     */
+    public Map<String, LatencySnapshot> snapshot() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((message, histogram) -> snapshots.put(message, histogram.snapshot()));
+        LatencySnapshot otherSnapshot = other.snapshot();
+        if (otherSnapshot.getCount() > 0) {
+            snapshots.put(OTHER, otherSnapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * p50/p99/p999/max 표를 문자열로 만든다. (단위: 마이크로초)
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %10s %10s %10s %10s %10s%n", "method", "count", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+        snapshot().forEach((message, snapshot) -> sb.append(String.format("%-40s %10d %10d %10d %10d %10d%n",
+                message, snapshot.getCount(),
+                snapshot.getP50Nanos() / 1_000, snapshot.getP99Nanos() / 1_000,
+                snapshot.getP999Nanos() / 1_000, snapshot.getMaxNanos() / 1_000)));
+        return sb.toString();
+    }
+
+    public void logReport() {
+        log.info("latency report\n{}", report());
+    }
+}
@@ -0,0 +1,72 @@
+package hello.proxy.trace.metrics;
+
+/**
+ * LatencyHistogram 의 특정 시점 값
+ * 버킷 구조가 모두 같으므로 여러 스냅샷(여러 인스턴스, 여러 구간)을 버킷끼리 더해서 합칠 수 있다.
+ */
+public class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long maxNanos;
+
+    LatencySnapshot(long[] counts, long maxNanos) {
+        this.counts = counts;
+        this.maxNanos = maxNanos;
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        this.count = count;
+    }
+
+    public static LatencySnapshot empty() {
+        return new LatencySnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0);
+    }
+
+    public LatencySnapshot merge(LatencySnapshot other) {
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new LatencySnapshot(merged, Math.max(maxNanos, other.maxNanos));
+    }
+
+    /**
+     * quantile(0.0 ~ 1.0)에 해당하는 값, 버킷의 상한값을 반환하되 max 를 넘지 않는다.
+     */
+    public long percentileNanos(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * count));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50Nanos() {
+        return percentileNanos(0.50);
+    }
+
+    public long getP99Nanos() {
+        return percentileNanos(0.99);
+    }
+
+    public long getP999Nanos() {
+        return percentileNanos(0.999);
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
@@ -0,0 +1,84 @@
+package hello.proxy.trace.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메서드 하나의 호출 수, 예외 수, 지연 시간 버킷
+ *
+ * 모든 값은 LongAdder 라서 여러 스레드가 동시에 기록해도 CAS 경합 없이 셀(stripe)에 나눠서 더한다.
+ * 버킷은 Prometheus 히스토그램 형식에 맞춘 고정 경계(BOUNDS_NANOS)이고, 각 버킷은 누적이 아닌 구간 개수를 센다. (누적은 출력할 때 계산)
+ */
+public class MethodMetrics {
+
+    static final long[] BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10)
+    };
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1]; // 마지막은 +Inf
+
+    public MethodMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos, boolean error) {
+        calls.increment();
+        if (error) {
+            errors.increment();
+        }
+        sumNanos.add(nanos);
+        buckets[bucketIndex(nanos)].increment();
+    }
+
+    static int bucketIndex(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * 버킷별 개수(누적 아님), 길이는 BOUNDS_NANOS.length + 1
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,132 @@
+package hello.proxy.trace.metrics;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Method 별 MethodMetrics 저장소, Prometheus 텍스트 형식으로 출력한다.
+ *
+ * 기록은 ConcurrentHashMap 조회(락 없음)와 LongAdder 증가뿐이다.
+ * 출력(render)은 LongAdder.sum() 으로 읽기만 하므로 기록하는 스레드를 막지 않는다. 대신 값들 사이에 약간의 시차는 있을 수 있다.
+ * 메서드 종류가 maxMethods 를 넘으면 나머지는 OTHER 하나로 모은다.
+ */
+public class MethodMetricsRegistry {
+
+    public static final String OTHER = "(other)";
+
+    private final ConcurrentHashMap<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+    private final int maxMethods;
+    private final MethodMetrics other = new MethodMetrics(OTHER);
+
+    public MethodMetricsRegistry() {
+        this(1024);
+    }
+
+    public MethodMetricsRegistry(int maxMethods) {
+        this.maxMethods = maxMethods;
+    }
+
+    public void record(Method method, long nanos, boolean error) {
+        metrics(method).record(nanos, error);
+    }
+
+    public MethodMetrics metrics(Method method) {
+        MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics != null) {
+            return methodMetrics;
+        }
+        if (metrics.size() >= maxMethods) {
+            return other;
+        }
+        return metrics.computeIfAbsent(method, key -> new MethodMetrics(name(key)));
+    }
+
+    /**
+     * hello.proxy.app.v1.OrderServiceV1.orderItem(java.lang.String) 형식의 전체 시그니처
+     * 오버로딩된 메서드, 다른 패키지의 같은 이름 클래스도 구분된다. (snapshot 의 키, Prometheus 의 method 레이블)
+     */
+    static String name(Method method) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method.getDeclaringClass().getName()).append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(parameterTypes[i].getTypeName());
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * 시그니처순
+     */
+    public Map<String, MethodMetrics> snapshot() {
+        Map<String, MethodMetrics> snapshot = new TreeMap<>();
+        metrics.values().forEach(methodMetrics -> snapshot.put(methodMetrics.getName(), methodMetrics));
+        if (other.getCalls() > 0) {
+            snapshot.put(OTHER, other);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Prometheus 텍스트 형식 (version 0.0.4)
+     *
+     * trace_method_calls_total{method="hello.proxy.app.v1.OrderServiceV1.orderItem(java.lang.String)"} 3
+     * trace_method_errors_total{method="hello.proxy.app.v1.OrderServiceV1.orderItem(java.lang.String)"} 1
+     * trace_method_duration_seconds_bucket{method="hello.proxy.app.v1.OrderServiceV1.orderItem(java.lang.String)",le="0.0001"} 1
+     * ...
+     */
+    public String render() {
+        Map<String, MethodMetrics> snapshot = snapshot();
+        StringBuilder sb = new StringBuilder(256 + snapshot.size() * 1024);
+
+        sb.append("# HELP trace_method_calls_total Number of traced method calls.\n");
+        sb.append("# TYPE trace_method_calls_total counter\n");
+        snapshot.forEach((name, methodMetrics) -> sample(sb, "trace_method_calls_total", name, null, methodMetrics.getCalls()));
+
+        sb.append("# HELP trace_method_errors_total Number of traced method calls that threw an exception.\n");
+        sb.append("# TYPE trace_method_errors_total counter\n");
+        snapshot.forEach((name, methodMetrics) -> sample(sb, "trace_method_errors_total", name, null, methodMetrics.getErrors()));
+
+        sb.append("# HELP trace_method_duration_seconds Traced method latency.\n");
+        sb.append("# TYPE trace_method_duration_seconds histogram\n");
+        snapshot.forEach((name, methodMetrics) -> {
+            long[] counts = methodMetrics.getBucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < MethodMetrics.BOUNDS_NANOS.length ? seconds(MethodMetrics.BOUNDS_NANOS[i]) : "+Inf";
+                sample(sb, "trace_method_duration_seconds_bucket", name, le, cumulative);
+            }
+            // 버킷을 다 더한 값을 count 로 써서 +Inf 버킷과 항상 일치시킨다.
+            sb.append("trace_method_duration_seconds_sum{method=\"").append(escape(name)).append("\"} ")
+                    .append(seconds(methodMetrics.getSumNanos())).append('\n');
+            sample(sb, "trace_method_duration_seconds_count", name, null, cumulative);
+        });
+        return sb.toString();
+    }
+
+    private static void sample(StringBuilder sb, String metric, String method, String le, long value) {
+        sb.append(metric).append("{method=\"").append(escape(method)).append('"');
+        if (le != null) {
+            sb.append(",le=\"").append(le).append('"');
+        }
+        sb.append("} ").append(value).append('\n');
+    }
+
+    /**
+     * 나노초를 지수 표기 없는 초 문자열로, 예) 100000 -> 0.0001 (Double.toString 은 1.0E-4)
+     */
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
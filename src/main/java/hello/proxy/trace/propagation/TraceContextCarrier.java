@@ -0,0 +1,24 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.TraceId;
+
+/**
+ * 스레드에 묶인 트레이스 컨텍스트(TraceId)를 꺼내고 다른 스레드에 붙일 수 있는 LogTrace
+ */
+public interface TraceContextCarrier {
+
+    /**
+     * 현재 스레드의 TraceId, 진행중인 트레이스가 없으면 null
+     */
+    TraceId currentTraceId();
+
+    /**
+     * 다른 스레드에서 꺼낸 TraceId 를 현재 스레드에 붙이고, 원래 있던 값을 반환한다.
+     */
+    TraceId attach(TraceId traceId);
+
+    /**
+     * attach() 가 반환한 원래 값으로 되돌린다. null 이면 ThreadLocal 을 비운다.
+     */
+    void detach(TraceId previous);
+}
@@ -0,0 +1,99 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 스레드 풀로 작업을 넘길 때 트레이스 컨텍스트를 함께 넘긴다.
+ *
+ * ThreadLocalLogTrace 는 TraceId 를 ThreadLocal 에 보관하기 때문에 작업을 다른 스레드로 넘기면 트레이스가 끊기고 새로운 루트 트레이스가 시작된다.
+ * wrap() 은 작업을 제출하는 시점에 현재 TraceId(깊이 포함)를 캡처하고, 작업 스레드에서 실행 직전에 붙였다가 실행 후 원래 값으로 되돌린다.
+ * 작업 스레드의 하위 호출은 캡처한 깊이 + 1 부터 이어진다.
+ *
+ * 비용은 제출 시 ThreadLocal 읽기 1번과 람다 1개, 실행 시 ThreadLocal 쓰기 2번이다.
+ * 진행중인 트레이스가 없으면 작업을 감싸지 않고 그대로 반환한다.
+ */
+@Slf4j
+public class TraceContextPropagator {
+
+    private final TraceContextCarrier carrier;
+
+    public TraceContextPropagator(LogTrace logTrace) {
+        if (logTrace instanceof TraceContextCarrier) {
+            this.carrier = (TraceContextCarrier) logTrace;
+        } else {
+            log.warn("{} 는 트레이스 컨텍스트 전파를 지원하지 않습니다. 작업을 감싸지 않습니다.", logTrace.getClass().getSimpleName());
+            this.carrier = null;
+        }
+    }
+
+    public Runnable wrap(Runnable task) {
+        TraceId captured = capture();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TraceId previous = carrier.attach(captured);
+            try {
+                task.run();
+            } finally {
+                carrier.detach(previous);
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        TraceId captured = capture();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TraceId previous = carrier.attach(captured);
+            try {
+                return task.call();
+            } finally {
+                carrier.detach(previous);
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        TraceId captured = capture();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            TraceId previous = carrier.attach(captured);
+            try {
+                return task.get();
+            } finally {
+                carrier.detach(previous);
+            }
+        };
+    }
+
+    /**
+     * 제출하는 모든 작업에 컨텍스트를 전파하는 Executor
+     */
+    public Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(wrap(supplier), executor);
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return CompletableFuture.runAsync(wrap(runnable), executor);
+    }
+
+    private TraceId capture() {
+        return carrier == null ? null : carrier.currentTraceId();
+    }
+}
@@ -0,0 +1,21 @@
+package hello.proxy.trace.propagation;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 스프링 ThreadPoolTaskExecutor 용 TaskDecorator
+ * 스프링 부트는 TaskDecorator 빈이 있으면 기본 applicationTaskExecutor(@Async 등)에 자동으로 적용한다.
+ */
+public class TraceTaskDecorator implements TaskDecorator {
+
+    private final TraceContextPropagator propagator;
+
+    public TraceTaskDecorator(TraceContextPropagator propagator) {
+        this.propagator = propagator;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return propagator.wrap(runnable);
+    }
+}
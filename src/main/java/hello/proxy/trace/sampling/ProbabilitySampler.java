@@ -0,0 +1,24 @@
+package hello.proxy.trace.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 확률 샘플링, probability=0.1 이면 요청의 약 10% 만 트레이스 한다.
+ * ThreadLocalRandom 을 사용하므로 스레드 간 경합이 없다.
+ */
+public class ProbabilitySampler implements TraceSampler {
+
+    private final double probability;
+
+    public ProbabilitySampler(double probability) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("probability 는 0 ~ 1 사이여야 합니다. probability=" + probability);
+        }
+        this.probability = probability;
+    }
+
+    @Override
+    public boolean isSampled() {
+        return probability >= 1 || (probability > 0 && ThreadLocalRandom.current().nextDouble() < probability);
+    }
+}
@@ -0,0 +1,44 @@
+package hello.proxy.trace.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 초당 최대 maxTracesPerSecond 개까지만 샘플링한다.
+ * 상태(현재 1초 구간 번호, 구간 안의 개수)를 AtomicLong 하나에 담아서 CAS 로 갱신한다.
+ *   상위 32비트 : 구간 번호 (nanoTime / 1초)
+ *   하위 32비트 : 구간 안에서 샘플링한 개수
+ */
+public class RateLimitingSampler implements TraceSampler {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final int maxTracesPerSecond;
+    private final AtomicLong state = new AtomicLong();
+
+    public RateLimitingSampler(int maxTracesPerSecond) {
+        this.maxTracesPerSecond = maxTracesPerSecond;
+    }
+
+    @Override
+    public boolean isSampled() {
+        long window = (System.nanoTime() / WINDOW_NANOS) & COUNT_MASK;
+        while (true) {
+            long current = state.get();
+            long currentWindow = current >>> 32;
+            long count = current & COUNT_MASK;
+            long next;
+            if (window != currentWindow) {
+                next = (window << 32) | 1; // 새 구간
+            } else if (count < maxTracesPerSecond) {
+                next = current + 1;
+            } else {
+                return false; // 이번 구간은 이미 가득 찼다.
+            }
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
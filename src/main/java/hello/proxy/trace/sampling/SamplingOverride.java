@@ -0,0 +1,26 @@
+package hello.proxy.trace.sampling;
+
+/**
+ * 요청 단위로 샘플링을 강제한다. (예: 요청 헤더 X-Trace-Force: true)
+ * 샘플러 결과와 상관없이 현재 스레드에서 시작하는 루트 트레이스는 샘플링된다.
+ * 반드시 finally 에서 clear() 를 호출해서 스레드 풀에 값이 남지 않게 해야 한다.
+ */
+public final class SamplingOverride {
+
+    private static final ThreadLocal<Boolean> forced = new ThreadLocal<>();
+
+    private SamplingOverride() {
+    }
+
+    public static void force() {
+        forced.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        forced.remove();
+    }
+
+    public static boolean isForced() {
+        return forced.get() != null;
+    }
+}
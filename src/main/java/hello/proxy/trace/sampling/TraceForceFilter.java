@@ -0,0 +1,37 @@
+package hello.proxy.trace.sampling;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 헤더(기본 X-Trace-Force)가 true 이면 해당 요청은 샘플링 여부와 상관없이 트레이스 한다.
+ * 필터는 컨트롤러 프록시보다 먼저 실행되므로 루트 TraceId 를 만들기 전에 값이 설정된다.
+ */
+public class TraceForceFilter extends OncePerRequestFilter {
+
+    private final String headerName;
+
+    public TraceForceFilter(String headerName) {
+        this.headerName = headerName;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!"true".equalsIgnoreCase(request.getHeader(headerName))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SamplingOverride.force();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SamplingOverride.clear();
+        }
+    }
+}
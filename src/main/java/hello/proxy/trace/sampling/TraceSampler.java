@@ -0,0 +1,21 @@
+package hello.proxy.trace.sampling;
+
+/**
+ * 헤드 기반 샘플링 결정
+ * 루트 TraceId 를 만들 때 한 번만 호출된다. 결정은 요청이 끝날 때까지 하위 호출에도 그대로 적용된다.
+ */
+@FunctionalInterface
+public interface TraceSampler {
+
+    TraceSampler ALWAYS = () -> true;
+    TraceSampler NEVER = () -> false;
+
+    boolean isSampled();
+
+    /**
+     * 두 샘플러가 모두 통과해야 샘플링한다. 예) 확률 10% 중에서 초당 최대 100개
+     */
+    default TraceSampler and(TraceSampler other) {
+        return () -> isSampled() && other.isSampled();
+    }
+}
@@ -0,0 +1,17 @@
+package hello.proxy.trace.span;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 트레이스 하나를 로그 한 줄로 남긴다.
+ */
+@Slf4j
+public class LoggingTraceRecordSink implements TraceRecordSink {
+
+    @Override
+    public void accept(TraceRecord record) {
+        if (log.isInfoEnabled()) {
+            log.info(record.toCompactString());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package hello.proxy.trace.span;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 최근에 끝난 트레이스를 메모리에 보관하고 조회한다.
+ *
+ * 크기가 고정된 링에 capacity 개까지만 보관하고, 가득 차면 가장 오래된 트레이스를 덮어쓴다.
+ * TraceRecord 하나의 Span 수도 SpanTreeLogTrace 의 maxSpans 로 제한되므로 전체 메모리 사용량이 고정된다.
+ *
+ * traceId 로는 맵에서 바로 찾는다.
+ * 루트 메시지, 시간 범위, 소요 시간, 예외 여부 조건(TraceQuery)은 링 전체를 훑는다.
+ * 링은 수천 개 수준이라 조회할 때 훑는 비용이 요청마다 보조 인덱스를 갱신하는 비용보다 싸다. 기록(accept)은 배열 쓰기와 맵 갱신뿐이다.
+ */
+public class RecentTraceIndex implements TraceRecordSink {
+
+    private final TraceRecord[] ring;
+    private final Map<String, TraceRecord> byTraceId;
+    private long sequence; // this 로 보호
+
+    public RecentTraceIndex(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다. capacity=" + capacity);
+        }
+        this.ring = new TraceRecord[capacity];
+        this.byTraceId = new HashMap<>(capacity * 2);
+    }
+
+    @Override
+    public synchronized void accept(TraceRecord record) {
+        int index = (int) (sequence++ % ring.length);
+        TraceRecord evicted = ring[index];
+        if (evicted != null) {
+            byTraceId.remove(evicted.getTraceId(), evicted);
+        }
+        ring[index] = record;
+        byTraceId.put(record.getTraceId(), record);
+    }
+
+    public synchronized TraceRecord find(String traceId) {
+        return byTraceId.get(traceId);
+    }
+
+    public List<TraceRecord> query(TraceQuery query) {
+        long nowMs = System.currentTimeMillis();
+        Comparator<TraceRecord> order = query.getOrder() == TraceQuery.Order.SLOWEST
+                ? Comparator.comparingLong(TraceRecord::getDurationNanos).reversed()
+                : Comparator.comparingLong(TraceRecord::getStartTimeMs).reversed();
+        return Arrays.stream(snapshot())
+                .filter(Objects::nonNull)
+                .filter(record -> query.matches(record, nowMs))
+                .sorted(order)
+                .limit(query.getLimit())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 보관중인 트레이스의 루트 메시지별 개수
+     */
+    public Map<String, Long> roots() {
+        return Arrays.stream(snapshot())
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(record -> record.getRoot().getMessage(), TreeMap::new, Collectors.counting()));
+    }
+
+    public synchronized int size() {
+        return (int) Math.min(sequence, ring.length);
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    private synchronized TraceRecord[] snapshot() {
+        return ring.clone();
+    }
+}
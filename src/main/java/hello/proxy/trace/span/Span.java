@@ -0,0 +1,55 @@
+package hello.proxy.trace.span;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트레이스 안의 호출 하나 (begin ~ end/exception)
+ * level 은 TraceId 의 level 과 같다. 루트는 0 이다.
+ */
+public class Span {
+
+    private final String message;
+    private final int level;
+    private final long startNanos;
+    private long durationNanos;
+    private String error; // 예외로 끝난 경우 e.toString()
+
+    public Span(String message, int level, long startNanos) {
+        this.message = message;
+        this.level = level;
+        this.startNanos = startNanos;
+    }
+
+    public void finish(long endNanos, Exception e) {
+        this.durationNanos = endNanos - startNanos;
+        this.error = e == null ? null : e.toString();
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDurationMs() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+}
@@ -0,0 +1,44 @@
+package hello.proxy.trace.span;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 테일 기반 샘플링
+ *
+ * 루트 트레이스가 끝난 뒤 결과를 보고 남길지 정한다. 다음 중 하나라도 만족하는 트레이스만 delegate 에 넘기고 나머지는 버린다.
+ *   - 전체 소요 시간(루트 Span)이 threshold 이상 (느린 요청)
+ *   - 예외(<X-)로 끝난 Span 이 하나라도 있음 (예: itemId=ex)
+ * Span 은 SpanTreeLogTrace 가 트레이스 당 maxSpans 개까지만 모으므로 버퍼 크기도 제한된다.
+ */
+public class TailSamplingTraceRecordSink implements TraceRecordSink {
+
+    private final long thresholdNanos;
+    private final TraceRecordSink delegate;
+
+    private final LongAdder keptCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public TailSamplingTraceRecordSink(long threshold, TimeUnit unit, TraceRecordSink delegate) {
+        this.thresholdNanos = unit.toNanos(threshold);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void accept(TraceRecord record) {
+        if (record.getDurationNanos() >= thresholdNanos || record.hasError()) {
+            keptCount.increment();
+            delegate.accept(record);
+        } else {
+            droppedCount.increment();
+        }
+    }
+
+    public long getKeptCount() {
+        return keptCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+}
@@ -0,0 +1,54 @@
+package hello.proxy.trace.span;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecentTraceIndex 조회 조건
+ *
+ * 예) 최근 1분 동안 OrderControllerV3.request 트레이스 중 가장 느린 50개
+ * new TraceQuery("OrderControllerV3.request", 60_000, 0, false, TraceQuery.Order.SLOWEST, 50)
+ */
+public class TraceQuery {
+
+    public enum Order {
+        SLOWEST, // 소요 시간 내림차순
+        RECENT // 시작 시각 내림차순
+    }
+
+    private final String rootMessage; // 루트 메시지에 포함된 문자열, null 이면 전체
+    private final long windowMs; // 최근 windowMs 안에 시작한 트레이스, 0 이면 전체
+    private final long minDurationNanos;
+    private final boolean errorOnly; // 예외(<X-)가 있는 트레이스만
+    private final Order order;
+    private final int limit;
+
+    public TraceQuery(String rootMessage, long windowMs, long minDurationMs, boolean errorOnly, Order order, int limit) {
+        this.rootMessage = rootMessage == null || rootMessage.isEmpty() ? null : rootMessage;
+        this.windowMs = windowMs;
+        this.minDurationNanos = TimeUnit.MILLISECONDS.toNanos(minDurationMs);
+        this.errorOnly = errorOnly;
+        this.order = order;
+        this.limit = limit;
+    }
+
+    boolean matches(TraceRecord record, long nowMs) {
+        if (rootMessage != null && !record.getRoot().getMessage().contains(rootMessage)) {
+            return false;
+        }
+        if (windowMs > 0 && record.getStartTimeMs() < nowMs - windowMs) {
+            return false;
+        }
+        if (record.getDurationNanos() < minDurationNanos) {
+            return false;
+        }
+        return !errorOnly || record.hasError();
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
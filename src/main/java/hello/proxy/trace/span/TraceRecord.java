@@ -0,0 +1,102 @@
+package hello.proxy.trace.span;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 루트 트레이스 하나에 속한 모든 Span
+ * spans 는 호출 순서(pre-order)로 들어 있고, 첫 번째가 루트이다. level 로 트리를 복원할 수 있다.
+ */
+public class TraceRecord {
+
+    private final String traceId;
+    private final long startTimeMs;
+    private final List<Span> spans;
+    private final int truncatedSpans;
+    private final boolean error;
+
+    public TraceRecord(String traceId, long startTimeMs, List<Span> spans, int truncatedSpans) {
+        this(traceId, startTimeMs, spans, truncatedSpans, false);
+    }
+
+    /**
+     * truncatedError : maxSpans 를 넘어서 Span 을 남기지 못한 호출 중에 예외로 끝난 것이 있다.
+     */
+    public TraceRecord(String traceId, long startTimeMs, List<Span> spans, int truncatedSpans, boolean truncatedError) {
+        this.traceId = traceId;
+        this.startTimeMs = startTimeMs;
+        this.spans = Collections.unmodifiableList(spans);
+        this.truncatedSpans = truncatedSpans;
+        this.error = truncatedError || spans.stream().anyMatch(Span::isError);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    public Span getRoot() {
+        return spans.get(0);
+    }
+
+    public long getDurationNanos() {
+        return getRoot().getDurationNanos();
+    }
+
+    public List<Span> getSpans() {
+        return spans;
+    }
+
+    public int getTruncatedSpans() {
+        return truncatedSpans;
+    }
+
+    /**
+     * 하나라도 예외(<X-)로 끝난 Span 이 있으면 true, 잘려서 남지 않은 Span 도 포함한다.
+     */
+    public boolean hasError() {
+        return error;
+    }
+
+    /**
+     * 한 줄 요약
+     * [id] OrderControllerV1.request()=1003ms {OrderServiceV1.orderItem()=1002ms {OrderRepositoryV1.save()=1001ms}}
+     */
+    public String toCompactString() {
+        StringBuilder sb = new StringBuilder(64 + spans.size() * 48);
+        sb.append('[').append(traceId).append("] ");
+        int previousLevel = -1;
+        for (Span span : spans) {
+            if (previousLevel >= 0) {
+                if (span.getLevel() > previousLevel) {
+                    sb.append(" {");
+                } else {
+                    for (int i = span.getLevel(); i < previousLevel; i++) {
+                        sb.append('}');
+                    }
+                    sb.append(", ");
+                }
+            }
+            sb.append(span.getMessage()).append('=').append(span.getDurationMs()).append("ms");
+            if (span.isError()) {
+                sb.append(" ex=").append(span.getError());
+            }
+            previousLevel = span.getLevel();
+        }
+        for (int i = 0; i < previousLevel; i++) {
+            sb.append('}');
+        }
+        if (truncatedSpans > 0) {
+            sb.append(" (+").append(truncatedSpans).append(" spans truncated)");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toCompactString();
+    }
+}
@@ -0,0 +1,20 @@
+package hello.proxy.trace.span;
+
+/**
+ * 루트 트레이스가 끝났을 때 TraceRecord 를 받아서 처리한다. (로그 출력, 샘플링, 인덱스 저장 ...)
+ * 요청 스레드에서 호출되므로 오래 걸리는 작업은 하면 안된다.
+ */
+public interface TraceRecordSink {
+
+    void accept(TraceRecord record);
+
+    /**
+     * 이 sink 다음에 next 에도 넘긴다.
+     */
+    default TraceRecordSink andThen(TraceRecordSink next) {
+        return record -> {
+            accept(record);
+            next.accept(record);
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package hello.proxy.trace.web;
+
+import hello.proxy.trace.metrics.LatencyHistogramRegistry;
+import hello.proxy.trace.metrics.LatencySnapshot;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 메서드별 지연 시간 분포 조회
+ * 로그를 파싱하지 않고도 p50/p99/p999/max 를 바로 볼 수 있다.
+ *
+ * 주의: hello.proxy.app 패키지에 두면 LogTraceAspect 포인트컷에 걸려서 조회 자체가 트레이스 된다. 그래서 trace 패키지에 두고 빈으로 직접 등록한다.
+ */
+@RestController
+public class LatencyController {
+
+    private final LatencyHistogramRegistry latencyHistograms;
+
+    public LatencyController(LatencyHistogramRegistry latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    @GetMapping("/trace/latency")
+    public Map<String, LatencySnapshot> latency() {
+        return latencyHistograms.snapshot();
+    }
+
+    @GetMapping(value = "/trace/latency/report", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String report() {
+        return latencyHistograms.report();
+    }
+}
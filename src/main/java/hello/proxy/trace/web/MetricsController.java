@@ -0,0 +1,26 @@
+package hello.proxy.trace.web;
+
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * LogTraceAspect 가 기록한 메서드별 호출 수, 예외 수, 지연 시간 분포를 Prometheus 텍스트 형식으로 내보낸다.
+ * scrape 설정 예) metrics_path: /trace/metrics
+ */
+@RestController
+public class MetricsController {
+
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MethodMetricsRegistry methodMetrics;
+
+    public MetricsController(MethodMetricsRegistry methodMetrics) {
+        this.methodMetrics = methodMetrics;
+    }
+
+    @GetMapping(value = "/trace/metrics", produces = PROMETHEUS_TEXT)
+    public String metrics() {
+        return methodMetrics.render();
+    }
+}
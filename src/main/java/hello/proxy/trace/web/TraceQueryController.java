@@ -0,0 +1,126 @@
+package hello.proxy.trace.web;
+
+import hello.proxy.trace.span.RecentTraceIndex;
+import hello.proxy.trace.span.TraceQuery;
+import hello.proxy.trace.span.TraceRecord;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 최근 트레이스 조회 (RecentTraceIndex)
+ * span-tree, tail-sampling 모드에서만 트레이스가 쌓인다.
+ *
+ * /trace/recent?root=OrderControllerV3.request&windowSec=60&sort=slowest&limit=50 : 최근 1분 동안 가장 느린 50개
+ * /trace/recent?error=true : 예외(<X-)가 있는 트레이스
+ * /trace/recent/{traceId} : 트레이스 하나
+ * /trace/recent/roots : 루트 메시지별 개수
+ *
+ * sort(slowest, recent)가 아니거나 limit 이 음수이면 400
+ */
+@RestController
+public class TraceQueryController {
+
+    private final RecentTraceIndex index;
+
+    public TraceQueryController(RecentTraceIndex index) {
+        this.index = index;
+    }
+
+    @GetMapping("/trace/recent")
+    public List<TraceSummary> recent(@RequestParam(required = false) String root,
+                                     @RequestParam(defaultValue = "0") long windowSec,
+                                     @RequestParam(defaultValue = "0") long minMs,
+                                     @RequestParam(defaultValue = "false") boolean error,
+                                     @RequestParam(defaultValue = "recent") String sort,
+                                     @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit 은 0 이상이어야 합니다. limit=" + limit);
+        }
+        TraceQuery.Order order = order(sort);
+        TraceQuery query = new TraceQuery(root, TimeUnit.SECONDS.toMillis(windowSec), minMs, error, order, limit);
+        return index.query(query).stream()
+                .map(TraceSummary::new)
+                .collect(Collectors.toList());
+    }
+
+    private static TraceQuery.Order order(String sort) {
+        for (TraceQuery.Order order : TraceQuery.Order.values()) {
+            if (order.name().equalsIgnoreCase(sort)) {
+                return order;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "sort 값이 올바르지 않습니다. sort=" + sort + ", 가능한 값=" + Arrays.toString(TraceQuery.Order.values()).toLowerCase());
+    }
+
+    @GetMapping("/trace/recent/roots")
+    public Map<String, Long> roots() {
+        return index.roots();
+    }
+
+    @GetMapping("/trace/recent/{traceId}")
+    public ResponseEntity<TraceSummary> find(@PathVariable String traceId) {
+        TraceRecord record = index.find(traceId);
+        return record == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(new TraceSummary(record));
+    }
+
+    public static class TraceSummary {
+
+        private final String traceId;
+        private final String root;
+        private final long startTimeMs;
+        private final long durationMs;
+        private final boolean error;
+        private final int spanCount;
+        private final String tree;
+
+        TraceSummary(TraceRecord record) {
+            this.traceId = record.getTraceId();
+            this.root = record.getRoot().getMessage();
+            this.startTimeMs = record.getStartTimeMs();
+            this.durationMs = record.getRoot().getDurationMs();
+            this.error = record.hasError();
+            this.spanCount = record.getSpans().size() + record.getTruncatedSpans();
+            this.tree = record.toCompactString();
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public String getRoot() {
+            return root;
+        }
+
+        public long getStartTimeMs() {
+            return startTimeMs;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public boolean isError() {
+            return error;
+        }
+
+        public int getSpanCount() {
+            return spanCount;
+        }
+
+        public String getTree() {
+            return tree;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package hello.proxy.advisor;
 
+import hello.proxy.blueprint.ProxyBlueprints;
 import hello.proxy.common.advice.TimeAdvice;
 import hello.proxy.common.service.ServiceImpl;
 import hello.proxy.common.service.ServiceInterface;
@@ -9,10 +10,19 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static org.assertj.core.api.Assertions.*;
+
 public class MultiAdvisorTest {
 
     @Test
@@ -66,6 +76,89 @@ public class MultiAdvisorTest {
 
     }
 
+    @Test
+    @DisplayName("이미 프록시인 대상은 감싸지 않고 어드바이저 체인을 합친다")
+    public void flattenNestedProxy() throws Exception {
+        // client -> proxy2(advisor2) -> proxy1(advisor1) -> target  =>  client -> proxy2(advisor2, advisor1) -> target
+        List<String> calls = new ArrayList<>();
+        DefaultPointcutAdvisor advisor1 = new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1", calls));
+        DefaultPointcutAdvisor advisor2 = new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice2", calls));
+
+        ServiceInterface target = new ServiceImpl();
+        ProxyFactory proxyFactory1 = new ProxyFactory(target);
+        proxyFactory1.addAdvisor(advisor1);
+        ServiceInterface proxy1 = (ServiceInterface) proxyFactory1.getProxy();
+
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+        ServiceInterface proxy2 = (ServiceInterface) blueprints.getProxy("service", proxy1, advisor2);
+        proxy2.save();
+
+        assertThat(proxy2).isNotSameAs(proxy1);
+        assertThat(((Advised) proxy2).getAdvisors()).containsExactly(advisor2, advisor1);
+        assertThat(((Advised) proxy2).getTargetSource()).isSameAs(proxyFactory1.getTargetSource());
+        assertThat(calls).containsExactly("advice2", "advice1"); // 감쌌을 때와 같은 순서
+        assertThat(blueprints.getFlattenedBeans()).containsExactly("service");
+
+        calls.clear();
+        proxy1.save();
+        assertThat(((Advised) proxy1).getAdvisors()).containsExactly(advisor1); // 기존 프록시는 바꾸지 않는다.
+        assertThat(calls).containsExactly("advice1");
+    }
+
+    @Test
+    @DisplayName("합친 프록시는 기존 프록시의 인터페이스를 그대로 노출한다")
+    public void flattenKeepsProxiedInterfaces() throws Exception {
+        DefaultPointcutAdvisor advisor1 = new DefaultPointcutAdvisor(Pointcut.TRUE, new Advice1());
+        DefaultPointcutAdvisor advisor2 = new DefaultPointcutAdvisor(Pointcut.TRUE, new Advice2());
+
+        ProxyFactory proxyFactory1 = new ProxyFactory(new ServiceImpl());
+        proxyFactory1.addInterface(RandomAccess.class); // 대상 클래스에 없는 인터페이스를 직접 추가
+        proxyFactory1.addAdvisor(advisor1);
+        proxyFactory1.setFrozen(true);
+        Object proxy1 = proxyFactory1.getProxy();
+
+        Object proxy2 = new ProxyBlueprints().getProxy("service", proxy1, advisor2);
+
+        assertThat(proxy2).isInstanceOf(ServiceInterface.class).isInstanceOf(RandomAccess.class);
+        assertThat(((Advised) proxy2).getProxiedInterfaces()).contains(ServiceInterface.class, RandomAccess.class);
+    }
+
+    @Test
+    @DisplayName("frozen 프록시는 원본 대상으로 합친 체인의 프록시를 새로 만든다")
+    public void flattenFrozenProxy() throws Exception {
+        List<String> calls = new ArrayList<>();
+        DefaultPointcutAdvisor advisor1 = new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1", calls));
+        DefaultPointcutAdvisor advisor2 = new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice2", calls));
+
+        ServiceImpl target = new ServiceImpl();
+        ProxyBlueprints blueprints = new ProxyBlueprints(new DefaultAopProxyFactory(), false, true);
+        ServiceInterface proxy1 = (ServiceInterface) blueprints.getProxy("service", target, advisor1);
+        ServiceInterface proxy2 = (ServiceInterface) blueprints.getProxy("service", proxy1, advisor2);
+        proxy2.save();
+
+        assertThat(proxy2).isNotSameAs(proxy1);
+        assertThat(((Advised) proxy2).getTargetSource().getTarget()).isSameAs(target); // 프록시가 아니라 원본을 호출
+        assertThat(AopUtils.getTargetClass(proxy2)).isEqualTo(ServiceImpl.class);
+        assertThat(calls).containsExactly("advice2", "advice1");
+        assertThat(blueprints.getFlattenedBeans()).containsExactly("service");
+    }
+
+    static class RecordingAdvice implements MethodInterceptor {
+        private final String name;
+        private final List<String> calls;
+
+        RecordingAdvice(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            calls.add(name);
+            return invocation.proceed();
+        }
+    }
+
     @Slf4j
     static class Advice1 implements MethodInterceptor {
         @Override
@@ -0,0 +1,124 @@
+package hello.proxy.blueprint;
+
+import hello.proxy.common.service.ConcreteService;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProxyBlueprintsTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Advisor advisor() {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("save", "call");
+        MethodInterceptor advice = invocation -> {
+            calls.incrementAndGet();
+            return invocation.proceed();
+        };
+        return new DefaultPointcutAdvisor(pointcut, advice);
+    }
+
+    @Test
+    public void sameClassAndAdvisorShareBlueprint() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+        Advisor advisor = advisor();
+
+        ServiceInterface proxy1 = (ServiceInterface) blueprints.getProxy(new ServiceImpl(), advisor);
+        ServiceInterface proxy2 = (ServiceInterface) blueprints.getProxy(new ServiceImpl(), advisor);
+
+        assertThat(blueprints.size()).isEqualTo(1);
+        assertThat(AopUtils.isJdkDynamicProxy(proxy1)).isTrue();
+        assertThat(proxy1.getClass()).isSameAs(proxy2.getClass());
+        assertThat(blueprints.blueprint(ServiceImpl.class, advisor).getProxyClass()).isSameAs(proxy1.getClass());
+    }
+
+    @Test
+    public void differentAdvisorCreatesNewBlueprint() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+
+        blueprints.getProxy(new ServiceImpl(), advisor());
+        blueprints.getProxy(new ServiceImpl(), advisor());
+
+        assertThat(blueprints.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void interceptorListsAreShared() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+        Advisor advisor = advisor();
+
+        Advised proxy1 = (Advised) blueprints.getProxy(new ServiceImpl(), advisor);
+        Advised proxy2 = (Advised) blueprints.getProxy(new ServiceImpl(), advisor);
+
+        var save = ServiceInterface.class.getMethod("save");
+        ProxyBlueprint blueprint = blueprints.blueprint(ServiceImpl.class, advisor);
+        assertThat(blueprint.interceptors(save, ServiceImpl.class))
+                .isSameAs(blueprint.interceptors(save, ServiceImpl.class))
+                .hasSize(1);
+        assertThat(blueprint.interceptors(ServiceInterface.class.getMethod("find"), ServiceImpl.class)).isEmpty();
+        assertThat(proxy1.isFrozen()).isFalse(); // CGLIB 프록시마다 고정 인터셉터를 만들지 않는다.
+        assertThat(proxy2.getTargetSource().getTarget()).isNotSameAs(proxy1.getTargetSource().getTarget());
+    }
+
+    @Test
+    public void adviceIsApplied() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+        Advisor advisor = advisor();
+
+        ServiceInterface jdkProxy = (ServiceInterface) blueprints.getProxy(new ServiceImpl(), advisor);
+        ConcreteService cglibProxy = (ConcreteService) blueprints.getProxy(new ConcreteService(), advisor);
+        ConcreteService cglibProxy2 = (ConcreteService) blueprints.getProxy(new ConcreteService(), advisor);
+
+        jdkProxy.save();
+        jdkProxy.find(); // 포인트컷 대상 아님
+        cglibProxy.call();
+        cglibProxy2.call();
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(AopUtils.isCglibProxy(cglibProxy)).isTrue();
+        assertThat(cglibProxy.getClass()).isSameAs(cglibProxy2.getClass());
+    }
+
+    @Test
+    public void advisorAddedLaterIsApplied() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints();
+        Advisor advisor = advisor();
+        ServiceInterface proxy1 = (ServiceInterface) blueprints.getProxy(new ServiceImpl(), advisor);
+        ServiceInterface proxy2 = (ServiceInterface) blueprints.getProxy(new ServiceImpl(), advisor);
+
+        ((Advised) proxy1).addAdvisor(advisor());
+        proxy1.save();
+        proxy2.save();
+
+        assertThat(calls.get()).isEqualTo(3); // proxy1 만 어드바이스 두 개, 설계도의 목록은 그대로
+    }
+
+    @Test
+    public void frozenBlueprints() throws Exception {
+        ProxyBlueprints blueprints = new ProxyBlueprints(new DefaultAopProxyFactory(), false, true);
+
+        Advised proxy = (Advised) blueprints.getProxy(new ServiceImpl(), advisor());
+
+        assertThat(proxy.isFrozen()).isTrue();
+    }
+
+    @Test
+    public void targetClassMustMatchBlueprint() throws Exception {
+        ProxyBlueprint blueprint = new ProxyBlueprints().blueprint(ServiceImpl.class, advisor());
+
+        assertThatThrownBy(() -> blueprint.createProxy(new ConcreteService()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
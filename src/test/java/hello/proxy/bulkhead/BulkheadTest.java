@@ -0,0 +1,212 @@
+package hello.proxy.bulkhead;
+
+import hello.proxy.app.v3.OrderRepositoryV3;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class BulkheadTest {
+
+    @Test
+    public void rejectWhenFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 0, TimeUnit.MILLISECONDS);
+
+        bulkhead.acquire();
+        bulkhead.acquire();
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("name=test");
+        assertThat(bulkhead.getInUse()).isEqualTo(2);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+
+        bulkhead.release();
+        bulkhead.acquire();
+        assertThat(bulkhead.getAcquiredCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void waitForPermit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 5, TimeUnit.SECONDS);
+        bulkhead.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiting = executor.submit(bulkhead::acquire);
+            Thread.sleep(50);
+            assertThat(waiting.isDone()).isFalse();
+
+            bulkhead.release();
+            waiting.get(5, TimeUnit.SECONDS);
+            assertThat(bulkhead.getInUse()).isEqualTo(1);
+            assertThat(bulkhead.getRejectedCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void waitTimeout() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 20, TimeUnit.MILLISECONDS);
+        bulkhead.acquire();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void interruptWhileWaiting() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 5, TimeUnit.SECONDS);
+        bulkhead.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> waiting = executor.submit(bulkhead::acquire);
+            Thread.sleep(50);
+            waiting.cancel(true); // 기다리는 스레드를 인터럽트한다.
+
+            // 거절이 아니라 인터럽트다.
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(bulkhead.getInUse()).isEqualTo(1);
+            assertThat(bulkhead.getAcquiredCount()).isEqualTo(1);
+            assertThat(bulkhead.getRejectedCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void interruptedException() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 5, TimeUnit.SECONDS);
+        Thread.currentThread().interrupt();
+        try {
+            bulkhead.acquire(); // 허가가 남아 있으면 기다리지 않으므로 인터럽트와 상관없이 얻는다.
+            assertThatThrownBy(bulkhead::acquire)
+                    .isInstanceOf(BulkheadInterruptedException.class)
+                    .hasMessageContaining("name=test")
+                    .hasCauseInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue(); // 인터럽트 상태를 지우지 않는다.
+            assertThat(bulkhead.getRejectedCount()).isZero();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void interruptThroughProxy() throws Exception {
+        BulkheadRegistry registry = new BulkheadRegistry(1, 5, TimeUnit.SECONDS);
+        BlockingRepository target = new BlockingRepository();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(BulkheadInterceptor.advisor(registry, "save"));
+        BlockingRepository proxy = (BlockingRepository) proxyFactory.getProxy();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> proxy.save("itemA"));
+            assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Thread.currentThread().interrupt();
+            assertThatThrownBy(() -> proxy.save("itemB"))
+                    .isInstanceOf(BulkheadInterruptedException.class); // UndeclaredThrowableException 으로 감싸지지 않는다.
+            assertThat(Thread.interrupted()).isTrue();
+            assertThat(registry.snapshot().get("BlockingRepository.save(String)").getRejected()).isZero();
+        } finally {
+            Thread.interrupted();
+            target.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void releaseWithoutAcquire() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, TimeUnit.MILLISECONDS);
+
+        assertThatThrownBy(bulkhead::release).isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getInUse()).isZero();
+
+        bulkhead.acquire();
+        bulkhead.release();
+        assertThatThrownBy(bulkhead::release).isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getInUse()).isZero();
+    }
+
+    @Test
+    public void proxyFactory() throws Exception {
+        BulkheadRegistry registry = new BulkheadRegistry(1, 0, TimeUnit.MILLISECONDS);
+        BlockingRepository target = new BlockingRepository();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(BulkheadInterceptor.advisor(registry, "save"));
+        BlockingRepository proxy = (BlockingRepository) proxyFactory.getProxy();
+
+        assertOneAtATime(proxy, target, registry);
+    }
+
+    @Test
+    public void aspect() throws Exception {
+        BulkheadRegistry registry = new BulkheadRegistry(1, 0, TimeUnit.MILLISECONDS);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new OrderRepositoryV3());
+        proxyFactory.addAspect(new BulkheadAspect(registry));
+        OrderRepositoryV3 proxy = proxyFactory.getProxy();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> proxy.save("itemA")); // 1초 걸린다.
+            while (registry.snapshot().isEmpty() || registry.snapshot().get("OrderRepositoryV3.save(String)").getInUse() == 0) {
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> proxy.save("itemB")).isInstanceOf(BulkheadFullException.class);
+            first.get(5, TimeUnit.SECONDS);
+
+            BulkheadSnapshot snapshot = registry.snapshot().get("OrderRepositoryV3.save(String)");
+            assertThat(snapshot.getInUse()).isZero();
+            assertThat(snapshot.getAcquired()).isEqualTo(1);
+            assertThat(snapshot.getRejected()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertOneAtATime(BlockingRepository proxy, BlockingRepository target, BulkheadRegistry registry) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> proxy.save("itemA"));
+            assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> proxy.save("itemB")).isInstanceOf(BulkheadFullException.class);
+            BulkheadSnapshot snapshot = registry.snapshot().get("BlockingRepository.save(String)");
+            assertThat(snapshot.getInUse()).isEqualTo(1);
+            assertThat(snapshot.getRejected()).isEqualTo(1);
+
+            target.release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertThat(registry.snapshot().get("BlockingRepository.save(String)").getInUse()).isZero();
+        } finally {
+            target.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    static class BlockingRepository {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public void save(String itemId) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
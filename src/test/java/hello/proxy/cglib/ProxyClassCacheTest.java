@@ -0,0 +1,156 @@
+package hello.proxy.cglib;
+
+import hello.proxy.common.service.ConcreteService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 기동을 흉내내기 위해 매번 새 클래스 로더에 프록시를 만든다. (CGLIB 는 같은 클래스 로더 안에서는 메모리 캐시로 재사용한다.)
+ */
+public class ProxyClassCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void trainThenReuse() throws Exception {
+        ProxyClassCache training = new ProxyClassCache(directory);
+        AtomicInteger calls = new AtomicInteger();
+        ConcreteService first = createProxy(training, "call", calls);
+        first.call();
+
+        assertThat(training.getMisses()).isEqualTo(1);
+        assertThat(training.getHits()).isZero();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".class"))).hasSize(1);
+        }
+
+        ProxyClassCache restarted = new ProxyClassCache(directory);
+        ConcreteService second = createProxy(restarted, "call", calls);
+        second.call();
+
+        assertThat(restarted.getHits()).isEqualTo(1);
+        assertThat(restarted.getMisses()).isZero();
+        assertThat(second.getClass().getName()).isEqualTo(first.getClass().getName()); // 학습 실행에서 만든 클래스
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void pointcutChangeIsStale() throws Exception {
+        ProxyClassCache training = new ProxyClassCache(directory);
+        createProxy(training, "call", new AtomicInteger());
+
+        ProxyClassCache restarted = new ProxyClassCache(directory);
+        AtomicInteger calls = new AtomicInteger();
+        createProxy(restarted, "other", calls).call();
+
+        assertThat(restarted.getHits()).isZero();
+        assertThat(restarted.getMisses()).isEqualTo(1);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    public void corruptedFileIsRegenerated() throws Exception {
+        createProxy(new ProxyClassCache(directory), "call", new AtomicInteger());
+        Path file = cachedFile();
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1; // 바이트코드가 깨졌다.
+        Files.write(file, content);
+
+        ProxyClassCache restarted = new ProxyClassCache(directory);
+        AtomicInteger calls = new AtomicInteger();
+        createProxy(restarted, "call", calls).call();
+
+        assertThat(restarted.getHits()).isZero();
+        assertThat(restarted.getMisses()).isEqualTo(1);
+        assertThat(restarted.getCorrupted()).isEqualTo(1);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void undefinableClassIsRegenerated() throws Exception {
+        createProxy(new ProxyClassCache(directory), "call", new AtomicInteger());
+        Path file = cachedFile();
+        rewrite(file, bytes -> Arrays.copyOf(bytes, bytes.length - 16)); // 해시는 맞지만 정의하면 ClassFormatError
+
+        ProxyClassCache restarted = new ProxyClassCache(directory);
+        AtomicInteger calls = new AtomicInteger();
+        createProxy(restarted, "call", calls).call();
+
+        assertThat(restarted.getHits()).isZero();
+        assertThat(restarted.getMisses()).isEqualTo(1);
+        assertThat(restarted.getCorrupted()).isEqualTo(1);
+        assertThat(calls).hasValue(1);
+
+        ProxyClassCache again = new ProxyClassCache(directory);
+        createProxy(again, "call", calls).call();
+        assertThat(again.getHits()).isEqualTo(1); // 다시 생성한 바이트코드를 저장했다.
+    }
+
+    private Path cachedFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".class")).findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * 파일 형식 : MAGIC, 생성 시간, SHA-256, 길이, 바이트코드
+     */
+    private static void rewrite(Path file, UnaryOperator<byte[]> change) throws Exception {
+        int magic;
+        long generationNanos;
+        byte[] bytes;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            magic = in.readInt();
+            generationNanos = in.readLong();
+            in.readFully(new byte[32]);
+            bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+        }
+        byte[] changed = change.apply(bytes);
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(out)) {
+            data.writeInt(magic);
+            data.writeLong(generationNanos);
+            data.write(MessageDigest.getInstance("SHA-256").digest(changed));
+            data.writeInt(changed.length);
+            data.write(changed);
+        }
+    }
+
+    private static ConcreteService createProxy(ProxyClassCache cache, String mappedName, AtomicInteger calls) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedName(mappedName);
+        MethodInterceptor advice = invocation -> {
+            calls.incrementAndGet();
+            return invocation.proceed();
+        };
+
+        ProxyFactory proxyFactory = new ProxyFactory(new ConcreteService());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(pointcut, advice));
+        proxyFactory.setAopProxyFactory(new CachingAopProxyFactory(cache));
+        proxyFactory.setFrozen(true); // 포인트컷 매칭 결과는 frozen 일 때만 프록시 클래스에 반영된다.
+        ClassLoader classLoader = new URLClassLoader(new URL[0], ConcreteService.class.getClassLoader());
+        return (ConcreteService) proxyFactory.getProxy(classLoader);
+    }
+}
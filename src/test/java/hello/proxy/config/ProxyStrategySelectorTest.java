@@ -0,0 +1,40 @@
+package hello.proxy.config;
+
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ProxyStrategySelectorTest {
+
+    @Test
+    public void property() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("proxy.strategy", "app");
+        assertThat(select(environment)).containsExactly(AppV1Config.class.getName(), AppV2Config.class.getName());
+    }
+
+    @Test
+    public void profileAndDefault() throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+        assertThat(select(environment)).containsExactly(AopConfig.class.getName());
+
+        environment.setActiveProfiles("local", "auto-proxy");
+        assertThat(select(environment)).containsExactly(AutoProxyConfig.class.getName());
+    }
+
+    @Test
+    public void unknownStrategy() throws Exception {
+        MockEnvironment environment = new MockEnvironment().withProperty("proxy.strategy", "nope");
+        assertThatThrownBy(() -> select(environment))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nope");
+    }
+
+    private static String[] select(MockEnvironment environment) {
+        ProxyStrategySelector selector = new ProxyStrategySelector();
+        selector.setEnvironment(environment);
+        return selector.selectImports(null);
+    }
+}
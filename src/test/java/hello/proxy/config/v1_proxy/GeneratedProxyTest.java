@@ -0,0 +1,63 @@
+package hello.proxy.config.v1_proxy;
+
+import hello.proxy.app.v1.*;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GeneratedProxyTest {
+
+    @Test
+    void generatedProxy() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        OrderRepositoryV1 repository = new OrderRepositoryV1TracedProxy(new OrderRepositoryV1Impl(), logTrace);
+        OrderServiceV1 service = new OrderServiceV1TracedProxy(new OrderServiceV1Impl(repository), logTrace);
+        OrderControllerV1 controller = new OrderControllerV1TracedProxy(new OrderControllerV1Impl(service), logTrace);
+
+        assertThatThrownBy(() -> controller.request("ex"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.events).containsExactly(
+                "begin OrderControllerV1.request()",
+                "begin OrderServiceV1.orderItem()",
+                "begin OrderRepositoryV1.save()",
+                "exception OrderRepositoryV1.save()",
+                "exception OrderServiceV1.orderItem()",
+                "exception OrderControllerV1.request()");
+    }
+
+    @Test
+    void excludedMethod() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        OrderControllerV1 controller = new OrderControllerV1TracedProxy(new OrderControllerV1Impl(null), logTrace);
+
+        assertThat(controller.noLog()).isEqualTo("ok");
+        assertThat(logTrace.events).isEmpty();
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public TraceStatus begin(String message) {
+            events.add("begin " + message);
+            return new TraceStatus(new TraceId(), System.currentTimeMillis(), message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            events.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            events.add("exception " + status.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package hello.proxy.pointcut;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.common.service.ServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class IndexedPointcutTest {
+
+    @Test
+    public void sameResultAsExpression() throws Exception {
+        AspectJExpressionPointcut expression = expression();
+        IndexedPointcut indexed = new IndexedPointcut(expression(), "hello.proxy.app");
+
+        Method request = OrderControllerV1.class.getMethod("request", String.class);
+        Method noLog = OrderControllerV1.class.getMethod("noLog");
+        for (Method method : new Method[]{request, noLog}) {
+            assertThat(indexed.matches(method, OrderControllerV1Impl.class))
+                    .isEqualTo(expression.matches(method, OrderControllerV1Impl.class));
+        }
+        assertThat(AopUtils.canApply(indexed, OrderControllerV1Impl.class)).isTrue();
+        assertThat(AopUtils.canApply(indexed, ServiceImpl.class)).isFalse();
+    }
+
+    @Test
+    public void evaluateOncePerClass() throws Exception {
+        CountingPointcut counting = new CountingPointcut(expression());
+        IndexedPointcut indexed = new IndexedPointcut(counting, "hello.proxy.app");
+
+        assertThat(AopUtils.canApply(indexed, OrderControllerV1Impl.class)).isTrue();
+        assertThat(indexed.matches(ServiceImpl.class)).isFalse();
+        int methodMatcherCalls = counting.methodMatcherCalls.get();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(AopUtils.canApply(indexed, OrderControllerV1Impl.class)).isTrue();
+            assertThat(indexed.matches(ServiceImpl.class)).isFalse();
+        }
+        assertThat(counting.classFilterCalls).hasValue(1); // 패키지 밖의 ServiceImpl 은 표현식을 평가하지 않는다.
+        assertThat(counting.methodMatcherCalls).hasValue(methodMatcherCalls);
+    }
+
+    @Test
+    public void equalsByDelegateAndPackages() throws Exception {
+        IndexedPointcut indexed = new IndexedPointcut(expression(), "hello.proxy.app", "hello.proxy.common");
+        IndexedPointcut same = new IndexedPointcut(expression(), "hello.proxy.common", "hello.proxy.app");
+        IndexedPointcut otherPackages = new IndexedPointcut(expression(), "hello.proxy.app");
+
+        assertThat(indexed).isEqualTo(same); // 새로 만들어도 같으므로 CGLIB 프록시 클래스를 재사용한다.
+        assertThat(indexed.hashCode()).isEqualTo(same.hashCode());
+        assertThat(indexed).isNotEqualTo(otherPackages);
+    }
+
+    @Test
+    public void discardedPointcutIsCollected() throws Exception {
+        WeakReference<IndexedPointcut> reference = indexAndDiscard();
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(reference.get()).isNull(); // 조회한 클래스가 IndexedPointcut 을 붙잡지 않는다.
+    }
+
+    private static WeakReference<IndexedPointcut> indexAndDiscard() {
+        IndexedPointcut indexed = new IndexedPointcut(expression(), "hello.proxy.app");
+        assertThat(AopUtils.canApply(indexed, OrderControllerV1Impl.class)).isTrue();
+        assertThat(indexed.matches(ServiceImpl.class)).isFalse();
+        return new WeakReference<>(indexed);
+    }
+
+    private static AspectJExpressionPointcut expression() {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
+        return pointcut;
+    }
+
+    static class CountingPointcut implements Pointcut, ClassFilter, MethodMatcher {
+        private final Pointcut delegate;
+        private final AtomicInteger classFilterCalls = new AtomicInteger();
+        private final AtomicInteger methodMatcherCalls = new AtomicInteger();
+
+        CountingPointcut(Pointcut delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClassFilter getClassFilter() {
+            return this;
+        }
+
+        @Override
+        public MethodMatcher getMethodMatcher() {
+            return this;
+        }
+
+        @Override
+        public boolean matches(Class<?> clazz) {
+            classFilterCalls.incrementAndGet();
+            return delegate.getClassFilter().matches(clazz);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            methodMatcherCalls.incrementAndGet();
+            return delegate.getMethodMatcher().matches(method, targetClass);
+        }
+
+        @Override
+        public boolean isRuntime() {
+            return false;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass, Object... args) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package hello.proxy.pointcut;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PackagePrefixTrieTest {
+
+    @Test
+    void packageBoundary() {
+        PackagePrefixTrie trie = new PackagePrefixTrie("hello.proxy.app", "org.example");
+
+        assertThat(trie.matches("hello.proxy.app.v1.OrderControllerV1")).isTrue();
+        assertThat(trie.matches("hello.proxy.app.Outer$Inner")).isTrue();
+        assertThat(trie.matches("org.example.Foo")).isTrue();
+
+        assertThat(trie.matches("hello.proxy.application.Foo")).isFalse(); // startsWith 라면 true
+        assertThat(trie.matches("hello.proxy.Foo")).isFalse();
+        assertThat(trie.matches("Foo")).isFalse();
+    }
+}
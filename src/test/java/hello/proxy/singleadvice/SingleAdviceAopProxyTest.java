@@ -0,0 +1,153 @@
+package hello.proxy.singleadvice;
+
+import hello.proxy.common.service.ConcreteService;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SingleAdviceAopProxyTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<MethodInvocation> invocations = new ArrayList<>();
+
+    private final MethodInterceptor advice = invocation -> {
+        calls.add(invocation.getMethod().getName());
+        invocations.add(invocation);
+        return invocation.proceed();
+    };
+
+    private ProxyFactory proxyFactory(Object target, String... mappedNames) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(mappedNames);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(new DefaultPointcutAdvisor(pointcut, advice));
+        factory.setFrozen(true);
+        factory.setAopProxyFactory(new SingleAdviceAopProxyFactory());
+        return factory;
+    }
+
+    @Test
+    public void singleAdviceProxy() throws Exception {
+        ProxyFactory factory = proxyFactory(new ServiceImpl(), "save");
+        factory.setProxyTargetClass(true);
+        assertThat(SingleAdviceAopProxyFactory.supports(factory)).isTrue();
+
+        ServiceInterface proxy = (ServiceInterface) factory.getProxy();
+        proxy.save();
+        proxy.find(); // 포인트컷 대상 아님, target 을 바로 호출
+
+        assertThat(calls).containsExactly("save");
+        assertThat(AopUtils.isCglibProxy(proxy)).isTrue();
+        assertThat(AopUtils.getTargetClass(proxy)).isEqualTo(ServiceImpl.class);
+        assertThat(((Advised) proxy).isFrozen()).isTrue();
+    }
+
+    @Test
+    public void invocationIsReused() throws Exception {
+        ConcreteService proxy = (ConcreteService) proxyFactory(new ConcreteService(), "call").getProxy();
+
+        proxy.call();
+        proxy.call();
+
+        assertThat(invocations).hasSize(2);
+        assertThat(invocations.get(0)).isSameAs(invocations.get(1));
+        assertThat(invocations.get(0).getMethod()).isNull(); // 호출이 끝나면 비운다.
+    }
+
+    @Test
+    public void proxyClassIsShared() throws Exception {
+        Object proxy1 = proxyFactory(new ConcreteService(), "call").getProxy();
+        Object proxy2 = proxyFactory(new ConcreteService(), "call").getProxy();
+        Object proxy3 = proxyFactory(new ConcreteService(), "none").getProxy();
+
+        assertThat(proxy1.getClass()).isSameAs(proxy2.getClass()); // 포인트컷 인스턴스가 달라도 적용 메서드가 같다.
+        assertThat(proxy1.getClass()).isNotSameAs(proxy3.getClass());
+    }
+
+    @Test
+    public void protectedMethodsAreInProxyClassKey() throws Exception {
+        Object internal = proxyFactory(new ProtectedService(), "internal").getProxy();
+        Object none = proxyFactory(new ProtectedService(), "none").getProxy();
+
+        assertThat(internal.getClass()).isNotSameAs(none.getClass()); // protected 메서드도 CGLIB 가 콜백을 고른다.
+    }
+
+    @Test
+    public void equalsLikeSpringProxy() throws Exception {
+        ConcreteService target = new ConcreteService();
+        Object proxy1 = proxyFactory(target, "call").getProxy();
+        Object proxy2 = proxyFactory(target, "call").getProxy();
+        Object otherTarget = proxyFactory(new ConcreteService(), "call").getProxy();
+
+        assertThat(proxy1).isEqualTo(proxy2).isNotEqualTo(otherTarget); // 같은 target, 같은 어드바이저
+        assertThat(proxy1.hashCode()).isEqualTo(proxy2.hashCode());
+    }
+
+    @Test
+    public void undeclaredCheckedExceptionIsWrapped() throws Exception {
+        ProxyFactory factory = new ProxyFactory(new ConcreteService());
+        MethodInterceptor failing = invocation -> {
+            throw new Exception("checked");
+        };
+        factory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, failing));
+        factory.setFrozen(true);
+        factory.setAopProxyFactory(new SingleAdviceAopProxyFactory());
+        ConcreteService proxy = (ConcreteService) factory.getProxy();
+
+        assertThatThrownBy(proxy::call)
+                .isInstanceOf(UndeclaredThrowableException.class)
+                .hasCauseInstanceOf(Exception.class);
+    }
+
+    @Test
+    public void exceptionPropagates() throws Exception {
+        ProxyFactory factory = proxyFactory(new FailingService(), "fail");
+        FailingService proxy = (FailingService) factory.getProxy();
+
+        assertThatThrownBy(proxy::fail).isInstanceOf(IllegalStateException.class).hasMessage("fail");
+        assertThat(calls).containsExactly("fail");
+    }
+
+    @Test
+    public void fallbackToSpringProxy() throws Exception {
+        ProxyFactory notFrozen = proxyFactory(new ServiceImpl(), "save");
+        notFrozen.setFrozen(false);
+        assertThat(SingleAdviceAopProxyFactory.supports(notFrozen)).isFalse();
+        assertThat(AopUtils.isJdkDynamicProxy(notFrozen.getProxy())).isTrue();
+
+        ProxyFactory interfaceProxy = proxyFactory(new ServiceImpl(), "save"); // 스프링이 JDK 동적 프록시를 만드는 경우
+        assertThat(SingleAdviceAopProxyFactory.supports(interfaceProxy)).isFalse();
+        assertThat(AopUtils.isJdkDynamicProxy(interfaceProxy.getProxy())).isTrue();
+
+        ProxyFactory twoAdvisors = new ProxyFactory(new ServiceImpl());
+        twoAdvisors.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, advice));
+        twoAdvisors.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, advice));
+        twoAdvisors.setFrozen(true);
+        assertThat(SingleAdviceAopProxyFactory.supports(twoAdvisors)).isFalse();
+    }
+
+    static class ProtectedService {
+        protected void internal() {
+        }
+    }
+
+    static class FailingService {
+        public void fail() {
+            throw new IllegalStateException("fail");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package hello.proxy.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * End 의 위치는 스프링 내부 구현(PostProcessorRegistrationDelegate)에 기대므로 실제 컨텍스트로 확인한다.
+ */
+public class PostProcessTimingBeanPostProcessorsTest {
+
+    @Test
+    public void unorderedPostProcessorIsInsideStep() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(1000);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.setApplicationStartup(startup);
+            context.registerBean(PostProcessTimingBeanPostProcessors.Start.class, () -> new PostProcessTimingBeanPostProcessors.Start(startup));
+            context.registerBean(PostProcessTimingBeanPostProcessors.End.class, PostProcessTimingBeanPostProcessors.End::new);
+            context.registerBean(WrappingPostProcessor.class, () -> new WrappingPostProcessor(startup));
+            context.registerBean("target", Target.class, Target::new);
+            context.refresh();
+        }
+
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        StartupStep postProcess = events.stream()
+                .map(StartupTimeline.TimelineEvent::getStartupStep)
+                .filter(step -> step.getName().equals(PostProcessTimingBeanPostProcessors.STEP_NAME) && tag(step, "beanName").equals("target"))
+                .findFirst().orElseThrow();
+        StartupStep wrap = events.stream()
+                .map(StartupTimeline.TimelineEvent::getStartupStep)
+                .filter(step -> step.getName().equals(WrappingPostProcessor.STEP_NAME))
+                .findFirst().orElseThrow();
+
+        assertThat(wrap.getParentId()).isEqualTo(postProcess.getId()); // 순서 없는 후처리기도 구간 안에서 실행된다.
+        assertThat(tag(postProcess, "proxied")).isEqualTo("true");
+    }
+
+    private static String tag(StartupStep step, String key) {
+        List<String> values = StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> tag.getKey().equals(key))
+                .map(StartupStep.Tag::getValue)
+                .collect(Collectors.toList());
+        return values.isEmpty() ? "" : values.get(0);
+    }
+
+    static class Target {
+    }
+
+    /**
+     * PackageLogTracePostProcessor 처럼 순서가 없는 후처리기, target 을 다른 객체로 바꾼다.
+     */
+    static class WrappingPostProcessor implements BeanPostProcessor {
+
+        static final String STEP_NAME = "test.wrap";
+
+        private final ApplicationStartup startup;
+
+        WrappingPostProcessor(ApplicationStartup startup) {
+            this.startup = startup;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!beanName.equals("target")) {
+                return bean;
+            }
+            startup.start(STEP_NAME).end();
+            return new Target();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package hello.proxy.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class StartupReportTest {
+
+    @Test
+    public void report() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep refresh = startup.start("spring.context.refresh");
+
+        StartupStep controller = startup.start("spring.beans.instantiate").tag("beanName", "orderControllerV2");
+        StartupStep service = startup.start("spring.beans.instantiate").tag("beanName", "orderServiceV2");
+        service.end();
+        StartupStep postProcess = startup.start(PostProcessTimingBeanPostProcessors.STEP_NAME).tag("beanName", "orderControllerV2");
+        startup.start(StartupRecordingAopProxyFactory.STEP_NAME)
+                .tag("targetClass", "hello.proxy.app.v2.OrderControllerV2")
+                .tag("type", "cglib")
+                .end();
+        postProcess.tag("proxied", "true").end();
+        controller.end();
+        refresh.end();
+
+        StartupReport report = new StartupReport("proxy-factory-v2", startup.getBufferedTimeline());
+
+        assertThat(report.getBeanCount()).isEqualTo(2);
+        assertThat(report.getProxiedCount()).isEqualTo(1);
+        assertThat(report.getProxyCount()).isEqualTo(1);
+        assertThat(report.render(10))
+                .contains("strategy=proxy-factory-v2")
+                .contains("orderServiceV2")
+                .contains("hello.proxy.app.v2.OrderControllerV2 cglib");
+    }
+}
@@ -0,0 +1,84 @@
+package hello.proxy.trace.async;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TraceEventRingBufferTest {
+
+    @Test
+    @DisplayName("가득 차면 offer 가 실패하고, 소비하면 다시 기록할 수 있다")
+    public void fullAndDrain() throws Exception {
+        TraceEventRingBuffer ringBuffer = new TraceEventRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(TraceEvent.Type.BEGIN, "id", i, "message" + i, 0, null)).isTrue();
+        }
+        assertThat(ringBuffer.offer(TraceEvent.Type.BEGIN, "id", 4, "message4", 0, null)).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+
+        List<String> messages = new ArrayList<>();
+        int drained = ringBuffer.drain(event -> messages.add(event.getMessage()), 3);
+
+        assertThat(drained).isEqualTo(3);
+        assertThat(messages).containsExactly("message0", "message1", "message2");
+        assertThat(ringBuffer.size()).isEqualTo(1);
+        assertThat(ringBuffer.offer(TraceEvent.Type.END, "id", 0, "message5", 10, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("여러 생산자가 동시에 기록해도 유실 없이 모두 소비된다")
+    public void multiProducer() throws Exception {
+        TraceEventRingBuffer ringBuffer = new TraceEventRingBuffer(1024);
+        int producers = 4;
+        int eventsPerProducer = 200;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    ringBuffer.offer(TraceEvent.Type.BEGIN, "id", 0, "message", 0, null);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int drained = ringBuffer.drain(event -> {}, Integer.MAX_VALUE);
+        assertThat(drained).isEqualTo(producers * eventsPerProducer);
+    }
+
+    @Test
+    @DisplayName("handler 가 예외를 던져도 나머지 이벤트를 계속 소비한다")
+    public void handlerFailure() throws Exception {
+        TraceEventRingBuffer ringBuffer = new TraceEventRingBuffer(4);
+        for (int i = 0; i < 3; i++) {
+            ringBuffer.offer(TraceEvent.Type.BEGIN, "id", i, "message" + i, 0, null);
+        }
+
+        List<String> messages = new ArrayList<>();
+        int drained = ringBuffer.drain(event -> {
+            if (event.getMessage().equals("message1")) {
+                throw new IllegalStateException("appender failure");
+            }
+            messages.add(event.getMessage());
+        }, Integer.MAX_VALUE);
+
+        assertThat(drained).isEqualTo(3);
+        assertThat(messages).containsExactly("message0", "message2");
+        assertThat(ringBuffer.getHandlerFailureCount()).isEqualTo(1);
+        assertThat(ringBuffer.size()).isZero();
+    }
+
+    @Test
+    public void capacityMustBePowerOfTwo() throws Exception {
+        assertThatThrownBy(() -> new TraceEventRingBuffer(100))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
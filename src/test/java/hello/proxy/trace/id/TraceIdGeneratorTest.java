@@ -0,0 +1,64 @@
+package hello.proxy.trace.id;
+
+import hello.proxy.config.LogTraceConfig;
+import hello.proxy.trace.TraceId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TraceIdGeneratorTest {
+
+    @Test
+    public void sequenceIdsAreUniqueAcrossThreads() throws Exception {
+        SequenceTraceIdGenerator generator = new SequenceTraceIdGenerator(0xABCDEF);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threadCount = 8;
+        int idsPerThread = 5_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < idsPerThread; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ids).hasSize(threadCount * idsPerThread);
+        assertThat(TraceId.toHexString(ids.iterator().next())).startsWith("abcdef");
+    }
+
+    @Test
+    public void hexString() throws Exception {
+        assertThat(TraceId.toHexString(0x1234abcdL)).isEqualTo("1234abcd"); // 기존 UUID 방식과 같은 8자리
+        assertThat(TraceId.toHexString(0xabcdef0000000001L)).isEqualTo("abcdef0000000001");
+        assertThat(TraceId.toHexString(new UuidTraceIdGenerator().nextId())).hasSize(8);
+    }
+
+    @Test
+    public void generatorFromProperty() throws Exception {
+        LogTraceConfig config = new LogTraceConfig();
+        try {
+            assertThat(config.traceIdGenerator("uuid")).isInstanceOf(UuidTraceIdGenerator.class);
+            assertThat(new TraceId().getId()).hasSize(8);
+
+            assertThat(config.traceIdGenerator("sequence")).isInstanceOf(SequenceTraceIdGenerator.class);
+            assertThat(new TraceId().getId()).hasSize(16);
+
+            assertThatThrownBy(() -> config.traceIdGenerator("random"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            TraceId.setGenerator(new SequenceTraceIdGenerator());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package hello.proxy.trace.journal;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.JournalLogTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class JournalReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void rebuildTree() throws Exception {
+        JournalLogTrace trace = new JournalLogTrace(new JournalWriter(directory, 64 * 1024, 4, 1000));
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+        trace.exception(child, new IllegalStateException());
+        trace.end(root);
+        trace.close();
+
+        List<String> lines = render();
+        String id = root.getTraceId().getId();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("[" + id + "] root");
+        assertThat(lines.get(1)).isEqualTo("[" + id + "] |-->child");
+        assertThat(lines.get(2)).startsWith("[" + id + "] |<X-child time=");
+        assertThat(lines.get(3)).startsWith("[" + id + "] root time=");
+    }
+
+    @Test
+    public void rotateSegments() throws Exception {
+        JournalWriter journal = new JournalWriter(directory, 64 * 1024, 2, 1000);
+        int methodId = journal.methodId("hello");
+        int records = 5000; // 32바이트 * 5000 = 160KB, 64KB 세그먼트 3개
+        for (int i = 0; i < records; i++) {
+            journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, 0, methodId, i, 0, 0);
+        }
+        journal.close();
+
+        assertThat(journal.getSegmentIndex()).isEqualTo(3);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2); // 오래된 세그먼트는 삭제
+        }
+        List<String> lines = render();
+        assertThat(lines).isNotEmpty().allMatch(line -> line.endsWith("] hello")); // 세그먼트마다 메서드 사전이 있다.
+        assertThat(lines.get(lines.size() - 1)).isEqualTo("[00001387] hello");
+    }
+
+    @Test
+    public void dictionaryIsBoundedAcrossSegments() throws Exception {
+        JournalWriter journal = new JournalWriter(directory, 64 * 1024, 2, 1000);
+        int first = journal.methodId("method-0");
+        int other = -1;
+        for (int i = 1; i < 10_000; i++) {
+            int methodId = journal.methodId("method-" + i + "-" + "x".repeat(100));
+            journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, 0, methodId, i, 0, 0);
+            other = methodId;
+        }
+        journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, 0, first, 10_000, 0, 0);
+        journal.close();
+
+        assertThat(journal.getSegmentIndex()).isGreaterThan(1);
+        assertThat(journal.methodId("method-9999-" + "x".repeat(100))).isEqualTo(other);
+        List<String> lines = render();
+        assertThat(lines.get(lines.size() - 2)).endsWith("] " + JournalWriter.OTHER); // 사전이 넘친 메서드
+        assertThat(lines.get(lines.size() - 1)).isEqualTo("[00002710] method-0"); // 새 세그먼트에도 사전이 다시 기록된다.
+    }
+
+    @Test
+    public void concurrentAppend() throws Exception {
+        JournalWriter journal = new JournalWriter(directory, 64 * 1024, 100, 1000);
+        int methodId = journal.methodId("hello");
+        int threads = 4;
+        int perThread = 5000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, 0, methodId, base + i, 0, 0);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        journal.close();
+
+        List<String> lines = render();
+        assertThat(lines).hasSize(threads * perThread).doesNotHaveDuplicates(); // 예약한 자리가 겹치지 않는다.
+    }
+
+    @Test
+    public void skipHoleInSegment() throws Exception {
+        JournalWriter journal = new JournalWriter(directory, 64 * 1024, 4, 1000);
+        int methodId = journal.methodId("hello");
+        for (int i = 0; i < 10; i++) {
+            journal.append(JournalFormat.TYPE_BEGIN, (byte) 0, 0, methodId, i, 0, 0);
+        }
+        journal.close();
+
+        // 5번째 레코드 자리를 예약만 하고 채우지 못한 것처럼 type 을 지운다. (헤더, METHOD 레코드 2개 다음)
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int hole = JournalFormat.HEADER_SIZE + JournalFormat.RECORD_SIZE * 2 + JournalFormat.RECORD_SIZE * 4;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{JournalFormat.TYPE_EMPTY}), hole + JournalFormat.TYPE_OFFSET);
+        }
+
+        List<String> lines = render();
+        assertThat(lines).hasSize(9); // 빈 자리 뒤의 레코드도 읽는다.
+        assertThat(lines).doesNotContain("[00000004] hello");
+        assertThat(lines.get(8)).isEqualTo("[00000009] hello");
+    }
+
+    private List<String> render() throws Exception {
+        List<String> lines = new ArrayList<>();
+        new JournalReader(directory).render(lines::add);
+        return lines;
+    }
+}
@@ -0,0 +1,52 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.async.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class AsyncLogTraceTest {
+
+    @Test
+    public void begin_end_level2() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(1024, OverflowPolicy.BLOCK, 64);
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+
+        trace.close(); // 남은 이벤트를 모두 출력하고 종료
+
+        assertThat(trace.getPublishedCount()).isEqualTo(4);
+        assertThat(trace.getWrittenCount()).isEqualTo(4);
+        assertThat(trace.getDroppedCount()).isZero();
+        assertThat(trace.getQueuedCount()).isZero();
+    }
+
+    @Test
+    public void begin_exception_level2() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(1024, OverflowPolicy.BLOCK, 64);
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+
+        trace.close();
+
+        assertThat(trace.getWrittenCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void dropAfterClose() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(2, OverflowPolicy.DROP, 64);
+        trace.close(); // writer 종료, 이후에는 버퍼가 비워지지 않는다.
+
+        for (int i = 0; i < 4; i++) {
+            trace.end(trace.begin("hello"));
+        }
+
+        assertThat(trace.getPublishedCount()).isEqualTo(2);
+        assertThat(trace.getDroppedCount()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,102 @@
+package hello.proxy.trace.logtrace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class GarbageFreeLogTraceTest {
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 200_000;
+    private static final long ALLOCATION_TOLERANCE_BYTES = 1024; // 호출당 1바이트만 할당해도 200KB 가 되므로 충분히 작다.
+
+    @Test
+    public void begin_end_level2() throws Exception {
+        GarbageFreeLogTrace trace = new GarbageFreeLogTrace();
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+
+        assertThat(status2.getTraceId().getId()).isEqualTo(status1.getTraceId().getId());
+        assertThat(status2.getTraceId().getLevel()).isEqualTo(1);
+    }
+
+    @Test
+    public void begin_exception_level2() throws Exception {
+        GarbageFreeLogTrace trace = new GarbageFreeLogTrace();
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+
+        TraceStatus next = trace.begin("hello3"); // 이전 트레이스가 끝났으므로 새로운 루트
+        assertThat(next.getTraceId().isFirstLevel()).isTrue();
+        trace.end(next);
+    }
+
+    @Test
+    public void newRootGetsNewId() throws Exception {
+        GarbageFreeLogTrace trace = new GarbageFreeLogTrace();
+        TraceStatus root1 = trace.begin("hello1");
+        String id1 = root1.getTraceId().getId();
+        trace.end(root1);
+
+        TraceStatus root2 = trace.begin("hello2");
+        TraceStatus child = trace.begin("hello3");
+        assertThat(root2.getTraceId().getId()).isNotEqualTo(id1); // 풀의 TraceId 에 새 ID 를 채운다.
+        assertThat(child.getTraceId().getId()).isEqualTo(root2.getTraceId().getId());
+        assertThat(child.getTraceId().getLevel()).isEqualTo(1);
+        trace.end(child);
+        trace.end(root2);
+    }
+
+    /**
+     * 정상 상태(steady state)에서 begin/end 가 호출당 0 바이트를 할당하는지 확인한다.
+     * 로그 출력 자체는 로깅 프레임워크의 할당이므로 INFO 레벨을 끄고 트레이서의 비용만 측정한다.
+     * HTTP 요청마다 새 루트가 시작되므로 루트 -> 중첩 호출 -> 루트 종료 전체를 측정한다.
+     */
+    @Test
+    public void zeroAllocationPerCall() throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        Logger logger = (Logger) LoggerFactory.getLogger(GarbageFreeLogTrace.class);
+        Level previousLevel = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        try {
+            GarbageFreeLogTrace trace = new GarbageFreeLogTrace();
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                request(trace);
+            }
+
+            threadMXBean.getThreadAllocatedBytes(threadId); // 측정 API 자체의 초기화
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_CALLS; i++) {
+                request(trace);
+            }
+            long after = threadMXBean.getThreadAllocatedBytes(threadId);
+
+            // 호출당 평균(정수 나눗셈)은 호출마다 작은 할당이 있어도 0 이 될 수 있으므로 전체 할당량을 본다.
+            // 허용치는 측정 API 호출 자체의 할당 정도다.
+            assertThat(after - before).isLessThanOrEqualTo(ALLOCATION_TOLERANCE_BYTES);
+        } finally {
+            logger.setLevel(previousLevel);
+        }
+    }
+
+    private void request(GarbageFreeLogTrace trace) {
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+    }
+}
@@ -0,0 +1,109 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.span.TraceRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SpanTreeLogTraceTest {
+
+    private final List<TraceRecord> records = new ArrayList<>();
+
+    @Test
+    public void oneRecordPerRootTrace() throws Exception {
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(records::add);
+
+        TraceStatus controller = trace.begin("OrderControllerV1.request()");
+        TraceStatus service = trace.begin("OrderServiceV1.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepositoryV1.save()");
+        trace.end(repository);
+        trace.end(service);
+        assertThat(records).isEmpty(); // 루트가 끝나기 전에는 내보내지 않는다.
+        trace.end(controller);
+
+        assertThat(records).hasSize(1);
+        TraceRecord record = records.get(0);
+        assertThat(record.getSpans()).extracting("level").containsExactly(0, 1, 2);
+        assertThat(record.getRoot().getMessage()).isEqualTo("OrderControllerV1.request()");
+        assertThat(record.hasError()).isFalse();
+        assertThat(record.toCompactString())
+                .matches("\\[\\w+] OrderControllerV1\\.request\\(\\)=\\d+ms \\{OrderServiceV1\\.orderItem\\(\\)=\\d+ms \\{OrderRepositoryV1\\.save\\(\\)=\\d+ms}}");
+    }
+
+    @Test
+    public void siblingsAndException() throws Exception {
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(records::add);
+
+        TraceStatus root = trace.begin("root");
+        trace.end(trace.begin("child1"));
+        TraceStatus child2 = trace.begin("child2");
+        trace.exception(child2, new IllegalStateException("예외 발생!"));
+        trace.exception(root, new IllegalStateException("예외 발생!"));
+
+        TraceRecord record = records.get(0);
+        assertThat(record.hasError()).isTrue();
+        assertThat(record.toCompactString())
+                .matches("\\[\\w+] root=\\d+ms ex=.+ \\{child1=\\d+ms, child2=\\d+ms ex=java.lang.IllegalStateException: 예외 발생!}");
+    }
+
+    @Test
+    public void spansPerTraceAreBounded() throws Exception {
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(records::add, 2);
+
+        TraceStatus root = trace.begin("root");
+        for (int i = 0; i < 5; i++) {
+            trace.end(trace.begin("child" + i));
+        }
+        trace.end(root);
+
+        TraceRecord record = records.get(0);
+        assertThat(record.getSpans()).hasSize(2);
+        assertThat(record.getTruncatedSpans()).isEqualTo(4);
+    }
+
+    @Test
+    public void exceptionInTruncatedSpanIsKept() throws Exception {
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(records::add, 1);
+
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+        trace.exception(child, new IllegalStateException("예외 발생!"));
+        trace.end(root); // 루트는 예외를 처리하고 정상 종료
+
+        TraceRecord record = records.get(0);
+        assertThat(record.getSpans()).hasSize(1);
+        assertThat(record.getTruncatedSpans()).isEqualTo(1);
+        assertThat(record.getRoot().isError()).isFalse();
+        assertThat(record.hasError()).isTrue();
+    }
+
+    @Test
+    public void sinkFailureDoesNotBreakTrace() throws Exception {
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(record -> {
+            if (records.isEmpty()) {
+                records.add(record);
+                throw new IllegalStateException("sink 실패");
+            }
+            records.add(record);
+        });
+
+        TraceStatus root = trace.begin("root");
+        trace.end(trace.begin("child"));
+        trace.end(root); // sink 예외가 호출한 쪽으로 나가지 않는다.
+        trace.exception(root, new IllegalStateException("예외 발생!")); // 이미 끝난 트레이스라 무시한다. (NPE 가 나지 않는다)
+
+        trace.end(trace.begin("next")); // 다음 트레이스는 새로 시작한다.
+        assertThat(records).hasSize(2);
+        assertThat(records.get(1).getSpans()).extracting("message").containsExactly("next");
+    }
+
+    @Test
+    public void maxSpansMustBePositive() throws Exception {
+        assertThatThrownBy(() -> new SpanTreeLogTrace(records::add, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,32 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SummaryLogTraceTest {
+
+    @Test
+    public void summarizeAndReset() {
+        SummaryLogTrace trace = new SummaryLogTrace();
+        for (int i = 0; i < 3; i++) {
+            TraceStatus root = trace.begin("OrderControllerV1.request()");
+            TraceStatus child = trace.begin("OrderRepositoryV1.save()");
+            if (i == 0) {
+                trace.exception(child, new IllegalStateException("예외 발생!"));
+            } else {
+                trace.end(child);
+            }
+            trace.end(root);
+        }
+
+        String summary = trace.summarize();
+        assertThat(summary).containsPattern("OrderControllerV1\\.request\\(\\)\\s+3\\s+0\\s");
+        assertThat(summary).containsPattern("OrderRepositoryV1\\.save\\(\\)\\s+3\\s+1\\s");
+        assertThat(summary).doesNotContain(SummaryLogTrace.OTHER);
+
+        // 구간 통계이므로 다음 summarize() 에는 남지 않는다.
+        assertThat(trace.summarize()).doesNotContain("OrderControllerV1.request()");
+    }
+}
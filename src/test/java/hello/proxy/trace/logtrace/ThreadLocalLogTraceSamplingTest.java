@@ -0,0 +1,47 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.metrics.LatencyHistogramRegistry;
+import hello.proxy.trace.sampling.SamplingOverride;
+import hello.proxy.trace.sampling.TraceSampler;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ThreadLocalLogTraceSamplingTest {
+
+    @Test
+    public void notSampled() throws Exception {
+        LatencyHistogramRegistry registry = new LatencyHistogramRegistry();
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace(registry, TraceSampler.NEVER);
+
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        assertThat(status1.getTraceId().isSampled()).isFalse();
+        assertThat(status2).isSameAs(status1); // 공유 상수, 새로 만들지 않는다.
+        trace.end(status2);
+        trace.exception(status1, new IllegalStateException());
+
+        assertThat(registry.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void decisionIsMadeOncePerRoot() throws Exception {
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace(null, TraceSampler.NEVER);
+
+        TraceStatus root = trace.begin("root");
+        trace.end(root);
+
+        SamplingOverride.force();
+        try {
+            TraceStatus forced = trace.begin("forced");
+            TraceStatus child = trace.begin("child");
+            assertThat(forced.getTraceId().isSampled()).isTrue();
+            assertThat(child.getTraceId().getLevel()).isEqualTo(1);
+            trace.end(child);
+            trace.end(forced);
+        } finally {
+            SamplingOverride.clear();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package hello.proxy.trace.method;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MethodInvokerCacheTest {
+
+    @ParameterizedTest
+    @EnumSource(InvocationStrategy.class)
+    public void invokeAndUnwrap(InvocationStrategy strategy) throws Throwable {
+        MethodInvokerCache cache = new MethodInvokerCache(strategy);
+        Method length = CharSequence.class.getMethod("length");
+        assertThat(cache.invoker(String.class, length).invoke("hello", null)).isEqualTo(5);
+
+        // target 의 예외는 InvocationTargetException 으로 감싸지 않는다.
+        Method save = OrderRepositoryV1.class.getMethod("save", String.class);
+        MethodInvoker invoker = cache.invoker(OrderRepositoryV1Impl.class, save);
+        assertThatThrownBy(() -> invoker.invoke(new OrderRepositoryV1Impl(), new Object[]{"ex"}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("예외 발생!");
+    }
+
+    @Test
+    public void cachePerTargetClass() throws Exception {
+        MethodInvokerCache cache = new MethodInvokerCache(InvocationStrategy.METHOD_HANDLE);
+        Method length = CharSequence.class.getMethod("length");
+
+        assertThat(cache.invoker(String.class, length)).isSameAs(cache.invoker(String.class, length));
+        assertThat(cache.invoker(StringBuilder.class, length)).isNotSameAs(cache.invoker(String.class, length));
+    }
+
+    @Test
+    public void targetInvokersPreload() throws Exception {
+        MethodInvokerCache cache = new MethodInvokerCache(InvocationStrategy.METHOD_HANDLE);
+        TargetMethodInvokers invokers = new TargetMethodInvokers(OrderRepositoryV1Impl.class, cache).preload();
+        assertThat(invokers.size()).isEqualTo(1); // 인터페이스 메서드는 프록시를 만들 때 미리 만든다.
+
+        Method save = OrderRepositoryV1.class.getMethod("save", String.class);
+        assertThat(invokers.get(save)).isSameAs(cache.invoker(OrderRepositoryV1Impl.class, save));
+    }
+}
@@ -0,0 +1,37 @@
+package hello.proxy.trace.method;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MethodMetadataRegistryTest {
+
+    @Test
+    public void computeOncePerMethod() throws Exception {
+        MethodMetadataRegistry registry = new MethodMetadataRegistry(new String[]{"request*", "order*", "save*"});
+        Method request = OrderControllerV1.class.getMethod("request", String.class);
+        Method noLog = OrderControllerV1.class.getMethod("noLog");
+
+        MethodMetadata requestMetadata = registry.get(request);
+        assertThat(requestMetadata.getMessage()).isEqualTo("OrderControllerV1.request()");
+        assertThat(requestMetadata.isTraced()).isTrue();
+        assertThat(registry.get(noLog).isTraced()).isFalse();
+
+        assertThat(registry.get(request)).isSameAs(requestMetadata);
+        assertThat(registry.get(noLog).getId()).isNotEqualTo(requestMetadata.getId());
+    }
+
+    @Test
+    public void preloadInterfaceMethods() throws Exception {
+        MethodMetadataRegistry registry = new MethodMetadataRegistry().preload(OrderControllerV1Impl.class);
+        int size = registry.size();
+
+        // JDK 동적 프록시는 인터페이스의 Method 를 넘긴다. 미리 등록되어 있으므로 새로 추가되지 않는다.
+        registry.get(OrderControllerV1.class.getMethod("request", String.class));
+        assertThat(registry.size()).isEqualTo(size);
+    }
+}
@@ -0,0 +1,64 @@
+package hello.proxy.trace.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketBoundsAreContinuous() throws Exception {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            long upper = LatencyHistogram.bucketUpperBound(i);
+            assertThat(LatencyHistogram.bucketIndex(upper)).isEqualTo(i);
+            assertThat(LatencyHistogram.bucketIndex(upper + 1)).isEqualTo(i + 1);
+        }
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    public void percentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 50us 990번, 900us 9번, 5ms 1번
+        for (int i = 0; i < 990; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(900));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getP50Nanos()).isBetween(50_000L, 50_000L * 9 / 8);
+        assertThat(snapshot.getP99Nanos()).isBetween(50_000L, 50_000L * 9 / 8);
+        assertThat(snapshot.getP999Nanos()).isBetween(900_000L, 900_000L * 9 / 8);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(5_000_000L);
+    }
+
+    @Test
+    public void merge() throws Exception {
+        LatencyHistogram histogram1 = new LatencyHistogram();
+        LatencyHistogram histogram2 = new LatencyHistogram();
+        histogram1.record(1_000);
+        histogram2.record(2_000_000);
+
+        LatencySnapshot merged = histogram1.snapshot().merge(histogram2.snapshot());
+
+        assertThat(merged.getCount()).isEqualTo(2);
+        assertThat(merged.getMaxNanos()).isEqualTo(2_000_000);
+        assertThat(merged.getP50Nanos()).isLessThan(2_000);
+    }
+
+    @Test
+    public void registryIsBounded() throws Exception {
+        LatencyHistogramRegistry registry = new LatencyHistogramRegistry(2);
+        registry.record("A.a()", 10);
+        registry.record("B.b()", 10);
+        registry.record("C.c()", 10);
+
+        assertThat(registry.snapshot()).containsOnlyKeys("A.a()", "B.b()", LatencyHistogramRegistry.OTHER);
+    }
+}
@@ -0,0 +1,47 @@
+package hello.proxy.trace.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class MethodMetricsRegistryTest {
+
+    @Test
+    public void renderPrometheusText() throws Exception {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry();
+        Method method = String.class.getMethod("indexOf", String.class, int.class);
+        registry.record(method, TimeUnit.MICROSECONDS.toNanos(50), false);
+        registry.record(method, TimeUnit.MILLISECONDS.toNanos(3), true);
+        registry.record(method, TimeUnit.SECONDS.toNanos(60), false);
+
+        String text = registry.render();
+        assertThat(text).contains("# TYPE trace_method_duration_seconds histogram\n");
+        assertThat(text).contains("trace_method_calls_total{method=\"java.lang.String.indexOf(java.lang.String,int)\"} 3\n");
+        assertThat(text).contains("trace_method_errors_total{method=\"java.lang.String.indexOf(java.lang.String,int)\"} 1\n");
+        assertThat(text).contains("trace_method_duration_seconds_bucket{method=\"java.lang.String.indexOf(java.lang.String,int)\",le=\"0.0001\"} 1\n");
+        assertThat(text).contains("trace_method_duration_seconds_bucket{method=\"java.lang.String.indexOf(java.lang.String,int)\",le=\"0.005\"} 2\n");
+        assertThat(text).contains("trace_method_duration_seconds_bucket{method=\"java.lang.String.indexOf(java.lang.String,int)\",le=\"+Inf\"} 3\n");
+        assertThat(text).contains("trace_method_duration_seconds_count{method=\"java.lang.String.indexOf(java.lang.String,int)\"} 3\n");
+    }
+
+    @Test
+    public void sameSimpleNameIsNotMerged() throws Exception {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry();
+        registry.record(java.util.Date.class.getMethod("toString"), 1, false);
+        registry.record(java.sql.Date.class.getMethod("toString"), 1, false);
+
+        assertThat(registry.snapshot()).containsOnlyKeys("java.util.Date.toString()", "java.sql.Date.toString()");
+    }
+
+    @Test
+    public void overflowToOther() throws Exception {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry(1);
+        registry.record(String.class.getMethod("length"), 1, false);
+        registry.record(String.class.getMethod("isEmpty"), 1, false);
+
+        assertThat(registry.snapshot()).containsOnlyKeys("java.lang.String.length()", MethodMetricsRegistry.OTHER);
+    }
+}
@@ -0,0 +1,71 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.GarbageFreeLogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TraceContextPropagatorTest {
+
+    ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+    TraceContextPropagator propagator = new TraceContextPropagator(trace);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void shutdown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void propagateToWorker() throws Exception {
+        TraceStatus root = trace.begin("root");
+
+        TraceId childId = propagator.supplyAsync(() -> {
+            TraceStatus child = trace.begin("child");
+            trace.end(child);
+            return child.getTraceId();
+        }, executor).get(1, TimeUnit.SECONDS);
+
+        assertThat(childId.getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(childId.getLevel()).isEqualTo(1);
+        trace.end(root);
+
+        // 작업이 끝나면 작업 스레드의 컨텍스트는 원래대로(비어 있음) 돌아간다.
+        TraceId workerAfter = executor.submit(trace::currentTraceId).get(1, TimeUnit.SECONDS);
+        assertThat(workerAfter).isNull();
+    }
+
+    @Test
+    public void propagateThroughExecutor() throws Exception {
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+
+        TraceId[] captured = new TraceId[1];
+        propagator.runAsync(() -> {
+            TraceStatus grandChild = trace.begin("grandChild");
+            captured[0] = grandChild.getTraceId();
+            trace.end(grandChild);
+        }, propagator.wrap(executor)).get(1, TimeUnit.SECONDS);
+
+        assertThat(captured[0].getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(captured[0].getLevel()).isEqualTo(2);
+        trace.end(child);
+        trace.end(root);
+    }
+
+    @Test
+    public void noTraceNoWrap() throws Exception {
+        Runnable task = () -> {
+        };
+        assertThat(propagator.wrap(task)).isSameAs(task);
+        assertThat(new TraceContextPropagator(new GarbageFreeLogTrace()).wrap(task)).isSameAs(task);
+    }
+}
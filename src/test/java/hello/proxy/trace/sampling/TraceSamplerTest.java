@@ -0,0 +1,34 @@
+package hello.proxy.trace.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TraceSamplerTest {
+
+    @Test
+    public void rateLimit() throws Exception {
+        RateLimitingSampler sampler = new RateLimitingSampler(3);
+        int sampled = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sampler.isSampled()) {
+                sampled++;
+            }
+        }
+        // 1초 구간 경계를 지날 수 있으므로 최대 2구간 분량
+        assertThat(sampled).isBetween(3, 6);
+    }
+
+    @Test
+    public void probability() throws Exception {
+        assertThat(new ProbabilitySampler(1.0).isSampled()).isTrue();
+        assertThat(new ProbabilitySampler(0.0).isSampled()).isFalse();
+        assertThatThrownBy(() -> new ProbabilitySampler(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void and() throws Exception {
+        assertThat(TraceSampler.ALWAYS.and(TraceSampler.NEVER).isSampled()).isFalse();
+        assertThat(TraceSampler.ALWAYS.and(TraceSampler.ALWAYS).isSampled()).isTrue();
+    }
+}
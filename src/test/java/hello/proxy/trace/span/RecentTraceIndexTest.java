@@ -0,0 +1,47 @@
+package hello.proxy.trace.span;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RecentTraceIndexTest {
+
+    @Test
+    public void evictOldest() {
+        RecentTraceIndex index = new RecentTraceIndex(2);
+        index.accept(record("1", "OrderControllerV3.request(..)", 10, null));
+        index.accept(record("2", "OrderControllerV3.request(..)", 20, null));
+        index.accept(record("3", "OrderControllerV3.request(..)", 30, null));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.find("1")).isNull();
+        assertThat(index.find("3")).isNotNull();
+    }
+
+    @Test
+    public void slowestByRoot() {
+        RecentTraceIndex index = new RecentTraceIndex(16);
+        index.accept(record("1", "OrderControllerV3.request(..)", 10, null));
+        index.accept(record("2", "OrderControllerV3.request(..)", 30, null));
+        index.accept(record("3", "OrderControllerV1.request(..)", 50, null));
+        index.accept(record("4", "OrderControllerV3.request(..)", 20, new IllegalStateException("예외 발생!")));
+
+        List<TraceRecord> slowest = index.query(new TraceQuery("OrderControllerV3.request", 60_000, 0, false, TraceQuery.Order.SLOWEST, 2));
+        assertThat(slowest).extracting(TraceRecord::getTraceId).containsExactly("2", "4");
+
+        List<TraceRecord> errors = index.query(new TraceQuery(null, 0, 0, true, TraceQuery.Order.RECENT, 50));
+        assertThat(errors).extracting(TraceRecord::getTraceId).containsExactly("4");
+
+        assertThat(index.roots()).containsEntry("OrderControllerV3.request(..)", 3L).containsEntry("OrderControllerV1.request(..)", 1L);
+    }
+
+    private TraceRecord record(String traceId, String root, long durationMs, Exception e) {
+        Span span = new Span(root, 0, 0);
+        span.finish(TimeUnit.MILLISECONDS.toNanos(durationMs), e);
+        return new TraceRecord(traceId, System.currentTimeMillis(), Collections.singletonList(span), 0);
+    }
+}
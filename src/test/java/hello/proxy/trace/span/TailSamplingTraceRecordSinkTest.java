@@ -0,0 +1,56 @@
+package hello.proxy.trace.span;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.SpanTreeLogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TailSamplingTraceRecordSinkTest {
+
+    private final List<TraceRecord> kept = new ArrayList<>();
+
+    @Test
+    public void dropFastAndSuccessfulTraces() throws Exception {
+        TailSamplingTraceRecordSink sink = new TailSamplingTraceRecordSink(1, TimeUnit.MINUTES, kept::add);
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(sink);
+
+        TraceStatus root = trace.begin("OrderControllerV1.request()");
+        trace.end(trace.begin("OrderServiceV1.orderItem()"));
+        trace.end(root);
+
+        assertThat(kept).isEmpty();
+        assertThat(sink.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void keepFailedTraces() throws Exception {
+        TailSamplingTraceRecordSink sink = new TailSamplingTraceRecordSink(1, TimeUnit.MINUTES, kept::add);
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(sink);
+
+        // 하위 호출의 예외를 상위에서 처리하고 정상 종료해도 남긴다.
+        TraceStatus root = trace.begin("OrderControllerV1.request()");
+        TraceStatus repository = trace.begin("OrderRepositoryV1.save()");
+        trace.exception(repository, new IllegalStateException("예외 발생!"));
+        trace.end(root);
+
+        assertThat(kept).hasSize(1);
+        assertThat(sink.getKeptCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void keepSlowTraces() throws Exception {
+        TailSamplingTraceRecordSink sink = new TailSamplingTraceRecordSink(10, TimeUnit.MILLISECONDS, kept::add);
+        SpanTreeLogTrace trace = new SpanTreeLogTrace(sink);
+
+        TraceStatus root = trace.begin("OrderControllerV1.request()");
+        Thread.sleep(20);
+        trace.end(root);
+
+        assertThat(kept).hasSize(1);
+    }
+}
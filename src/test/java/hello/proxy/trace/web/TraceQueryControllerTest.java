@@ -0,0 +1,32 @@
+package hello.proxy.trace.web;
+
+import hello.proxy.trace.span.RecentTraceIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TraceQueryControllerTest {
+
+    private final TraceQueryController controller = new TraceQueryController(new RecentTraceIndex(16));
+
+    @Test
+    public void sortIsCaseInsensitive() throws Exception {
+        assertThat(controller.recent(null, 0, 0, false, "Slowest", 10)).isEmpty();
+    }
+
+    @Test
+    public void invalidSortIsBadRequest() throws Exception {
+        assertThatThrownBy(() -> controller.recent(null, 0, 0, false, "fastest", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    public void negativeLimitIsBadRequest() throws Exception {
+        assertThatThrownBy(() -> controller.recent(null, 0, 0, false, "recent", -1))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
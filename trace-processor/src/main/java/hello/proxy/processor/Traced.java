@@ -0,0 +1,24 @@
+package hello.proxy.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컴파일 시점에 트레이스 프록시를 만들 인터페이스에 붙인다.
+ *
+ * TracedProxyProcessor 가 같은 패키지에 {인터페이스 이름}TracedProxy 클래스를 만든다.
+ * config.v1_proxy.interface_proxy 의 직접 만든 프록시와 같은 코드라서 리플렉션, 인터셉터 체인, 런타임 바이트코드 생성이 없다.
+ *
+ * 컴파일이 끝나면 필요 없으므로 SOURCE 로 둔다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Traced {
+
+    /**
+     * 로그를 남기지 않고 바로 target 을 호출할 메서드 이름, 예) noLog
+     */
+    String[] exclude() default {};
+}
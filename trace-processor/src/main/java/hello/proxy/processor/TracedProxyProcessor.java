@@ -0,0 +1,286 @@
+package hello.proxy.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @Traced 인터페이스의 정적 트레이스 프록시를 생성한다.
+ *
+ * 예) OrderServiceV1 -> OrderServiceV1TracedProxy
+ *
+ * public class OrderServiceV1TracedProxy implements OrderServiceV1 {
+ *     public OrderServiceV1TracedProxy(OrderServiceV1 target, LogTrace logTrace) { ... }
+ *
+ *     public void orderItem(String itemId) {
+ *         TraceStatus $status = null;
+ *         try {
+ *             $status = this.logTrace.begin("OrderServiceV1.orderItem()");
+ *             this.target.orderItem(itemId);
+ *             this.logTrace.end($status);
+ *         } catch (Exception $e) {
+ *             this.logTrace.exception($status, $e);
+ *             throw $e;
+ *         }
+ *     }
+ * }
+ *
+ * 메시지 형식은 동적 프록시 핸들러, LogTraceAdvice 와 같다. (인터페이스 이름.메서드 이름())
+ * 필드는 this. 로 접근하고 지역 변수에는 '$' 를 붙여서 파라미터 이름(target, status, e ...)과 겹치지 않게 한다.
+ * 상속한 메서드는 @Traced 인터페이스 기준의 타입으로 쓴다. 예) extends Supplier<String> 이면 T get() 이 아니라 String get()
+ * 여러 상위 인터페이스에서 같은 시그니처(override-equivalent)로 상속한 메서드는 한 번만 만든다.
+ *   반환 타입은 가장 구체적인 것, throws 는 모든 메서드가 허용하는 예외만 남긴다.
+ * 제네릭 인터페이스는 지원하지 않는다.
+ */
+@SupportedAnnotationTypes("hello.proxy.processor.Traced")
+public class TracedProxyProcessor extends AbstractProcessor {
+
+    private static final String LOG_TRACE = "hello.proxy.trace.logtrace.LogTrace";
+    private static final String TRACE_STATUS = "hello.proxy.trace.TraceStatus";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Traced.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@Traced 는 인터페이스에만 붙일 수 있습니다.");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!type.getTypeParameters().isEmpty()) {
+                error(element, "@Traced 는 제네릭 인터페이스를 지원하지 않습니다.");
+                continue;
+            }
+            try {
+                generate(type, new HashSet<>(Arrays.asList(type.getAnnotation(Traced.class).exclude())));
+            } catch (IOException e) {
+                error(element, "트레이스 프록시를 생성하지 못했습니다. " + e);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type, Set<String> excludes) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String interfaceName = type.getQualifiedName().toString();
+        String simpleName = type.getSimpleName().toString();
+        String proxyName = binaryName(type) + "TracedProxy";
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? proxyName : packageName + "." + proxyName, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\"" + TracedProxyProcessor.class.getName() + "\")");
+            out.println("public class " + proxyName + " implements " + interfaceName + " {");
+            out.println();
+            out.println("    private final " + interfaceName + " target;");
+            out.println("    private final " + LOG_TRACE + " logTrace;");
+            out.println();
+            out.println("    public " + proxyName + "(" + interfaceName + " target, " + LOG_TRACE + " logTrace) {");
+            out.println("        this.target = target;");
+            out.println("        this.logTrace = logTrace;");
+            out.println("    }");
+
+            for (InheritedMethod method : abstractMethods(type)) {
+                out.println();
+                writeMethod(out, simpleName, method, excludes.contains(method.element.getSimpleName().toString()));
+            }
+            out.println("}");
+        }
+    }
+
+    /**
+     * 구현해야 하는 추상 메서드, override-equivalent 메서드는 하나로 합친다.
+     */
+    private List<InheritedMethod> abstractMethods(TypeElement type) {
+        Types types = processingEnv.getTypeUtils();
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        List<List<InheritedMethod>> groups = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue; // default, static 메서드는 그대로 둔다.
+            }
+            InheritedMethod inherited = new InheritedMethod(method, (ExecutableType) types.asMemberOf(declaredType, method));
+            groups.stream()
+                    .filter(group -> group.get(0).isOverrideEquivalent(inherited, types))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        List<InheritedMethod> group = new ArrayList<>();
+                        groups.add(group);
+                        return group;
+                    })
+                    .add(inherited);
+        }
+        return groups.stream().map(group -> merge(group, types)).collect(Collectors.toList());
+    }
+
+    private static InheritedMethod merge(List<InheritedMethod> group, Types types) {
+        InheritedMethod chosen = group.get(0);
+        for (InheritedMethod method : group) {
+            if (types.isSubtype(method.type.getReturnType(), chosen.type.getReturnType())) {
+                chosen = method;
+            }
+        }
+        List<TypeMirror> thrownTypes = new ArrayList<>();
+        for (TypeMirror thrown : chosen.type.getThrownTypes()) {
+            boolean allowed = group.stream().allMatch(method -> method.type.getThrownTypes().stream()
+                    .anyMatch(other -> types.isSubtype(thrown, other)));
+            if (allowed) {
+                thrownTypes.add(thrown);
+            }
+        }
+        return new InheritedMethod(chosen.element, chosen.type, thrownTypes);
+    }
+
+    private void writeMethod(PrintWriter out, String simpleName, InheritedMethod method, boolean excluded) {
+        String name = method.element.getSimpleName().toString();
+        TypeMirror returnType = method.type.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        String arguments = method.element.getParameters().stream()
+                .map(parameter -> parameter.getSimpleName().toString())
+                .collect(Collectors.joining(", "));
+        String call = "this.target." + name + "(" + arguments + ")";
+
+        out.println("    @Override");
+        out.println("    public " + typeParameters(method.type) + returnType + " " + name + "(" + parameters(method) + ")" + thrownTypes(method.thrownTypes) + " {");
+        if (excluded) {
+            out.println("        " + (isVoid ? "" : "return ") + call + ";");
+            out.println("    }");
+            return;
+        }
+        out.println("        " + TRACE_STATUS + " $status = null;");
+        out.println("        try {");
+        out.println("            $status = this.logTrace.begin(\"" + simpleName + "." + name + "()\");");
+        if (isVoid) {
+            out.println("            " + call + ";");
+            out.println("            this.logTrace.end($status);");
+        } else {
+            out.println("            " + returnType + " $result = " + call + ";");
+            out.println("            this.logTrace.end($status);");
+            out.println("            return $result;");
+        }
+        out.println("        } catch (Exception $e) {");
+        out.println("            this.logTrace.exception($status, $e);");
+        out.println("            throw $e;");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private static String typeParameters(ExecutableType method) {
+        if (method.getTypeVariables().isEmpty()) {
+            return "";
+        }
+        return method.getTypeVariables().stream()
+                .map(variable -> {
+                    TypeMirror upperBound = variable.getUpperBound();
+                    List<? extends TypeMirror> bounds = upperBound.getKind() == TypeKind.INTERSECTION
+                            ? ((IntersectionType) upperBound).getBounds()
+                            : List.of(upperBound);
+                    String boundText = bounds.stream()
+                            .map(TypeMirror::toString)
+                            .filter(bound -> !bound.equals("java.lang.Object"))
+                            .collect(Collectors.joining(" & "));
+                    String name = variable.asElement().getSimpleName().toString();
+                    return boundText.isEmpty() ? name : name + " extends " + boundText;
+                })
+                .collect(Collectors.joining(", ", "<", "> "));
+    }
+
+    private static String parameters(InheritedMethod method) {
+        List<? extends VariableElement> parameters = method.element.getParameters();
+        List<? extends TypeMirror> parameterTypes = method.type.getParameterTypes();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            String type = parameterTypes.get(i).toString();
+            if (method.element.isVarArgs() && i == parameters.size() - 1) {
+                type = type.substring(0, type.length() - 2) + "...";
+            }
+            sb.append(type).append(' ').append(parameters.get(i).getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    private static String thrownTypes(List<? extends TypeMirror> thrownTypes) {
+        if (thrownTypes.isEmpty()) {
+            return "";
+        }
+        return thrownTypes.stream()
+                .map(TypeMirror::toString)
+                .collect(Collectors.joining(", ", " throws ", ""));
+    }
+
+    /**
+     * 중첩 인터페이스는 바깥 클래스 이름을 붙인다. 예) Outer.Inner -> Outer_Inner
+     */
+    private static String binaryName(TypeElement type) {
+        StringBuilder sb = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (!(enclosing instanceof PackageElement)) {
+            sb.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return sb.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 상속한 메서드와 @Traced 인터페이스 기준으로 본 타입 (타입 변수를 실제 타입으로 바꾼 시그니처)
+     */
+    private static class InheritedMethod {
+        private final ExecutableElement element;
+        private final ExecutableType type;
+        private final List<? extends TypeMirror> thrownTypes;
+
+        InheritedMethod(ExecutableElement element, ExecutableType type) {
+            this(element, type, type.getThrownTypes());
+        }
+
+        InheritedMethod(ExecutableElement element, ExecutableType type, List<? extends TypeMirror> thrownTypes) {
+            this.element = element;
+            this.type = type;
+            this.thrownTypes = thrownTypes;
+        }
+
+        boolean isOverrideEquivalent(InheritedMethod other, Types types) {
+            return element.getSimpleName().equals(other.element.getSimpleName())
+                    && (types.isSubsignature(type, other.type) || types.isSubsignature(other.type, type));
+        }
+    }
+}
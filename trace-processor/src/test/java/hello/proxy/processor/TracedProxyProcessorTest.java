@@ -0,0 +1,193 @@
+package hello.proxy.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class TracedProxyProcessorTest {
+
+    // 프로세서 모듈은 앱에 의존하지 않으므로 생성 코드가 참조하는 타입을 같은 이름으로 둔다.
+    private static final String LOG_TRACE = "package hello.proxy.trace.logtrace;\n" +
+            "public interface LogTrace {\n" +
+            "    hello.proxy.trace.TraceStatus begin(String message);\n" +
+            "    void end(hello.proxy.trace.TraceStatus status);\n" +
+            "    void exception(hello.proxy.trace.TraceStatus status, Exception e);\n" +
+            "}\n";
+    private static final String TRACE_STATUS = "package hello.proxy.trace;\n" +
+            "public class TraceStatus {\n" +
+            "    private final String message;\n" +
+            "    public TraceStatus(String message) { this.message = message; }\n" +
+            "    public String getMessage() { return message; }\n" +
+            "}\n";
+    private static final String RECORDING_LOG_TRACE = "package sample;\n" +
+            "public class RecordingLogTrace implements hello.proxy.trace.logtrace.LogTrace {\n" +
+            "    public final java.util.List<String> events = new java.util.ArrayList<>();\n" +
+            "    public hello.proxy.trace.TraceStatus begin(String message) { events.add(\"begin \" + message); return new hello.proxy.trace.TraceStatus(message); }\n" +
+            "    public void end(hello.proxy.trace.TraceStatus status) { events.add(\"end \" + status.getMessage()); }\n" +
+            "    public void exception(hello.proxy.trace.TraceStatus status, Exception e) { events.add(\"exception \" + status.getMessage()); }\n" +
+            "}\n";
+
+    @TempDir
+    Path output;
+
+    @Test
+    public void parameterNamesDoNotCollide() throws Exception {
+        String collision = "package sample;\n" +
+                "@hello.proxy.processor.Traced\n" +
+                "public interface Collision {\n" +
+                "    String call(String target, String logTrace, String status, String result, String e);\n" +
+                "}\n";
+        String collisionImpl = "package sample;\n" +
+                "public class CollisionImpl implements Collision {\n" +
+                "    public String call(String target, String logTrace, String status, String result, String e) {\n" +
+                "        return target + logTrace + status + result + e;\n" +
+                "    }\n" +
+                "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                source("sample.Collision", collision), source("sample.CollisionImpl", collisionImpl));
+        assertThat(errors(diagnostics)).isEmpty();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> logTraceType = classLoader.loadClass("hello.proxy.trace.logtrace.LogTrace");
+            Class<?> collisionType = classLoader.loadClass("sample.Collision");
+            Object logTrace = classLoader.loadClass("sample.RecordingLogTrace").getConstructor().newInstance();
+            Object target = classLoader.loadClass("sample.CollisionImpl").getConstructor().newInstance();
+            Object proxy = classLoader.loadClass("sample.CollisionTracedProxy")
+                    .getConstructor(collisionType, logTraceType)
+                    .newInstance(target, logTrace);
+
+            Object result = collisionType.getMethod("call", String.class, String.class, String.class, String.class, String.class)
+                    .invoke(proxy, "a", "b", "c", "d", "e");
+
+            assertThat(result).isEqualTo("abcde"); // 파라미터가 필드, 지역 변수를 가리지 않는다.
+            assertThat(logTrace.getClass().getField("events").get(logTrace))
+                    .asList().containsExactly("begin Collision.call()", "end Collision.call()");
+        }
+    }
+
+    @Test
+    public void inheritedGenericMethodUsesActualType() throws Exception {
+        String named = "package sample;\n" +
+                "@hello.proxy.processor.Traced\n" +
+                "public interface Named extends java.util.function.Supplier<String> {\n" +
+                "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(source("sample.Named", named));
+        assertThat(errors(diagnostics)).isEmpty(); // T get() 가 아니라 String get()
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> namedType = classLoader.loadClass("sample.Named");
+            Object logTrace = classLoader.loadClass("sample.RecordingLogTrace").getConstructor().newInstance();
+            Object target = java.lang.reflect.Proxy.newProxyInstance(classLoader, new Class<?>[]{namedType}, (proxy, method, args) -> "itemA");
+            Object proxy = classLoader.loadClass("sample.NamedTracedProxy")
+                    .getConstructor(namedType, classLoader.loadClass("hello.proxy.trace.logtrace.LogTrace"))
+                    .newInstance(target, logTrace);
+
+            assertThat(proxy.getClass().getMethod("get").getReturnType()).isEqualTo(String.class);
+            assertThat(((java.util.function.Supplier<?>) proxy).get()).isEqualTo("itemA");
+            assertThat(logTrace.getClass().getField("events").get(logTrace))
+                    .asList().containsExactly("begin Named.get()", "end Named.get()");
+        }
+    }
+
+    @Test
+    public void overrideEquivalentMethodsAreGeneratedOnce() throws Exception {
+        String reader = "package sample;\n" +
+                "public interface Reader {\n" +
+                "    Object read(String key) throws java.io.IOException;\n" +
+                "}\n";
+        String loader = "package sample;\n" +
+                "public interface Loader {\n" +
+                "    String read(String key);\n" +
+                "}\n";
+        String both = "package sample;\n" +
+                "@hello.proxy.processor.Traced\n" +
+                "public interface Both extends Reader, Loader {\n" +
+                "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(
+                source("sample.Reader", reader), source("sample.Loader", loader), source("sample.Both", both));
+        assertThat(errors(diagnostics)).isEmpty(); // read() 를 두 번 만들거나 IOException 을 던지면 컴파일되지 않는다.
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> proxyType = classLoader.loadClass("sample.BothTracedProxy");
+            java.lang.reflect.Method read = proxyType.getMethod("read", String.class);
+            assertThat(read.getReturnType()).isEqualTo(String.class);
+            assertThat(read.getExceptionTypes()).isEmpty();
+        }
+    }
+
+    @Test
+    public void rejectClass() throws Exception {
+        String notInterface = "package sample;\n" +
+                "@hello.proxy.processor.Traced\n" +
+                "public class NotInterface {\n" +
+                "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(source("sample.NotInterface", notInterface));
+
+        assertThat(errors(diagnostics)).containsExactly("@Traced 는 인터페이스에만 붙일 수 있습니다.");
+    }
+
+    @Test
+    public void rejectGenericInterface() throws Exception {
+        String generic = "package sample;\n" +
+                "@hello.proxy.processor.Traced\n" +
+                "public interface Repository<T> {\n" +
+                "    void save(T entity);\n" +
+                "}\n";
+
+        DiagnosticCollector<JavaFileObject> diagnostics = compile(source("sample.Repository", generic));
+
+        assertThat(errors(diagnostics)).containsExactly("@Traced 는 제네릭 인터페이스를 지원하지 않습니다.");
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(JavaFileObject... sources) {
+        List<JavaFileObject> units = new ArrayList<>(List.of(
+                source("hello.proxy.trace.logtrace.LogTrace", LOG_TRACE),
+                source("hello.proxy.trace.TraceStatus", TRACE_STATUS),
+                source("sample.RecordingLogTrace", RECORDING_LOG_TRACE)));
+        units.addAll(List.of(sources));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = List.of("-d", output.toString(), "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, units);
+        task.setProcessors(List.of(new TracedProxyProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}